@@ -32,17 +32,80 @@ CREATE TABLE `courses` (
   `course_code` varchar(10) NOT NULL,
   `course_name` varchar(100) NOT NULL,
   `credits` int(11) NOT NULL,
-  `instructor` varchar(100) DEFAULT NULL
+  `instructor` varchar(100) DEFAULT NULL,
+  `schedule` varchar(255) DEFAULT NULL,
+  `row_version` bigint(20) NOT NULL DEFAULT 0,
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `course_tombstones`
+-- (one row per deleted course, so other desks can drop it without a full reload)
+--
+
+CREATE TABLE `course_tombstones` (
+  `course_id` int(11) NOT NULL,
+  `row_version` bigint(20) NOT NULL,
+  `deleted_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `course_change_seq`
+-- (single row holding the last row_version handed out; writers lock it until commit,
+-- so versions become visible in increasing order)
+--
+
+CREATE TABLE `course_change_seq` (
+  `id` tinyint(4) NOT NULL,
+  `value` bigint(20) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+--
+-- Table structure for table `course_capacity`
+-- (seat capacity per course; courses without a row get registration.enrollment.defaultCapacity)
+--
+
+CREATE TABLE `course_capacity` (
+  `course_id` int(11) NOT NULL,
+  `capacity` int(11) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `enrollments`
+-- (latest state of each student in each course; `seq` orders the changes, so a replayed
+-- batch never overwrites a later state, and waitlists are rebuilt in the order students joined)
+--
+
+CREATE TABLE `enrollments` (
+  `course_id` int(11) NOT NULL,
+  `student_id` varchar(32) NOT NULL,
+  `status` enum('ENROLLED','WAITLISTED','DROPPED') NOT NULL,
+  `seq` bigint(20) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Dumping data for table `course_change_seq`
+--
+
+INSERT INTO `course_change_seq` (`id`, `value`) VALUES
+(1, 3);
+
 --
 -- Dumping data for table `courses`
 --
 
-INSERT INTO `courses` (`course_id`, `course_code`, `course_name`, `credits`, `instructor`) VALUES
-(1, 'CS601', 'DATABASE ADMINSTRATION', 5, 'CLAIRE'),
-(2, 'ITLOJ602', 'JAVA', 15, 'GP'),
-(3, 'ITLWNA602', 'Large Network Administrator', 10, 'Fabien NZABANDORA');
+INSERT INTO `courses` (`course_id`, `course_code`, `course_name`, `credits`, `instructor`, `row_version`) VALUES
+(1, 'CS601', 'DATABASE ADMINSTRATION', 5, 'CLAIRE', 1),
+(2, 'ITLOJ602', 'JAVA', 15, 'GP', 2),
+(3, 'ITLWNA602', 'Large Network Administrator', 10, 'Fabien NZABANDORA', 3);
 
 --
 -- Indexes for dumped tables
@@ -53,7 +116,34 @@ INSERT INTO `courses` (`course_id`, `course_code`, `course_name`, `credits`, `in
 --
 ALTER TABLE `courses`
   ADD PRIMARY KEY (`course_id`),
-  ADD UNIQUE KEY `course_code` (`course_code`);
+  ADD UNIQUE KEY `course_code` (`course_code`),
+  ADD KEY `row_version` (`row_version`);
+
+--
+-- Indexes for table `course_tombstones`
+--
+ALTER TABLE `course_tombstones`
+  ADD PRIMARY KEY (`course_id`),
+  ADD KEY `row_version` (`row_version`);
+
+--
+-- Indexes for table `course_change_seq`
+--
+ALTER TABLE `course_change_seq`
+  ADD PRIMARY KEY (`id`);
+
+--
+-- Indexes for table `course_capacity`
+--
+ALTER TABLE `course_capacity`
+  ADD PRIMARY KEY (`course_id`);
+
+--
+-- Indexes for table `enrollments`
+--
+ALTER TABLE `enrollments`
+  ADD PRIMARY KEY (`course_id`,`student_id`),
+  ADD KEY `seq` (`seq`);
 
 --
 -- AUTO_INCREMENT for dumped tables
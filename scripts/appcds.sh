@@ -0,0 +1,25 @@
+#!/bin/sh
+# Starts the course UI with an AppCDS archive of the classes it loads during startup.
+# The first run (or any run after the classes changed) is a training run: the UI starts, shows the
+# catalog, exits and leaves the archive behind; every run after that maps the archived classes.
+#
+# Usage (from the project root, after compiling into bin/): scripts/appcds.sh [JVM options]
+set -e
+
+JAR=course-registration.jar
+ARCHIVE=${APPCDS_ARCHIVE:-course-registration.jsa}
+CP="$JAR:mysql-connector-j-9.5.0.jar"
+MAIN=com.registration.ui.CourseRegistrationUI
+
+# CDS only archives classes loaded from JAR files, not from class directories
+if [ ! -f "$JAR" ] || [ -n "$(find bin -newer "$JAR" -name '*.class' | head -n 1)" ]; then
+    jar cf "$JAR" -C bin .
+    rm -f "$ARCHIVE"
+fi
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "AppCDS training run: recording startup classes in $ARCHIVE"
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dregistration.startup.exitWhenShown=true "$@" -cp "$CP" "$MAIN"
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" "$@" -cp "$CP" "$MAIN"
@@ -0,0 +1,26 @@
+package com.registration.bench;
+
+/**
+ * Consumes benchmark results so the JIT cannot prove them unused and eliminate the work.
+ */
+public final class Blackhole {
+    private volatile Object sink;
+    private int counter;
+
+    public void consume(Object value) {
+        // A cheap, unpredictable store: the JIT must keep the value alive
+        if ((++counter & 0xFFFF) == 0) {
+            sink = value;
+        } else if (value == this) {
+            sink = value;
+        }
+    }
+
+    public void consume(int value) {
+        counter += value;
+        if (counter == Integer.MIN_VALUE) {
+            sink = counter;
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.registration.bench;
+
+import com.registration.model.Course;
+import com.registration.service.ColumnarCatalog;
+
+import javax.swing.table.DefaultTableModel;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Heap cost of holding a full catalog in the three shapes the UI and service have used: a
+ * DefaultTableModel of boxed Object[] rows, a List of Course objects, and a ColumnarCatalog.
+ *
+ * Each load streams generated courses the way a database read does (fresh Strings per row, with
+ * memory.instructors distinct instructors, default 800, and memory.prefixes code prefixes, default 40)
+ * into the structure. Reported per course: heap still used after a full GC, bytes allocated during the
+ * load, and collections (count and time) the load caused. Every figure is the median of memory.runs
+ * runs (default 3) after one warm-up; sizes come from memory.sizes (default 100000,500000).
+ *
+ * Before measuring, memory.edits random inserts, replacements and removals (default 20000) with names of
+ * changing length are applied to a ColumnarCatalog created for one row and to a Course list; the benchmark
+ * exits with status 1 if the two ever differ.
+ *
+ * Run with a fixed heap so runs compare, e.g. java -Xms2g -Xmx2g -cp bin com.registration.bench.CatalogMemoryBenchmark
+ */
+public class CatalogMemoryBenchmark {
+
+    private static final int[] SIZES = Arrays.stream(System.getProperty("memory.sizes", "100000,500000").split(","))
+        .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final int RUNS = Integer.getInteger("memory.runs", 3);
+    private static final int INSTRUCTORS = Integer.getInteger("memory.instructors", 800);
+    private static final int PREFIXES = Integer.getInteger("memory.prefixes", 40);
+    private static final int EDITS = Integer.getInteger("memory.edits", 20_000);
+
+    /** One way of holding the catalog: {@code loader} creates an empty one sized for n rows and returns what adds a row to it. */
+    private static final class Shape {
+        final String name;
+        final IntFunction<Consumer<Course>> loader;
+
+        Shape(String name, IntFunction<Consumer<Course>> loader) {
+            this.name = name;
+            this.loader = loader;
+        }
+    }
+
+    /** Median figures of one shape at one size. */
+    private static final class Result {
+        double retainedPerCourse;
+        double allocatedPerCourse;
+        long collections;
+        long gcMillis;
+        long loadMillis;
+    }
+
+    public static void main(String[] args) {
+        String mismatch = checkEdits();
+        if (mismatch != null) {
+            System.out.println("FAIL: columnar catalog differs from the Course list after " + mismatch);
+            System.exit(1);
+        }
+
+        List<Shape> shapes = List.of(
+            new Shape("defaultTableModel", size -> {
+                DefaultTableModel model = new DefaultTableModel(new String[] {"ID", "Code", "Name", "Credits", "Instructor"}, 0);
+                return course -> model.addRow(new Object[] {
+                    course.getCourseId(), course.getCourseCode(), course.getCourseName(), course.getCredits(), course.getInstructor()});
+            }),
+            new Shape("courseList", size -> new ArrayList<Course>(size)::add),
+            new Shape("columnar", size -> new ColumnarCatalog(size)::add));
+
+        System.out.printf(Locale.ROOT, "Catalog memory benchmark: %d instructors, %d code prefixes, heap max %,d MB%n",
+            INSTRUCTORS, PREFIXES, Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf(Locale.ROOT, "%-18s %9s %14s %15s %6s %8s %8s%n",
+            "shape", "courses", "retained B/row", "allocated B/row", "GCs", "GC ms", "load ms");
+        for (int size : SIZES) {
+            Result baseline = null;
+            for (Shape shape : shapes) {
+                measure(shape, size); // warm-up
+                Result result = median(shape, size);
+                System.out.printf(Locale.ROOT, "%-18s %,9d %,14.0f %,15.0f %6d %8d %8d%n", shape.name, size,
+                    result.retainedPerCourse, result.allocatedPerCourse, result.collections, result.gcMillis, result.loadMillis);
+                if (shape.name.equals("courseList")) {
+                    baseline = result;
+                } else if (shape.name.equals("columnar") && baseline != null) {
+                    System.out.printf(Locale.ROOT, "%-18s %9s %13.0f%% of the Course list%n", "", "",
+                        100 * result.retainedPerCourse / baseline.retainedPerCourse);
+                }
+            }
+        }
+    }
+
+    /** Applies the same random edits to a columnar catalog and a Course list; returns the first edit after which they differ, or null. */
+    private static String checkEdits() {
+        ColumnarCatalog catalog = new ColumnarCatalog(1); // every name written grows or compacts the name bytes
+        List<Course> expected = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int edit = 1; edit <= EDITS; edit++) {
+            int op = expected.isEmpty() ? 0 : random.nextInt(3);
+            int row = random.nextInt(expected.size() + (op == 0 ? 1 : 0));
+            Course course = new Course(edit, prefixName(random.nextInt(PREFIXES)) + (100 + edit % 900),
+                editName(random), 1 + random.nextInt(6), "Instructor " + random.nextInt(INSTRUCTORS), edit);
+            String description = (op == 0 ? "inserting" : op == 1 ? "replacing" : "removing") + " row " + row;
+            try {
+                if (op == 0) {
+                    catalog.add(row, course);
+                    expected.add(row, course);
+                } else if (op == 1) {
+                    catalog.set(row, course);
+                    expected.set(row, course);
+                } else {
+                    catalog.remove(row);
+                    expected.remove(row);
+                }
+            } catch (RuntimeException e) {
+                return "edit " + edit + " (" + description + "): " + e;
+            }
+            if (catalog.size() != expected.size()) {
+                return "edit " + edit + " (" + description + "): " + catalog.size() + " rows, expected " + expected.size();
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (!sameCourse(catalog.getCourse(i), expected.get(i))) {
+                    return "edit " + edit + " (" + description + "): row " + i + " is " + catalog.getCourse(i) + ", expected " + expected.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Null, empty, short, long and non-ASCII names, so replacements shrink and grow the name bytes
+    private static String editName(SplittableRandom random) {
+        return switch (random.nextInt(8)) {
+            case 0 -> null;
+            case 1 -> "";
+            case 2 -> "\u00c9tudes " + random.nextInt(1_000);
+            default -> "Course ".repeat(random.nextInt(1, 12)) + random.nextInt(1_000);
+        };
+    }
+
+    private static boolean sameCourse(Course a, Course b) {
+        return a.getCourseId() == b.getCourseId() && a.getVersion() == b.getVersion() && a.getCredits() == b.getCredits()
+            && Objects.equals(a.getCourseCode(), b.getCourseCode()) && Objects.equals(a.getCourseName(), b.getCourseName())
+            && Objects.equals(a.getInstructor(), b.getInstructor());
+    }
+
+    private static Result median(Shape shape, int size) {
+        List<Result> runs = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, RUNS); i++) {
+            runs.add(measure(shape, size));
+        }
+        Result median = new Result();
+        median.retainedPerCourse = runs.stream().mapToDouble(r -> r.retainedPerCourse).sorted().toArray()[runs.size() / 2];
+        median.allocatedPerCourse = runs.stream().mapToDouble(r -> r.allocatedPerCourse).sorted().toArray()[runs.size() / 2];
+        median.collections = runs.stream().mapToLong(r -> r.collections).sorted().toArray()[runs.size() / 2];
+        median.gcMillis = runs.stream().mapToLong(r -> r.gcMillis).sorted().toArray()[runs.size() / 2];
+        median.loadMillis = runs.stream().mapToLong(r -> r.loadMillis).sorted().toArray()[runs.size() / 2];
+        return median;
+    }
+
+    private static Result measure(Shape shape, int size) {
+        fullGc();
+        long heapBefore = usedHeap();
+        long collectionsBefore = collections();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        // The adder holds the only reference to the loaded structure
+        Consumer<Course> add = shape.loader.apply(size);
+        SplittableRandom random = new SplittableRandom(size);
+        for (int i = 1; i <= size; i++) {
+            add.accept(generate(i, random));
+        }
+
+        Result result = new Result();
+        result.loadMillis = (System.nanoTime() - start) / 1_000_000;
+        result.allocatedPerCourse = (double) (allocatedBytes() - allocatedBefore) / size;
+        result.collections = collections() - collectionsBefore;
+        result.gcMillis = gcMillis() - gcMillisBefore;
+        fullGc();
+        result.retainedPerCourse = (double) (usedHeap() - heapBefore) / size;
+        Reference.reachabilityFence(add);
+        return result;
+    }
+
+    // A row as a database read returns it: every String is a new object
+    private static Course generate(int id, SplittableRandom random) {
+        int prefix = random.nextInt(PREFIXES);
+        return new Course(id, prefixName(prefix) + (100_000 + id), "Course " + id + " of " + prefixName(prefix),
+            1 + random.nextInt(6), "Instructor " + random.nextInt(INSTRUCTORS), id);
+    }
+
+    // Letters only, e.g. 0 -> "CSA", 27 -> "CSBB"
+    private static String prefixName(int prefix) {
+        StringBuilder name = new StringBuilder("CS");
+        do {
+            name.append((char) ('A' + prefix % 26));
+            prefix /= 26;
+        } while (prefix > 0);
+        return name.toString();
+    }
+
+    private static void fullGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,270 @@
+package com.registration.bench;
+
+import com.registration.db.ConnectionPool;
+import com.registration.db.CourseDAO;
+import com.registration.db.CourseDAOImpl;
+import com.registration.db.CourseRowMapper;
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.db.InstrumentedCourseDAO;
+import com.registration.db.MappedFileCourseDAO;
+import com.registration.metrics.LatencyHistogram;
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+import com.registration.service.AsyncCourseService;
+import com.registration.service.CourseService;
+import com.registration.ui.CourseTableModel;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import javax.swing.table.DefaultTableModel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmarks of the hot paths: validation, DAO CRUD and full reads at several catalog sizes,
+ * ResultSet row mapping and table model population.
+ *
+ * DAO benchmarks run against the embedded InMemoryCourseDAO and MappedFileCourseDAO (in a temporary
+ * directory) so no server is needed;
+ * add -Dbench.jdbc=true to also run them against the MySQL database in DatabaseConfig
+ * (rows are inserted with BN-prefixed codes and deleted afterwards).
+ *
+ * Other settings: bench.sizes (default 100,1000,10000), bench.out (JSON, default bench-results.json),
+ * bench.csv (default bench-results.csv), bench.baseline (CSV of an earlier run to compare with),
+ * plus the MicroBenchmark settings.
+ */
+public class CourseBenchmarks {
+
+    private static final String[] INSTRUCTORS = {"CLAIRE", "GP", "Fabien NZABANDORA", "UMURERWA Divine", "NSHUTI Thierry"};
+    private static final String[] PREFIXES = {"CS", "ITLOJ", "ITLWNA", "ITLDA", "MATH"};
+
+    public static void main(String[] args) throws Exception {
+        MicroBenchmark bench = new MicroBenchmark(System.out);
+        int[] sizes = parseSizes(System.getProperty("bench.sizes", "100,1000,10000"));
+
+        benchValidation(bench);
+        benchMetrics(bench);
+        for (int size : sizes) {
+            benchRowMapping(bench, size);
+            benchTablePopulation(bench, size);
+        }
+        for (int size : sizes) {
+            benchDao(bench, "memory", new InMemoryCourseDAO(), size);
+            try (MappedFileCourseDAO store = new MappedFileCourseDAO(Files.createTempDirectory("course-bench"), false)) {
+                benchDao(bench, "mapped", store, size);
+            }
+            benchAsyncFanOut(bench, size);
+        }
+        if (Boolean.getBoolean("bench.jdbc")) {
+            for (int size : sizes) {
+                benchDao(bench, "jdbc", new CourseDAOImpl(), size);
+            }
+            System.out.println("Pool: " + ConnectionPool.getDefault().getStats());
+        }
+
+        bench.writeJson(Path.of(System.getProperty("bench.out", "bench-results.json")));
+        bench.writeCsv(Path.of(System.getProperty("bench.csv", "bench-results.csv")));
+        String baseline = System.getProperty("bench.baseline");
+        if (baseline != null) {
+            bench.compareWith(Path.of(baseline));
+        }
+    }
+
+    // --- CourseService.validateCourse ---
+
+    private static void benchValidation(MicroBenchmark bench) throws Exception {
+        CourseService service = new CourseService(new InMemoryCourseDAO());
+        Course valid = new Course("ITLWNA602", "Large Network Administrator", 10, "Fabien NZABANDORA");
+
+        bench.run("validate.course", "-", bh -> {
+            service.validateCourse(valid);
+            bh.consume(valid);
+        });
+        // The previous implementation: String.matches compiles the pattern on every call
+        bench.run("validate.stringMatchesPerCall", "-", bh -> bh.consume(valid.getCourseCode().matches("[A-Za-z]{4,6}[0-9]{3}")));
+    }
+
+    // --- Instrumentation overhead ---
+
+    private static void benchMetrics(MicroBenchmark bench) throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(11);
+        bench.run("metrics.histogramRecord", "-", bh -> histogram.record(random.nextLong(1_000_000)));
+
+        InMemoryCourseDAO plain = new InMemoryCourseDAO();
+        plain.addCourses(generateCourses(1_000, 0));
+        InstrumentedCourseDAO instrumented = new InstrumentedCourseDAO(plain, "bench.dao");
+        bench.run("metrics.plainGetCourseById", "-", bh -> bh.consume(plain.getCourseById(1 + random.nextInt(1_000))));
+        bench.run("metrics.instrumentedGetCourseById", "-", bh -> bh.consume(instrumented.getCourseById(1 + random.nextInt(1_000))));
+    }
+
+    // --- CourseRowMapper.extractCourseFromResultSet over an in-memory ResultSet ---
+
+    private static void benchRowMapping(MicroBenchmark bench, int size) throws Exception {
+        if (!bench.isSelected("resultSet.extractCourses")) {
+            return;
+        }
+        CachedRowSet rows = courseRowSet(generateCourses(size, 0));
+        bench.run("resultSet.extractCourses", String.valueOf(size), bh -> {
+            rows.beforeFirst();
+            while (rows.next()) {
+                bh.consume(CourseRowMapper.extractCourseFromResultSet(rows));
+            }
+        });
+    }
+
+    private static CachedRowSet courseRowSet(List<Course> courses) throws SQLException {
+        RowSetMetaDataImpl meta = new RowSetMetaDataImpl();
+        String[] names = {"course_id", "course_code", "course_name", "credits", "instructor", "schedule", "row_version"};
+        int[] types = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+        meta.setColumnCount(names.length);
+        for (int i = 0; i < names.length; i++) {
+            meta.setColumnName(i + 1, names[i]);
+            meta.setColumnLabel(i + 1, names[i]);
+            meta.setColumnType(i + 1, types[i]);
+        }
+
+        CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(meta);
+        for (Course course : courses) {
+            rows.moveToInsertRow();
+            rows.updateInt(1, course.getCourseId());
+            rows.updateString(2, course.getCourseCode());
+            rows.updateString(3, course.getCourseName());
+            rows.updateInt(4, course.getCredits());
+            rows.updateString(5, course.getInstructor());
+            rows.updateString(6, MeetingSlot.formatSchedule(course.getSchedule()));
+            rows.updateLong(7, course.getVersion());
+            rows.insertRow();
+            rows.moveToCurrentRow();
+        }
+        rows.setType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+        return rows;
+    }
+
+    // --- Table model population (the CourseRegistrationUI load loop) ---
+
+    private static void benchTablePopulation(MicroBenchmark bench, int size) throws Exception {
+        List<Course> courses = generateCourses(size, 0);
+
+        // Previous loop: clear a DefaultTableModel and addRow one boxed Object[] per course
+        DefaultTableModel legacy = new DefaultTableModel(new String[] {"ID", "Code", "Name", "Credits", "Instructor"}, 0);
+        bench.run("table.defaultModelAddRow", String.valueOf(size), bh -> {
+            legacy.setRowCount(0);
+            for (Course course : courses) {
+                legacy.addRow(new Object[] {
+                    course.getCourseId(), course.getCourseCode(), course.getCourseName(), course.getCredits(), course.getInstructor()
+                });
+            }
+            bh.consume(legacy.getRowCount());
+        });
+
+        CourseTableModel model = new CourseTableModel();
+        bench.run("table.courseModelAppendPage", String.valueOf(size), bh -> {
+            model.clear();
+            model.appendPage(courses);
+            bh.consume(model.getRowCount());
+        });
+
+        model.clear();
+        model.appendPage(courses);
+        model.setFullyLoaded(true);
+        SplittableRandom random = new SplittableRandom(7);
+        bench.run("table.courseModelUpdateRow", String.valueOf(size), bh -> {
+            Course course = courses.get(random.nextInt(courses.size()));
+            bh.consume(model.updateCourse(course));
+        });
+    }
+
+    // --- DAO CRUD and full reads ---
+
+    private static void benchDao(MicroBenchmark bench, String backend, CourseDAO dao, int size) throws Exception {
+        String param = String.valueOf(size);
+        String prefix = "dao." + backend + ".";
+        List<Course> seeded = generateCourses(size, 0);
+        dao.addCourses(seeded);
+        List<Integer> ids = new ArrayList<>(size);
+        for (Course course : seeded) {
+            ids.add(course.getCourseId());
+        }
+
+        try {
+            bench.run(prefix + "getAllCourses", param, bh -> bh.consume(dao.getAllCourses()));
+
+            SplittableRandom random = new SplittableRandom(42);
+            bench.run(prefix + "getCourseById", param, bh -> bh.consume(dao.getCourseById(ids.get(random.nextInt(ids.size())))));
+
+            bench.run(prefix + "getCoursesAfter.page100", param,
+                bh -> bh.consume(dao.getCoursesAfter(ids.get(random.nextInt(ids.size())), 100)));
+
+            bench.run(prefix + "updateCourse", param, bh -> {
+                Course course = seeded.get(random.nextInt(seeded.size()));
+                course.setCredits(1 + random.nextInt(30));
+                dao.updateCourse(course);
+            });
+
+            // Insert + delete keeps the catalog at its benchmark size
+            int[] counter = {0};
+            bench.run(prefix + "addThenDeleteCourse", param, bh -> {
+                Course course = new Course(String.format("BX%08d", counter[0]++), "Benchmark Course", 3, "Bench");
+                dao.addCourse(course);
+                dao.deleteCourse(course.getCourseId());
+            });
+        } finally {
+            for (int id : ids) {
+                dao.deleteCourse(id);
+            }
+        }
+    }
+
+    // --- AsyncCourseService fan-out: 100 concurrent lookups per operation ---
+
+    private static void benchAsyncFanOut(MicroBenchmark bench, int size) throws Exception {
+        if (!bench.isSelected("async.getCoursesByIds.fanout100")) {
+            return;
+        }
+        InMemoryCourseDAO dao = new InMemoryCourseDAO();
+        dao.addCourses(generateCourses(size, 0));
+        List<Integer> ids = new ArrayList<>(100);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            ids.add(1 + random.nextInt(size));
+        }
+        try (AsyncCourseService async = new AsyncCourseService(new CourseService(dao))) {
+            bench.run("async.getCoursesByIds.fanout100", String.valueOf(size), bh -> bh.consume(async.getCoursesByIds(ids).join()));
+        }
+    }
+
+    // --- Test data ---
+
+    static List<Course> generateCourses(int count, int firstId) {
+        SplittableRandom random = new SplittableRandom(count);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = firstId + i + 1;
+            courses.add(new Course(
+                id,
+                String.format("BN%08d", id),
+                PREFIXES[random.nextInt(PREFIXES.length)] + " Course " + id,
+                1 + random.nextInt(30),
+                INSTRUCTORS[random.nextInt(INSTRUCTORS.length)]));
+        }
+        return courses;
+    }
+
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+}
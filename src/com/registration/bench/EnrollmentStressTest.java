@@ -0,0 +1,272 @@
+package com.registration.bench;
+
+import com.registration.db.EnrollmentDAO;
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.db.InMemoryEnrollmentDAO;
+import com.registration.metrics.LatencyHistogram;
+import com.registration.model.Course;
+import com.registration.model.Enrollment;
+import com.registration.service.CourseService;
+import com.registration.service.EnrollmentService;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registration-day stress test of EnrollmentService: stress.students students (default 20000), each on
+ * its own virtual thread, are released at once and enroll in stress.courses courses (default 5) of
+ * stress.capacity seats (default 100). Most ask for the first, most popular course. stress.dropPercent
+ * of them (default 20) drop again, some enroll twice, and capacities change while it runs.
+ *
+ * Saves go through a store that fails every stress.failEvery-th batch (default 7) and applies every
+ * other batch twice, to exercise retries and idempotent replays. A checker thread watches the seat
+ * counts during the run. Afterwards the test checks that no course was ever oversold, that no seat
+ * stayed free while someone was waiting, that waitlists kept arrival order, and that a service
+ * reloaded from the store has the same enrollments. Exits with status 1 if any check fails.
+ */
+public class EnrollmentStressTest {
+
+    private static final int STUDENTS = Integer.getInteger("stress.students", 20_000);
+    private static final int COURSES = Integer.getInteger("stress.courses", 5);
+    private static final int CAPACITY = Integer.getInteger("stress.capacity", 100);
+    private static final int DROP_PERCENT = Integer.getInteger("stress.dropPercent", 20);
+    private static final int FAIL_EVERY = Integer.getInteger("stress.failEvery", 7);
+
+    /** Fails some batches and saves others twice; the service must cope with both. */
+    private static final class UnreliableStore implements EnrollmentDAO {
+        final InMemoryEnrollmentDAO store = new InMemoryEnrollmentDAO();
+        final AtomicLong calls = new AtomicLong();
+        final LongAdder failures = new LongAdder();
+        final LongAdder replays = new LongAdder();
+
+        @Override public Map<Integer, Integer> getCapacities() { return store.getCapacities(); }
+        @Override public void setCapacity(int courseId, int capacity) { store.setCapacity(courseId, capacity); }
+        @Override public List<Enrollment> getEnrollments() { return store.getEnrollments(); }
+        @Override public long getLastSequence() { return store.getLastSequence(); }
+
+        @Override
+        public void saveEnrollments(List<Enrollment> enrollments) throws SQLException {
+            long call = calls.incrementAndGet();
+            if (FAIL_EVERY > 0 && call % FAIL_EVERY == 0) {
+                failures.increment();
+                throw new SQLTransientConnectionException("Simulated outage on save " + call);
+            }
+            store.saveEnrollments(enrollments);
+            if (call % 2 == 0) {
+                replays.increment();
+                store.saveEnrollments(enrollments);
+            }
+        }
+    }
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new EnrollmentStressTest().run();
+        System.out.println(passed ? "PASS" : "FAIL");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run() throws Exception {
+        InMemoryCourseDAO catalog = new InMemoryCourseDAO();
+        int[] courseIds = new int[COURSES];
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course(String.format(Locale.ROOT, "ENRL%03d", c), "Stress Course " + c, 3, "Stress");
+            catalog.addCourse(course);
+            courseIds[c] = course.getCourseId();
+        }
+        CourseService courseService = new CourseService(catalog);
+        UnreliableStore store = new UnreliableStore();
+        for (int courseId : courseIds) {
+            store.setCapacity(courseId, CAPACITY);
+        }
+        EnrollmentService service = new EnrollmentService(courseService, store, 500, 5);
+
+        System.out.printf(Locale.ROOT, "Enrollment stress test: %,d students, %d courses of %d seats, %d%% drops%n",
+            STUDENTS, COURSES, CAPACITY, DROP_PERCENT);
+
+        // Highest seat count each course may ever reach (capacity changes raise it)
+        Map<Integer, Integer> maxCapacity = new ConcurrentHashMap<>();
+        for (int courseId : courseIds) {
+            maxCapacity.put(courseId, CAPACITY);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread checker = new Thread(() -> {
+            while (running.get()) {
+                for (int courseId : courseIds) {
+                    int enrolled = service.getEnrolledCount(courseId);
+                    if (enrolled > maxCapacity.get(courseId)) {
+                        fail("course " + courseId + " had " + enrolled + " enrolled for " + maxCapacity.get(courseId) + " seats during the run");
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }, "enrollment-checker");
+        checker.start();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder enrolledFirstTry = new LongAdder();
+        LongAdder waitlisted = new LongAdder();
+        // Which course each student chose and whether they dropped it, to check the outcome
+        Map<String, Integer> chosen = new ConcurrentHashMap<>();
+        Set<String> dropped = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < STUDENTS; s++) {
+                String studentId = "S" + s;
+                SplittableRandom random = new SplittableRandom(s);
+                students.submit(() -> {
+                    // Half of everyone wants the first course; the rest spread over all of them
+                    int courseId = courseIds[random.nextBoolean() ? 0 : random.nextInt(COURSES)];
+                    chosen.put(studentId, courseId);
+                    start.await();
+                    long t0 = System.nanoTime();
+                    Enrollment result = service.enroll(studentId, courseId);
+                    latency.record(System.nanoTime() - t0);
+                    (result.getStatus() == Enrollment.Status.ENROLLED ? enrolledFirstTry : waitlisted).increment();
+                    if (random.nextInt(10) == 0 && !service.enroll(studentId, courseId).getStudentId().equals(studentId)) {
+                        fail("repeated enrollment of " + studentId + " changed the student");
+                    }
+                    if (random.nextInt(100) < DROP_PERCENT) {
+                        Thread.yield();
+                        dropped.add(studentId);
+                        if (!service.drop(studentId, courseId)) {
+                            fail(studentId + " could not drop " + courseId);
+                        }
+                    }
+                    return null;
+                });
+            }
+            // Registrars add seats to the popular course while students enroll
+            students.submit(() -> {
+                start.await();
+                for (int extra = 1; extra <= 10; extra++) {
+                    maxCapacity.put(courseIds[0], CAPACITY + extra * 5);
+                    service.setCapacity(courseIds[0], CAPACITY + extra * 5);
+                    Thread.sleep(1);
+                }
+                return null;
+            });
+            began = System.nanoTime();
+            start.countDown();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        running.set(false);
+        checker.join();
+
+        // Saving retries until a flush gets through the simulated outages
+        for (int attempt = 0; service.getUnsavedCount() > 0 || attempt == 0; attempt++) {
+            try {
+                service.flush();
+            } catch (SQLException e) {
+                if (attempt > 20) {
+                    fail("unsaved changes left after " + attempt + " flushes: " + e.getMessage());
+                    break;
+                }
+            }
+        }
+        service.close();
+
+        System.out.printf(Locale.ROOT, "%,d enrollment attempts in %.2f s (%,.0f/s): %,d enrolled at once, %,d waitlisted%n",
+            STUDENTS, seconds, STUDENTS / seconds, enrolledFirstTry.sum(), waitlisted.sum());
+        System.out.printf(Locale.ROOT, "enroll latency %s%n", latency.snapshot());
+        System.out.printf(Locale.ROOT, "store: %d batches saved, %d failed (simulated), %d replayed%n",
+            store.store.getSavedBatches() - store.replays.sum(), store.failures.sum(), store.replays.sum());
+
+        verify(service, courseIds, chosen, dropped);
+        verifyReload(courseService, store, service, courseIds);
+        for (String failure : failures.subList(0, Math.min(20, failures.size()))) {
+            System.out.println("  " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    private void verify(EnrollmentService service, int[] courseIds, Map<String, Integer> chosen, Set<String> dropped) {
+        for (int courseId : courseIds) {
+            int capacity = service.getCapacity(courseId);
+            List<String> enrolled = service.getEnrolledStudents(courseId);
+            List<String> waitlist = service.getWaitlist(courseId);
+            System.out.printf(Locale.ROOT, "course %d: %d/%d seats taken, %d waiting%n", courseId, enrolled.size(), capacity, waitlist.size());
+            if (enrolled.size() > capacity) {
+                fail("course " + courseId + " is oversold: " + enrolled.size() + " enrolled for " + capacity + " seats");
+            }
+            if (enrolled.size() != service.getEnrolledCount(courseId)) {
+                fail("course " + courseId + " counts " + service.getEnrolledCount(courseId) + " enrolled but lists " + enrolled.size());
+            }
+            if (!waitlist.isEmpty() && enrolled.size() < capacity) {
+                fail("course " + courseId + " has free seats while " + waitlist.size() + " students wait");
+            }
+            if (service.getAvailableSeats(courseId) != capacity - enrolled.size()) {
+                fail("course " + courseId + " reports " + service.getAvailableSeats(courseId) + " free seats, expected " + (capacity - enrolled.size()));
+            }
+            Set<String> both = new HashSet<>(enrolled);
+            both.retainAll(waitlist);
+            if (!both.isEmpty()) {
+                fail("course " + courseId + " has students both enrolled and waiting: " + both);
+            }
+            // Waitlist order is arrival order: sequences increase from the head
+            long previous = 0;
+            for (String student : waitlist) {
+                long joined = service.getEnrollment(student, courseId).getSequence();
+                if (joined < previous) {
+                    fail("course " + courseId + " waitlist is out of arrival order at " + student);
+                    break;
+                }
+                previous = joined;
+            }
+        }
+        for (Map.Entry<String, Integer> choice : chosen.entrySet()) {
+            Enrollment enrollment = service.getEnrollment(choice.getKey(), choice.getValue());
+            boolean expected = !dropped.contains(choice.getKey());
+            if ((enrollment != null) != expected) {
+                fail(choice.getKey() + " should " + (expected ? "" : "not ") + "be in course " + choice.getValue() + " but is " + enrollment);
+            }
+        }
+    }
+
+    private void verifyReload(CourseService courseService, UnreliableStore store, EnrollmentService live, int[] courseIds) throws SQLException {
+        EnrollmentService reloaded = new EnrollmentService(courseService, store.store);
+        try {
+            for (int courseId : courseIds) {
+                if (!new HashSet<>(reloaded.getEnrolledStudents(courseId)).equals(new HashSet<>(live.getEnrolledStudents(courseId)))) {
+                    fail("course " + courseId + ": saved enrollments differ from the live ones");
+                }
+                if (!reloaded.getWaitlist(courseId).equals(live.getWaitlist(courseId))) {
+                    fail("course " + courseId + ": saved waitlist differs from the live one");
+                }
+                if (reloaded.getCapacity(courseId) != live.getCapacity(courseId)) {
+                    fail("course " + courseId + ": saved capacity differs from the live one");
+                }
+            }
+        } finally {
+            reloaded.close();
+        }
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Enrollment enrollment : store.store.getEnrollments()) {
+            counts.merge(enrollment.getCourseId(), enrollment.getStatus() == Enrollment.Status.ENROLLED ? 1 : 0, Integer::sum);
+        }
+        System.out.printf(Locale.ROOT, "reloaded from the store: enrolled per course %s%n", counts);
+    }
+
+    private synchronized void fail(String message) {
+        failures.add(message);
+    }
+}
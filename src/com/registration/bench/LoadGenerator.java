@@ -0,0 +1,590 @@
+package com.registration.bench;
+
+import com.registration.db.ConnectionPool;
+import com.registration.db.CourseDAO;
+import com.registration.db.CourseDAOFactory;
+import com.registration.db.CourseDAOImpl;
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.db.MappedFileCourseDAO;
+import com.registration.db.PoolStats;
+import com.registration.metrics.LatencyHistogram;
+import com.registration.metrics.LatencySnapshot;
+import com.registration.model.Course;
+import com.registration.service.CourseService;
+import com.registration.service.WriteResult;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Registration-day load generator and soak test. loadgen.clients clients (default 64), each on a virtual
+ * thread, run a mix of lookups, page reads, adds, updates and deletes (loadgen.mix, default
+ * read=75,page=10,add=5,update=5,delete=5) against CourseService, or against the DAO itself with
+ * -Dloadgen.target=dao.
+ *
+ * Open loop (loadgen.mode=open, the default): requests are due at loadgen.rate per second in total,
+ * whether or not earlier ones have finished, and latency is measured from when a request was due, so
+ * a stall counts against every request it held up. Closed loop (loadgen.mode=closed): each client waits
+ * for its reply and then loadgen.thinkMs; a late reply also records the requests the client would have
+ * sent meanwhile at its normal interval (think time plus the median service time of the last report).
+ * Both correct for coordinated omission; the service time (from actual send) is reported alongside.
+ *
+ * The rate (open) or the number of clients (closed) ramps up over loadgen.rampSeconds, then the load
+ * runs for loadgen.seconds. Throughput and percentiles are printed every loadgen.reportSeconds and,
+ * with -Dloadgen.timeline=file.csv, written as CSV. The summary covers the run after the ramp.
+ *
+ * The store is embedded: a MappedFileCourseDAO in a temporary directory (loadgen.store=mapped), or
+ * memory; jdbc and remote use the backends from DatabaseConfig. loadgen.courses courses (default 10000)
+ * are seeded first, and adds and deletes only touch courses the generator created. After the run the
+ * harness checks for leaks: pooled connections still checked out, file descriptors or platform threads
+ * not released, heap after GC that grew by more than loadgen.maxHeapGrowthMb (default 64), and on runs
+ * of two minutes or more a heap floor rising faster than loadgen.maxHeapSlopeMbPerMin (default 8).
+ * Exits with status 1 if any check fails.
+ */
+public class LoadGenerator {
+
+    private static final int CLIENTS = Integer.getInteger("loadgen.clients", 64);
+    private static final boolean OPEN_LOOP = !"closed".equalsIgnoreCase(System.getProperty("loadgen.mode", "open"));
+    private static final int RATE = Integer.getInteger("loadgen.rate", 2_000);
+    private static final int THINK_MS = Integer.getInteger("loadgen.thinkMs", 0);
+    private static final int RAMP_SECONDS = Integer.getInteger("loadgen.rampSeconds", 10);
+    private static final int SECONDS = Integer.getInteger("loadgen.seconds", 60);
+    private static final int REPORT_SECONDS = Integer.getInteger("loadgen.reportSeconds", 5);
+    private static final int COURSES = Integer.getInteger("loadgen.courses", 10_000);
+    private static final int PAGE_SIZE = Integer.getInteger("loadgen.pageSize", 50);
+    private static final String MIX = System.getProperty("loadgen.mix", "read=75,page=10,add=5,update=5,delete=5");
+    private static final boolean SERVICE_TARGET = !"dao".equalsIgnoreCase(System.getProperty("loadgen.target", "service"));
+    private static final String STORE = System.getProperty("loadgen.store", "mapped");
+    private static final String TIMELINE = System.getProperty("loadgen.timeline");
+    private static final int MAX_HEAP_GROWTH_MB = Integer.getInteger("loadgen.maxHeapGrowthMb", 64);
+    private static final int MAX_HEAP_SLOPE_MB_PER_MIN = Integer.getInteger("loadgen.maxHeapSlopeMbPerMin", 8);
+    private static final int MAX_FD_GROWTH = Integer.getInteger("loadgen.maxFdGrowth", 16);
+    private static final int MAX_THREAD_GROWTH = Integer.getInteger("loadgen.maxThreadGrowth", 8);
+
+    private static final long MB = 1024 * 1024;
+    private static final String[] INSTRUCTORS = {"CLAIRE", "GP", "Fabien NZABANDORA", "UMURERWA Divine", "NSHUTI Thierry"};
+
+    private enum Op { READ, PAGE, ADD, UPDATE, DELETE }
+
+    /** Totals of one operation after the ramp. */
+    private static final class OpStats {
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    /** The calls the clients make, on CourseService or straight on the DAO. */
+    private interface Target {
+        Course read(int id) throws SQLException;
+        List<Course> page(int afterId, int limit) throws SQLException;
+        void add(Course course) throws SQLException;
+        // False when the course changed or disappeared since it was read
+        boolean update(Course course) throws SQLException;
+        boolean delete(int id) throws SQLException;
+    }
+
+    private static Target serviceTarget(CourseService service) {
+        return new Target() {
+            @Override public Course read(int id) throws SQLException { return service.getCourseById(id); }
+            @Override public List<Course> page(int afterId, int limit) throws SQLException { return service.getCoursesAfter(afterId, limit); }
+            @Override public void add(Course course) throws SQLException { service.addCourse(course); }
+            @Override public boolean update(Course course) throws SQLException { return service.updateCourse(course).getStatus() == WriteResult.Status.APPLIED; }
+            @Override public boolean delete(int id) throws SQLException { return service.deleteCourse(id).getStatus() == WriteResult.Status.APPLIED; }
+        };
+    }
+
+    private static Target daoTarget(CourseDAO dao) {
+        return new Target() {
+            @Override public Course read(int id) throws SQLException { return dao.getCourseById(id); }
+            @Override public List<Course> page(int afterId, int limit) throws SQLException { return dao.getCoursesAfter(afterId, limit); }
+            @Override public void add(Course course) throws SQLException { dao.addCourse(course); }
+            @Override public boolean update(Course course) throws SQLException { return dao.updateCourse(course); }
+            @Override public boolean delete(int id) throws SQLException { return dao.deleteCourse(id, 0); }
+        };
+    }
+
+    // Ids of the courses the generator created; 0 is a free slot, CLAIMED one an add is filling
+    private static final int CLAIMED = -1;
+    private final AtomicIntegerArray live = new AtomicIntegerArray(Math.max(1, COURSES));
+    private final AtomicLong codes = new AtomicLong();
+    private final Op[] mix = parseMix(MIX);
+
+    private final Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+    private final LongAdder conflicts = new LongAdder();
+    // Current report interval, swapped out by the reporter
+    private final AtomicReference<LatencyHistogram> intervalResponse = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicReference<LatencyHistogram> intervalService = new AtomicReference<>(new LatencyHistogram());
+    private final LongAdder intervalOps = new LongAdder();
+    private final LongAdder intervalErrors = new LongAdder();
+    private final LongAdder activeClients = new LongAdder();
+    // Closed loop: a client's normal time between requests, for the coordinated-omission backfill
+    private final AtomicLong expectedIntervalNanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(THINK_MS));
+    private final AtomicLong heapFloor = new AtomicLong(Long.MAX_VALUE);
+    private volatile boolean measuring;
+    private volatile boolean sampling = true;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new LoadGenerator().run();
+        System.out.println(passed ? "PASS" : "FAIL");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private LoadGenerator() {
+        for (Op op : Op.values()) {
+            stats.put(op, new OpStats());
+        }
+    }
+
+    private boolean run() throws Exception {
+        Path storeDir = "mapped".equalsIgnoreCase(STORE) ? Files.createTempDirectory("loadgen-store") : null;
+        CourseDAO dao = storeDir != null ? new MappedFileCourseDAO(storeDir)
+            : "memory".equalsIgnoreCase(STORE) ? new InMemoryCourseDAO() : CourseDAOFactory.create(STORE);
+        try {
+            seed(dao);
+            Target target = SERVICE_TARGET ? serviceTarget(new CourseService(dao)) : daoTarget(dao);
+            System.out.printf(Locale.ROOT, "Load generator: %s loop, %d clients%s, %s via %s on the %s store (%,d courses), ramp %d s, run %d s%n",
+                OPEN_LOOP ? "open" : "closed", CLIENTS, OPEN_LOOP ? " at " + RATE + " requests/s" : THINK_MS > 0 ? ", think " + THINK_MS + " ms" : "",
+                MIX, SERVICE_TARGET ? "CourseService" : "the DAO", STORE, COURSES, RAMP_SECONDS, SECONDS);
+
+            System.gc();
+            long heapBefore = usedHeap();
+            long fdsBefore = openFileDescriptors();
+            long threadsBefore = platformThreads();
+            Thread sampler = startHeapSampler();
+            List<long[]> floors = drive(target);
+            sampling = false;
+            sampler.join();
+
+            summarize();
+            checkLeaks(dao, heapBefore, fdsBefore, threadsBefore, floors);
+        } finally {
+            if (dao instanceof MappedFileCourseDAO) {
+                ((MappedFileCourseDAO) dao).close();
+            }
+            if (storeDir != null) {
+                deleteStore(storeDir);
+            }
+        }
+        for (String failure : failures) {
+            System.out.println("  " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    private void seed(CourseDAO dao) throws SQLException {
+        List<Course> courses = new ArrayList<>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            courses.add(newCourse(new SplittableRandom(i)));
+        }
+        if (!courses.isEmpty()) {
+            dao.addCourses(courses);
+        }
+        for (int i = 0; i < courses.size(); i++) {
+            live.set(i, courses.get(i).getCourseId());
+        }
+    }
+
+    // --- Load ---
+
+    /** Runs the ramp and the measured phase; returns the heap floor per report as {seconds, bytes}. */
+    private List<long[]> drive(Target target) throws Exception {
+        List<long[]> floors = new ArrayList<>();
+        long start = System.nanoTime();
+        long rampEnd = start + TimeUnit.SECONDS.toNanos(RAMP_SECONDS);
+        long end = rampEnd + TimeUnit.SECONDS.toNanos(SECONDS);
+        try (PrintWriter timeline = TIMELINE == null ? null : new PrintWriter(Files.newBufferedWriter(Path.of(TIMELINE)));
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (timeline != null) {
+                timeline.println("seconds,clients,target_rate,throughput,p50_ms,p99_ms,max_ms,service_p50_ms,service_p99_ms,errors,heap_floor_mb,open_fds,pool_active");
+            }
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.submit(() -> OPEN_LOOP ? openClient(target, client, start, rampEnd, end) : closedClient(target, client, start, end));
+            }
+
+            long reportNanos = TimeUnit.SECONDS.toNanos(Math.max(1, REPORT_SECONDS));
+            measuring = rampEnd == start;
+            for (long previous = start; previous < end; ) {
+                long next = Math.min(previous + reportNanos, end);
+                if (previous < rampEnd && next > rampEnd) {
+                    next = rampEnd; // the ramp ends on a report boundary, so intervals are all ramp or all measured
+                }
+                sleepUntil(next);
+                if (next == rampEnd) {
+                    measuring = true;
+                }
+                long[] floor = report(next - start, next - previous, start, rampEnd, timeline);
+                if (previous >= rampEnd) {
+                    floors.add(floor);
+                }
+                previous = next;
+            }
+        }
+        return floors;
+    }
+
+    private Void openClient(Target target, int client, long start, long rampEnd, long end) {
+        SplittableRandom random = new SplittableRandom(client * 7919L);
+        double perClient = RATE / (double) CLIENTS;
+        // Clients are spread over the first interval instead of all firing at once
+        long due = start + (long) (random.nextDouble() * 1e9 / perClient);
+        activeClients.increment();
+        try {
+            while (due < end) {
+                sleepUntil(due);
+                execute(target, random, due);
+                double ramp = rampEnd <= start ? 1 : Math.min(1, Math.max(0.05, (due - start) / (double) (rampEnd - start)));
+                due += (long) (1e9 / (perClient * ramp));
+            }
+        } finally {
+            activeClients.decrement();
+        }
+        return null;
+    }
+
+    private Void closedClient(Target target, int client, long start, long end) {
+        SplittableRandom random = new SplittableRandom(client * 7919L);
+        // Clients join one by one over the ramp
+        sleepUntil(start + TimeUnit.SECONDS.toNanos(RAMP_SECONDS) * client / Math.max(1, CLIENTS));
+        activeClients.increment();
+        try {
+            while (System.nanoTime() < end) {
+                execute(target, random, 0);
+                if (THINK_MS > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(THINK_MS));
+                }
+            }
+        } finally {
+            activeClients.decrement();
+        }
+        return null;
+    }
+
+    /** One request; {@code due} is when an open-loop client should have sent it (0 in a closed loop). */
+    private void execute(Target target, SplittableRandom random, long due) {
+        Op op = mix[random.nextInt(mix.length)];
+        long sent = System.nanoTime();
+        boolean failed = false;
+        try {
+            perform(target, op, random);
+        } catch (Exception e) {
+            failed = true;
+        }
+        long done = System.nanoTime();
+        long service = done - sent;
+        long response = due != 0 ? done - due : service;
+        LatencyHistogram interval = intervalResponse.get();
+        if (due != 0) {
+            interval.record(response);
+        } else {
+            interval.recordWithExpectedInterval(response, expectedIntervalNanos.get());
+        }
+        intervalService.get().record(service);
+        intervalOps.increment();
+        if (failed) {
+            intervalErrors.increment();
+        }
+        if (measuring) {
+            OpStats totals = stats.get(op);
+            if (due != 0) {
+                totals.response.record(response);
+            } else {
+                totals.response.recordWithExpectedInterval(response, expectedIntervalNanos.get());
+            }
+            totals.service.record(service);
+            if (failed) {
+                totals.errors.increment();
+            }
+        }
+    }
+
+    private void perform(Target target, Op op, SplittableRandom random) throws SQLException {
+        switch (op) {
+            case READ -> target.read(pickId(random));
+            case PAGE -> target.page(Math.max(0, pickId(random) - 1), PAGE_SIZE);
+            case UPDATE -> {
+                Course course = target.read(pickId(random));
+                if (course != null) {
+                    course.setCredits(1 + random.nextInt(30));
+                    if (!target.update(course)) {
+                        conflicts.increment();
+                    }
+                }
+            }
+            case ADD -> {
+                int slot = claimFreeSlot(random);
+                Course course = newCourse(random);
+                try {
+                    target.add(course);
+                } catch (SQLException | RuntimeException e) {
+                    if (slot >= 0) {
+                        live.set(slot, 0);
+                    }
+                    throw e;
+                }
+                if (slot >= 0) {
+                    live.set(slot, course.getCourseId());
+                }
+            }
+            case DELETE -> {
+                int id = takeId(random);
+                if (id > 0 && !target.delete(id)) {
+                    conflicts.increment();
+                }
+            }
+        }
+    }
+
+    private int pickId(SplittableRandom random) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int id = live.get(random.nextInt(live.length()));
+            if (id > 0) {
+                return id;
+            }
+        }
+        return 1;
+    }
+
+    // Removes a generator-created course from the live set; 0 when none was found
+    private int takeId(SplittableRandom random) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int slot = random.nextInt(live.length());
+            int id = live.get(slot);
+            if (id > 0 && live.compareAndSet(slot, id, 0)) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    // A free slot for an added course, or -1 when the live set is full (the course is then not tracked)
+    private int claimFreeSlot(SplittableRandom random) {
+        int from = random.nextInt(live.length());
+        for (int i = 0; i < live.length(); i++) {
+            int slot = (from + i) % live.length();
+            if (live.get(slot) == 0 && live.compareAndSet(slot, 0, CLAIMED)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Codes pass CourseService validation and never repeat: "LG", four letters and three digits
+    private Course newCourse(SplittableRandom random) {
+        long n = codes.getAndIncrement();
+        char[] letters = new char[4];
+        long value = n / 1_000;
+        for (int i = 3; i >= 0; i--) {
+            letters[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new Course(String.format(Locale.ROOT, "LG%s%03d", new String(letters), n % 1_000),
+            "Load Course " + n, 1 + random.nextInt(30), INSTRUCTORS[random.nextInt(INSTRUCTORS.length)]);
+    }
+
+    // --- Reporting ---
+
+    private long[] report(long elapsed, long length, long start, long rampEnd, PrintWriter timeline) {
+        LatencySnapshot response = intervalResponse.getAndSet(new LatencyHistogram()).snapshot();
+        LatencySnapshot service = intervalService.getAndSet(new LatencyHistogram()).snapshot();
+        if (!OPEN_LOOP && service.getCount() > 0) {
+            expectedIntervalNanos.set(TimeUnit.MILLISECONDS.toNanos(THINK_MS) + service.getP50Nanos());
+        }
+        long ops = intervalOps.sumThenReset();
+        long errors = intervalErrors.sumThenReset();
+        long floor = heapFloor.getAndSet(Long.MAX_VALUE);
+        floor = floor == Long.MAX_VALUE ? usedHeap() : floor;
+        long fds = openFileDescriptors();
+        int poolActive = poolActive();
+        double seconds = elapsed / 1e9;
+        double ramp = rampEnd <= start ? 1 : Math.min(1, elapsed / (double) (rampEnd - start));
+        String rate = OPEN_LOOP ? String.format(Locale.ROOT, "%,.0f/s", RATE * Math.max(0.05, ramp)) : "closed";
+        double throughput = ops / (length / 1e9);
+
+        System.out.printf(Locale.ROOT, "%6.0fs %s clients %3d  due %-8s done %,8.0f/s  p50 %7.2f ms  p99 %8.2f ms  max %8.2f ms  (service p99 %.2f ms)  errors %d  heap floor %,d MB%n",
+            seconds, elapsed <= rampEnd - start ? "ramp" : "run ", activeClients.sum(), rate, throughput,
+            ms(response.getP50Nanos()), ms(response.getP99Nanos()), ms(response.getMaxNanos()), ms(service.getP99Nanos()),
+            errors, floor / MB);
+        if (timeline != null) {
+            timeline.printf(Locale.ROOT, "%.0f,%d,%s,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d%n",
+                seconds, activeClients.sum(), OPEN_LOOP ? String.format(Locale.ROOT, "%.0f", RATE * Math.max(0.05, ramp)) : "",
+                throughput, ms(response.getP50Nanos()), ms(response.getP99Nanos()), ms(response.getMaxNanos()),
+                ms(service.getP50Nanos()), ms(service.getP99Nanos()), errors, floor / MB, fds, poolActive);
+            timeline.flush();
+        }
+        return new long[] {elapsed, floor};
+    }
+
+    private void summarize() {
+        long total = 0;
+        for (OpStats op : stats.values()) {
+            total += op.service.snapshot().getCount();
+        }
+        System.out.printf(Locale.ROOT, "Measured %d s: %,d requests (%,.0f/s), %d write conflicts%n",
+            SECONDS, total, total / (double) Math.max(1, SECONDS), conflicts.sum());
+        for (Map.Entry<Op, OpStats> entry : stats.entrySet()) {
+            OpStats op = entry.getValue();
+            if (op.service.snapshot().getCount() == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-7s response %s%n", entry.getKey().name().toLowerCase(Locale.ROOT), op.response.snapshot());
+            System.out.printf(Locale.ROOT, "%-7s service  %s  errors %d%n", "", op.service.snapshot(), op.errors.sum());
+        }
+    }
+
+    // --- Leak checks ---
+
+    private void checkLeaks(CourseDAO dao, long heapBefore, long fdsBefore, long threadsBefore, List<long[]> floors) throws InterruptedException {
+        // Let queued work finish before counting what is still held
+        Thread.sleep(200);
+        System.gc();
+        System.gc();
+        long heapAfter = usedHeap();
+        long fdsAfter = openFileDescriptors();
+        long threadsAfter = platformThreads();
+        double slope = heapSlopePerMinute(floors);
+        System.out.printf(Locale.ROOT, "Heap after GC %,d MB -> %,d MB; heap floor trend %+.1f MB/min; file descriptors %d -> %d; threads %d -> %d%n",
+            heapBefore / MB, heapAfter / MB, slope / MB, fdsBefore, fdsAfter, threadsBefore, threadsAfter);
+
+        if (dao instanceof CourseDAOImpl) {
+            PoolStats pool = ConnectionPool.getDefault().getStats();
+            System.out.println("Connection pool " + pool);
+            if (pool.getActive() > 0) {
+                fail(pool.getActive() + " pooled connections are still checked out after the run (connection leak)");
+            }
+        }
+        if (fdsBefore >= 0 && fdsAfter - fdsBefore > MAX_FD_GROWTH) {
+            fail((fdsAfter - fdsBefore) + " more file descriptors are open after the run (limit " + MAX_FD_GROWTH + ")");
+        }
+        if (threadsAfter - threadsBefore > MAX_THREAD_GROWTH) {
+            fail((threadsAfter - threadsBefore) + " more platform threads are alive after the run (limit " + MAX_THREAD_GROWTH + ")");
+        }
+        if (heapAfter - heapBefore > MAX_HEAP_GROWTH_MB * MB) {
+            fail("heap after GC grew by " + (heapAfter - heapBefore) / MB + " MB (limit " + MAX_HEAP_GROWTH_MB + " MB)");
+        }
+        if (SECONDS >= 120 && slope > MAX_HEAP_SLOPE_MB_PER_MIN * MB) {
+            fail(String.format(Locale.ROOT, "heap floor rose %.1f MB/min during the run (limit %d MB/min)", slope / MB, MAX_HEAP_SLOPE_MB_PER_MIN));
+        }
+    }
+
+    // Least-squares slope of the heap floor over the measured reports, in bytes per minute
+    private static double heapSlopePerMinute(List<long[]> floors) {
+        if (floors.size() < 3) {
+            return 0;
+        }
+        double n = floors.size();
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (long[] point : floors) {
+            double x = point[0] / 60e9;
+            sumX += x;
+            sumY += point[1];
+            sumXY += x * point[1];
+            sumXX += x * x;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        return denominator == 0 ? 0 : (n * sumXY - sumX * sumY) / denominator;
+    }
+
+    // The lowest heap use seen between reports approximates the live data without forcing a GC
+    private Thread startHeapSampler() {
+        Thread sampler = new Thread(() -> {
+            while (sampling) {
+                heapFloor.accumulateAndGet(usedHeap(), Math::min);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        }, "loadgen-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        return sampler;
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // -1 where the platform does not report it
+    private static long openFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.UnixOperatingSystemMXBean
+            ? ((com.sun.management.UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount() : -1;
+    }
+
+    // Platform threads other than fork-join workers, which the virtual thread scheduler keeps as it likes
+    private static long platformThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> !thread.getName().startsWith("ForkJoinPool"))
+            .count();
+    }
+
+    private static int poolActive() {
+        return "jdbc".equalsIgnoreCase(STORE) ? ConnectionPool.getDefault().getStats().getActive() : 0;
+    }
+
+    // --- Helpers ---
+
+    // "read=75,page=10,..." as a table of 100 (or the weights' sum) entries to draw from
+    private static Op[] parseMix(String mix) {
+        List<Op> table = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Invalid loadgen.mix entry '" + part + "'; use e.g. read=75,add=5");
+            }
+            Op op = Op.valueOf(entry[0].trim().toUpperCase(Locale.ROOT));
+            for (int i = Integer.parseInt(entry[1].trim()); i > 0; i--) {
+                table.add(op);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("loadgen.mix has no operations: " + mix);
+        }
+        return table.toArray(new Op[0]);
+    }
+
+    private static void sleepUntil(long deadline) {
+        for (long wait = deadline - System.nanoTime(); wait > 0; wait = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void deleteStore(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private synchronized void fail(String message) {
+        failures.add(message);
+    }
+}
@@ -0,0 +1,169 @@
+package com.registration.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal time-based benchmark runner (warmup iterations, then measured iterations).
+ * Results can be written as JSON and CSV and compared against the CSV of an earlier run.
+ *
+ * Settings (system properties): bench.warmup, bench.iterations, bench.iterationMs, bench.filter (regex).
+ */
+public class MicroBenchmark {
+
+    /** One benchmark invocation. */
+    public interface Operation {
+        void run(Blackhole blackhole) throws Exception;
+    }
+
+    /** Mean time per operation of one benchmark with its parameter (e.g. catalog size). */
+    public static class Result {
+        private final String name;
+        private final String param;
+        private final double nsPerOp;
+        private final double errorNs;
+        private final long operations;
+
+        Result(String name, String param, double nsPerOp, double errorNs, long operations) {
+            this.name = name;
+            this.param = param;
+            this.nsPerOp = nsPerOp;
+            this.errorNs = errorNs;
+            this.operations = operations;
+        }
+
+        public String getName() { return name; }
+        public String getParam() { return param; }
+        public double getNsPerOp() { return nsPerOp; }
+        public double getErrorNs() { return errorNs; }
+        public long getOperations() { return operations; }
+        public double getOpsPerSecond() { return 1e9 / nsPerOp; }
+
+        String key() {
+            return name + "|" + param;
+        }
+    }
+
+    private final int warmupIterations = Integer.getInteger("bench.warmup", 3);
+    private final int measuredIterations = Integer.getInteger("bench.iterations", 5);
+    private final long iterationNanos = Long.getLong("bench.iterationMs", 500) * 1_000_000L;
+    private final Pattern filter = Pattern.compile(System.getProperty("bench.filter", ".*"));
+    private final List<Result> results = new ArrayList<>();
+    private final Blackhole blackhole = new Blackhole();
+    private final PrintStream out;
+
+    public MicroBenchmark(PrintStream out) {
+        this.out = out;
+    }
+
+    public boolean isSelected(String name) {
+        return filter.matcher(name).find();
+    }
+
+    /** Runs one benchmark unless excluded by bench.filter. */
+    public void run(String name, String param, Operation operation) throws Exception {
+        if (!isSelected(name)) {
+            return;
+        }
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+        double[] samples = new double[measuredIterations];
+        long totalOps = 0;
+        for (int i = 0; i < measuredIterations; i++) {
+            long[] measured = iteration(operation);
+            samples[i] = measured[1] / (double) measured[0];
+            totalOps += measured[0];
+        }
+
+        double mean = 0;
+        for (double sample : samples) {
+            mean += sample;
+        }
+        mean /= samples.length;
+        double variance = 0;
+        for (double sample : samples) {
+            variance += (sample - mean) * (sample - mean);
+        }
+        double stdev = samples.length > 1 ? Math.sqrt(variance / (samples.length - 1)) : 0;
+
+        Result result = new Result(name, param, mean, stdev, totalOps);
+        results.add(result);
+        out.printf(Locale.ROOT, "%-40s %-10s %14.1f ns/op  +/- %8.1f  (%,.0f ops/s)%n",
+            name, param, mean, stdev, result.getOpsPerSecond());
+    }
+
+    // Returns {operations, elapsed nanos}
+    private long[] iteration(Operation operation) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            // Check the clock every 16 invocations to keep timer overhead out of fast benchmarks
+            for (int i = 0; i < 16; i++) {
+                operation.run(blackhole);
+            }
+            ops += 16;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[] {ops, elapsed};
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    // --- Machine-readable output ---
+
+    public void writeJson(Path file) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                "    {\"benchmark\": \"%s\", \"param\": \"%s\", \"nsPerOp\": %.3f, \"errorNs\": %.3f, \"opsPerSecond\": %.3f, \"operations\": %d}%s%n",
+                r.getName(), r.getParam(), r.getNsPerOp(), r.getErrorNs(), r.getOpsPerSecond(), r.getOperations(),
+                i + 1 < results.size() ? "," : ""));
+        }
+        json.append("  ]\n}\n");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("benchmark,param,ns_per_op,error_ns,ops_per_second,operations\n");
+        for (Result r : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%.3f,%.3f,%.3f,%d%n",
+                r.getName(), r.getParam(), r.getNsPerOp(), r.getErrorNs(), r.getOpsPerSecond(), r.getOperations()));
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+    }
+
+    /** Prints the change of every result against a CSV written by an earlier run. */
+    public void compareWith(Path baselineCsv) throws IOException {
+        Map<String, Double> baseline = new HashMap<>();
+        List<String> lines = Files.readAllLines(baselineCsv, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            if (fields.length >= 3) {
+                baseline.put(fields[0] + "|" + fields[1], Double.parseDouble(fields[2]));
+            }
+        }
+        out.println();
+        out.println("Comparison with " + baselineCsv + " (negative = faster):");
+        for (Result r : results) {
+            Double before = baseline.get(r.key());
+            if (before != null) {
+                out.printf(Locale.ROOT, "%-40s %-10s %14.1f -> %14.1f ns/op  %+7.1f%%%n",
+                    r.getName(), r.getParam(), before, r.getNsPerOp(), (r.getNsPerOp() - before) / before * 100);
+            }
+        }
+    }
+}
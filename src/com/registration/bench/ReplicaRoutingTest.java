@@ -0,0 +1,250 @@
+package com.registration.bench;
+
+import com.registration.db.BatchResult;
+import com.registration.db.ChangeFeedReplicator;
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseColumn;
+import com.registration.db.CourseDAO;
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.db.RoutingCourseDAO;
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Checks RoutingCourseDAO against two embedded stores standing in for a primary and a replica
+ * (InMemoryCourseDAOs, the replica fed by a ChangeFeedReplicator every replica.intervalMs, default 20):
+ * reads spread over the replicas, a session reads its own writes while replication is paused, a
+ * failing replica is skipped and taken back once it recovers, a lagging replica is skipped, and
+ * replica.writers concurrent writers (default 8) always read back what they wrote. Exits with
+ * status 1 if any check fails.
+ */
+public class ReplicaRoutingTest {
+
+    private static final long INTERVAL_MS = Long.getLong("replica.intervalMs", 20);
+    private static final int WRITERS = Integer.getInteger("replica.writers", 8);
+    private static final int WRITES_PER_WRITER = Integer.getInteger("replica.writes", 500);
+    private static final int MAX_LAG = 10;
+
+    /** A replica that can be taken down: every call fails while it is. */
+    private static final class FlakyReplica implements CourseDAO {
+        final InMemoryCourseDAO store;
+        volatile boolean down;
+
+        FlakyReplica(InMemoryCourseDAO store) {
+            this.store = store;
+        }
+
+        private void check() throws SQLException {
+            if (down) {
+                throw new SQLTransientConnectionException("Simulated replica outage");
+            }
+        }
+
+        @Override public void addCourse(Course course) { throw new UnsupportedOperationException("read-only replica"); }
+        @Override public BatchResult addCourses(Iterable<Course> courses) { throw new UnsupportedOperationException("read-only replica"); }
+        @Override public boolean updateCourse(Course course) { throw new UnsupportedOperationException("read-only replica"); }
+        @Override public boolean deleteCourse(int id, long expectedVersion) { throw new UnsupportedOperationException("read-only replica"); }
+
+        @Override public List<Course> getAllCourses() throws SQLException { check(); return store.getAllCourses(); }
+        @Override public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException { check(); return store.getCoursesAfter(lastId, limit); }
+        @Override public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException { check(); return store.streamCourses(fetchSize, columns); }
+        @Override public Course getCourseById(int id) throws SQLException { check(); return store.getCourseById(id); }
+        @Override public Course getCourseByCode(String courseCode) throws SQLException { check(); return store.getCourseByCode(courseCode); }
+        @Override public long getLatestChangeToken() throws SQLException { check(); return store.getLatestChangeToken(); }
+        @Override public ChangeSet getChangesSince(long token) throws SQLException { check(); return store.getChangesSince(token); }
+    }
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new ReplicaRoutingTest().run();
+        System.out.println(passed ? "PASS" : "FAIL");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run() throws Exception {
+        InMemoryCourseDAO primary = new InMemoryCourseDAO();
+        List<Course> catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            catalog.add(new Course(String.format(Locale.ROOT, "REPL%03d", i), "Replicated Course " + i, 3, "Replica"));
+        }
+        primary.addCourses(catalog);
+        FlakyReplica first = new FlakyReplica(new InMemoryCourseDAO());
+        FlakyReplica second = new FlakyReplica(new InMemoryCourseDAO());
+        System.out.printf(Locale.ROOT, "Replica routing test: 1 primary, 2 replicas, replication every %d ms%n", INTERVAL_MS);
+
+        try (ChangeFeedReplicator toFirst = new ChangeFeedReplicator(primary, first.store, INTERVAL_MS);
+             ChangeFeedReplicator toSecond = new ChangeFeedReplicator(primary, second.store, INTERVAL_MS)) {
+            toFirst.start();
+            toSecond.start();
+            List<CourseDAO> replicas = List.of(first, second);
+
+            // Reads spread over replicas that are up to date
+            try (RoutingCourseDAO reader = new RoutingCourseDAO(primary, replicas, 0, -1)) {
+                for (int i = 0; i < 1_000; i++) {
+                    expect(reader.getCourseById(catalog.get(i % catalog.size()).getCourseId()) != null, "catalog course readable");
+                }
+                System.out.printf(Locale.ROOT, "  spread:    replica reads %d / %d, primary reads %d%n",
+                    reader.getReplicaReads(0), reader.getReplicaReads(1), reader.getPrimaryReads());
+                expect(reader.getPrimaryReads() == 0, "reads without writes go to the replicas");
+                expect(reader.getReplicaReads(0) == 500 && reader.getReplicaReads(1) == 500, "reads alternate between the replicas");
+            }
+
+            // Read-your-writes while replication is paused
+            toFirst.setPaused(true);
+            toSecond.setPaused(true);
+            try (RoutingCourseDAO writer = new RoutingCourseDAO(primary, replicas, 0, -1);
+                 RoutingCourseDAO other = new RoutingCourseDAO(primary, replicas, 0, -1)) {
+                Course added = new Course("REPLNEW", "Written While Paused", 4, "Replica");
+                writer.addCourse(added);
+                Course own = writer.getCourseById(added.getCourseId());
+                expect(own != null && own.getVersion() == added.getVersion(), "writer reads its own insert");
+                Course updated = new Course(catalog.get(0));
+                updated.setCourseName("Renamed While Paused");
+                expect(writer.updateCourse(updated), "update applied");
+                expect("Renamed While Paused".equals(writer.getCourseById(updated.getCourseId()).getCourseName()), "writer reads its own update");
+                expect(writer.deleteCourse(catalog.get(1).getCourseId(), 0), "delete applied");
+                expect(writer.getCourseById(catalog.get(1).getCourseId()) == null, "writer reads its own delete");
+                expect(writer.getReplicaReads(0) + writer.getReplicaReads(1) == 0, "writer stays on the primary while replicas lag");
+                boolean stale = other.getCourseById(added.getCourseId()) == null;
+                expect(other.getPrimaryReads() == 0, "other sessions keep reading replicas");
+                System.out.printf(Locale.ROOT, "  paused:    writer primary reads %d, other session saw the insert: %s%n",
+                    writer.getPrimaryReads(), stale ? "not yet" : "yes");
+
+                toFirst.setPaused(false);
+                toSecond.setPaused(false);
+                toFirst.replicate();
+                toSecond.replicate();
+                writer.checkNow();
+                long primaryReads = writer.getPrimaryReads();
+                expect(writer.getCourseById(added.getCourseId()) != null, "insert readable after catching up");
+                expect(writer.getPrimaryReads() == primaryReads, "writer back on the replicas once they caught up");
+                expect(first.store.getCourseByCode("REPL001") == null, "delete replicated");
+            }
+
+            // Failover: a replica that fails is skipped, then both, then it recovers
+            try (RoutingCourseDAO reader = new RoutingCourseDAO(primary, replicas, 0, -1)) {
+                first.down = true;
+                for (int i = 0; i < 100; i++) {
+                    expect(reader.getCourseByCode("REPL100") != null, "read succeeds with one replica down");
+                }
+                expect(!reader.isReplicaHealthy(0) && reader.isReplicaHealthy(1), "failed replica marked down");
+                expect(reader.getReplicaReads(1) == 100 && reader.getPrimaryReads() == 0, "reads fail over to the healthy replica");
+                second.down = true;
+                expect(reader.getAllCourses().size() == primary.size(), "read succeeds with every replica down");
+                expect(reader.getPrimaryReads() == 1, "reads fail over to the primary");
+                first.down = false;
+                second.down = false;
+                reader.checkNow();
+                expect(reader.isReplicaHealthy(0) && reader.isReplicaHealthy(1), "recovered replicas back in service");
+                long before = reader.getReplicaReads(0);
+                reader.getCoursesAfter(0, 10);
+                reader.getCoursesAfter(0, 10);
+                expect(reader.getReplicaReads(0) == before + 1, "recovered replica serves reads again");
+                System.out.printf(Locale.ROOT, "  failover:  replica reads %d / %d, primary reads %d%n",
+                    reader.getReplicaReads(0), reader.getReplicaReads(1), reader.getPrimaryReads());
+            }
+
+            // A replica too far behind is skipped even by sessions that did not write
+            toSecond.setPaused(true);
+            try (RoutingCourseDAO writer = new RoutingCourseDAO(primary, replicas, 0, MAX_LAG);
+                 RoutingCourseDAO reader = new RoutingCourseDAO(primary, replicas, 0, MAX_LAG)) {
+                for (int i = 0; i < MAX_LAG + 5; i++) {
+                    Course course = new Course(catalog.get(10 + i));
+                    course.setVersion(0);
+                    course.setCredits(5);
+                    writer.updateCourse(course);
+                }
+                toFirst.replicate();
+                reader.checkNow();
+                for (int i = 0; i < 100; i++) {
+                    reader.getCourseById(catalog.get(10).getCourseId());
+                }
+                expect(reader.getReplicaReads(1) == 0 && reader.getReplicaReads(0) == 100, "lagging replica skipped");
+                System.out.printf(Locale.ROOT, "  lag:       replica reads %d / %d (second %d changes behind)%n",
+                    reader.getReplicaReads(0), reader.getReplicaReads(1), primary.getLatestChangeToken() - second.store.getLatestChangeToken());
+            }
+            toSecond.setPaused(false);
+
+            // Concurrent writers with replication running: every read sees at least the version written
+            LongAdder staleReads = new LongAdder();
+            try (RoutingCourseDAO session = new RoutingCourseDAO(primary, replicas, INTERVAL_MS, -1);
+                 ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int w = 0; w < WRITERS; w++) {
+                    int writer = w;
+                    writers.submit(() -> {
+                        SplittableRandom random = new SplittableRandom(writer);
+                        for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                            Course course = new Course(catalog.get(20 + writer));
+                            course.setVersion(0);
+                            course.setCredits(1 + random.nextInt(30));
+                            session.updateCourse(course);
+                            Course read = session.getCourseById(course.getCourseId());
+                            if (read == null || read.getVersion() < course.getVersion()) {
+                                staleReads.increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                writers.shutdown();
+                while (!writers.isTerminated()) {
+                    Thread.sleep(10);
+                }
+                System.out.printf(Locale.ROOT, "  writers:   %d writes, stale reads %d, replica reads %d / %d, primary reads %d%n",
+                    (long) WRITERS * WRITES_PER_WRITER, staleReads.sum(),
+                    session.getReplicaReads(0), session.getReplicaReads(1), session.getPrimaryReads());
+            }
+            expect(staleReads.sum() == 0, "concurrent writers read their own writes");
+
+            toFirst.replicate();
+            toSecond.replicate();
+            expect(sameRows(first.store.getAllCourses(), primary.getAllCourses()), "first replica matches the primary");
+            expect(sameRows(second.store.getAllCourses(), primary.getAllCourses()), "second replica matches the primary");
+        }
+
+        for (String failure : failures) {
+            System.out.println("  FAILED: " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    private static boolean sameRows(List<Course> replica, List<Course> primary) {
+        if (replica.size() != primary.size()) {
+            return false;
+        }
+        for (int i = 0; i < replica.size(); i++) {
+            Course a = replica.get(i);
+            Course b = primary.get(i);
+            if (a.getCourseId() != b.getCourseId() || a.getVersion() != b.getVersion() || a.getCredits() != b.getCredits()
+                || !Objects.equals(a.getCourseCode(), b.getCourseCode()) || !Objects.equals(a.getCourseName(), b.getCourseName())
+                || !Objects.equals(a.getInstructor(), b.getInstructor()) || !a.getSchedule().equals(b.getSchedule())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(boolean condition, String check) {
+        if (!condition) {
+            synchronized (failures) {
+                if (!failures.contains(check)) {
+                    failures.add(check);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.registration.bench;
+
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.db.RemoteCourseDAO;
+import com.registration.metrics.LatencyHistogram;
+import com.registration.metrics.LatencySnapshot;
+import com.registration.model.Course;
+import com.registration.server.CourseServer;
+import com.registration.service.CourseService;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the HTTP course server: load.clients desks, each with its own RemoteCourseDAO on a
+ * virtual thread, issue requests back to back for load.seconds (after load.warmupSeconds).
+ * The mix is lookups by id, conditional GETs of the whole catalog (load.listPercent) and versioned
+ * updates (load.writePercent).
+ *
+ * By default a CourseServer over an embedded InMemoryCourseDAO seeded with load.courses courses is
+ * started on a free port; -Dload.url=http://host:port targets a running server and its catalog instead.
+ */
+public class ServerLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 3);
+    private static final int COURSES = Integer.getInteger("load.courses", 10_000);
+    private static final int WRITE_PERCENT = Integer.getInteger("load.writePercent", 5);
+    private static final int LIST_PERCENT = Integer.getInteger("load.listPercent", 1);
+
+    private static final String[] INSTRUCTORS = {"CLAIRE", "GP", "Fabien NZABANDORA", "UMURERWA Divine", "NSHUTI Thierry"};
+
+    private final LatencyHistogram lookups = new LatencyHistogram();
+    private final LatencyHistogram lists = new LatencyHistogram();
+    private final LatencyHistogram updates = new LatencyHistogram();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean recording;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("load.url");
+        CourseServer server = null;
+        if (url == null) {
+            InMemoryCourseDAO store = new InMemoryCourseDAO();
+            store.addCourses(validCourses(COURSES));
+            server = new CourseServer(new CourseService(store), 0);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+        try {
+            new ServerLoadTest().run(URI.create(url));
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private void run(URI url) throws Exception {
+        List<Course> catalog = new RemoteCourseDAO(url).getAllCourses();
+        if (catalog.isEmpty()) {
+            throw new IllegalStateException("The course server at " + url + " has no courses to load-test with");
+        }
+        int[] ids = new int[catalog.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = catalog.get(i).getCourseId();
+        }
+        System.out.printf(Locale.ROOT, "Load test: %d clients against %s (%d courses), %d%% updates, %d%% catalog reads%n",
+            CLIENTS, url, ids.length, WRITE_PERCENT, LIST_PERCENT);
+
+        long warmupEnd = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long end = warmupEnd + SECONDS * 1_000_000_000L;
+        RemoteCourseDAO shared = new RemoteCourseDAO(url);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int seed = c;
+                clients.submit(() -> client(shared, ids, seed, end));
+            }
+            Thread.sleep(Math.max(0, (warmupEnd - System.nanoTime()) / 1_000_000));
+            recording = true;
+        }
+
+        long total = lookups.snapshot().getCount() + lists.snapshot().getCount() + updates.snapshot().getCount();
+        System.out.printf(Locale.ROOT, "Throughput: %,.0f requests/s (%,d requests, %d conflicts, %d errors)%n",
+            total / (double) SECONDS, total, conflicts.sum(), errors.sum());
+        print("GET /courses/{id}", lookups.snapshot());
+        print("GET /courses", lists.snapshot());
+        print("PUT /courses/{id}", updates.snapshot());
+    }
+
+    private Void client(RemoteCourseDAO dao, int[] ids, int seed, long end) {
+        SplittableRandom random = new SplittableRandom(seed);
+        while (System.nanoTime() < end) {
+            int id = ids[random.nextInt(ids.length)];
+            int kind = random.nextInt(100);
+            long start = System.nanoTime();
+            try {
+                if (kind < WRITE_PERCENT) {
+                    Course course = dao.getCourseById(id);
+                    if (course != null) {
+                        course.setCredits(1 + random.nextInt(30));
+                        if (!dao.updateCourse(course)) {
+                            conflicts.increment();
+                        }
+                    }
+                    record(updates, start);
+                } else if (kind < WRITE_PERCENT + LIST_PERCENT) {
+                    dao.getAllCourses();
+                    record(lists, start);
+                } else {
+                    dao.getCourseById(id);
+                    record(lookups, start);
+                }
+            } catch (Exception e) {
+                if (recording) {
+                    errors.increment();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void record(LatencyHistogram histogram, long start) {
+        if (recording) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    private static void print(String name, LatencySnapshot latency) {
+        System.out.printf(Locale.ROOT, "%-20s %s%n", name, latency);
+    }
+
+    // Codes must pass CourseService validation, since updates go through the server's service
+    private static List<Course> validCourses(int count) {
+        SplittableRandom random = new SplittableRandom(count);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(new Course(
+                String.format(Locale.ROOT, "L%s%03d", letters(i / 1_000), i % 1_000),
+                "Load Test Course " + i,
+                1 + random.nextInt(30),
+                INSTRUCTORS[random.nextInt(INSTRUCTORS.length)]));
+        }
+        return courses;
+    }
+
+    // Three letters for 0..17575
+    private static String letters(int value) {
+        char[] chars = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            chars[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(chars);
+    }
+}
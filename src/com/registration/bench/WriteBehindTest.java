@@ -0,0 +1,80 @@
+package com.registration.bench;
+
+import com.registration.db.InMemoryCourseDAO;
+import com.registration.model.Course;
+import com.registration.service.CourseService;
+import com.registration.service.WriteBehindCourseDAO;
+import com.registration.service.WriteResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks CourseService over a WriteBehindCourseDAO (batch 100, flush after 10 s, so nothing is written
+ * unless a check asks for it) in front of an InMemoryCourseDAO: a course added and deleted before a flush
+ * is never written, a queued add can be updated and deleted under its provisional id before and after
+ * it is written, and close() writes what is still queued. Exits with status 1 if any check fails.
+ */
+public class WriteBehindTest {
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new WriteBehindTest().run();
+        System.out.println(passed ? "PASS" : "FAIL");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run() throws Exception {
+        InMemoryCourseDAO store = new InMemoryCourseDAO();
+        WriteBehindCourseDAO queue = new WriteBehindCourseDAO(store, 100, 10_000);
+        CourseService service = new CourseService(queue);
+
+        // Added and deleted before a flush: neither reaches the database
+        Course dropped = new Course("WBEH100", "Dropped Before Flush", 3, "Dr. Queue");
+        service.addCourse(dropped);
+        expect(dropped.getCourseId() < 0, "queued add gets a provisional id");
+        WriteResult deleted = service.deleteCourse(dropped.getCourseId(), 0);
+        expect(deleted.isApplied(), "queued add deleted through the service");
+        expect(queue.getPendingCount() == 0, "add and delete cancel out");
+
+        // Updated while queued, then written
+        Course kept = new Course("WBEH200", "Kept", 3, "Dr. Queue");
+        service.addCourse(kept);
+        int provisionalId = kept.getCourseId();
+        kept.setCourseName("Kept And Renamed");
+        expect(service.updateCourse(kept).isApplied(), "queued add updated under its provisional id");
+        queue.flush();
+        Course written = store.getCourseByCode("WBEH200");
+        expect(written != null && "Kept And Renamed".equals(written.getCourseName()), "update of a queued add written with it");
+
+        // Deleted under its provisional id once written
+        expect(service.deleteCourse(provisionalId, 0).isApplied(), "written add deleted under its provisional id");
+        queue.flush();
+        expect(store.getCourseByCode("WBEH200") == null, "delete by provisional id reaches the database");
+
+        // Still queued at close: written then
+        Course late = new Course("WBEH300", "Written On Close", 3, "Dr. Queue");
+        service.addCourse(late);
+        Course alsoDropped = new Course("WBEH400", "Dropped Before Close", 3, "Dr. Queue");
+        service.addCourse(alsoDropped);
+        expect(service.deleteCourse(alsoDropped.getCourseId(), 0).isApplied(), "second queued add deleted");
+        queue.close();
+        expect(store.getCourseByCode("WBEH300") != null, "close writes the queued add");
+        expect(store.getCourseByCode("WBEH100") == null && store.getCourseByCode("WBEH400") == null, "deleted adds never written");
+        expect(store.getAllCourses().size() == 1, "only the surviving course is stored");
+
+        for (String failure : failures) {
+            System.out.println("  FAILED: " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    private void expect(boolean condition, String check) {
+        if (!condition) {
+            failures.add(check);
+        }
+    }
+}
@@ -0,0 +1 @@
+package com.registration.bench;
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.registration.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a bulk insert: how many rows were stored and which ones were rejected
+public class BatchResult {
+    private final int insertedCount;
+    private final List<RowFailure> failures;
+
+    public BatchResult(int insertedCount, List<RowFailure> failures) {
+        this.insertedCount = insertedCount;
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+    public int getInsertedCount() { return insertedCount; }
+    public List<RowFailure> getFailures() { return failures; }
+    public int getFailureCount() { return failures.size(); }
+    public boolean hasFailures() { return !failures.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "inserted=" + insertedCount + ", failed=" + failures.size();
+    }
+}
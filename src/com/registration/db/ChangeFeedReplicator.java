@@ -0,0 +1,74 @@
+package com.registration.db;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an {@link InMemoryCourseDAO} a copy of another CourseDAO by polling its change feed, the way a
+ * database replica applies the primary's log. Rows keep the source's ids and versions, so the copy's
+ * change token says how far it has caught up. Used to run {@link RoutingCourseDAO} against embedded stores.
+ */
+public class ChangeFeedReplicator implements AutoCloseable {
+
+    private final CourseDAO source;
+    private final InMemoryCourseDAO replica;
+    private final long intervalMs;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean paused;
+    private long applied; // Guarded by this
+
+    public ChangeFeedReplicator(CourseDAO source, InMemoryCourseDAO replica, long intervalMs) {
+        this.source = source;
+        this.replica = replica;
+        this.intervalMs = intervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "course-replicator");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Copies the source once, then applies its changes every intervalMs on a background thread. */
+    public void start() throws SQLException {
+        replicate();
+        if (intervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                if (paused) {
+                    return;
+                }
+                try {
+                    replicate();
+                } catch (SQLException | RuntimeException e) {
+                    System.err.println("Database Error (Replicator): " + e.getMessage());
+                }
+            }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stops or resumes applying changes, to let the replica fall behind (replication lag). */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /** Applies everything the source changed since the last call; returns the replica's new change token. */
+    public synchronized long replicate() throws SQLException {
+        ChangeSet changes = source.getChangesSince(applied);
+        if (changes.isResyncRequired()) {
+            // Read the token before the rows, so changes made during the copy are applied again next time
+            long token = source.getLatestChangeToken();
+            replica.replaceAll(source.getAllCourses(), token);
+            applied = token;
+        } else {
+            replica.applyChanges(changes);
+            applied = changes.getToken();
+        }
+        return applied;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
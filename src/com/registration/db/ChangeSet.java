@@ -0,0 +1,48 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+import java.util.Collections;
+import java.util.List;
+
+// Courses added/updated and deleted after a change token, plus the token to ask from next time
+public class ChangeSet {
+    private final long token;
+    private final List<Course> upserted;
+    private final List<Integer> deletedIds;
+    private final boolean resyncRequired;
+
+    public ChangeSet(long token, List<Course> upserted, List<Integer> deletedIds) {
+        this(token, upserted, deletedIds, false);
+    }
+
+    private ChangeSet(long token, List<Course> upserted, List<Integer> deletedIds, boolean resyncRequired) {
+        this.token = token;
+        this.upserted = Collections.unmodifiableList(upserted);
+        this.deletedIds = Collections.unmodifiableList(deletedIds);
+        this.resyncRequired = resyncRequired;
+    }
+
+    /** The requested token is older than the retained delete history: reload everything, then continue from {@code token}. */
+    public static ChangeSet resync(long token) {
+        return new ChangeSet(token, List.of(), List.of(), true);
+    }
+
+    // Pass this to the next getChangesSince call
+    public long getToken() { return token; }
+    // Added or updated courses, in change order
+    public List<Course> getUpserted() { return upserted; }
+    public List<Integer> getDeletedIds() { return deletedIds; }
+    public boolean isResyncRequired() { return resyncRequired; }
+
+    public boolean isEmpty() {
+        return !resyncRequired && upserted.isEmpty() && deletedIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return resyncRequired
+            ? "token=" + token + ", resync required"
+            : "token=" + token + ", upserted=" + upserted.size() + ", deleted=" + deletedIds.size();
+    }
+}
@@ -0,0 +1,249 @@
+package com.registration.db;
+
+import com.registration.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections are validated before reuse, keep their own prepared statement cache
+ * and are handed back to the pool when the {@link PooledConnection} is closed.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static ConnectionPool defaultPool;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently used first (LIFO keeps the working set warm)
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    // One permit per connection that may be handed out
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // --- Statistics ---
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireWaitNanos = new LongAdder();
+    private final AtomicLong maxAcquireWaitNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password) {
+        this(url, user, password,
+            DatabaseConfig.POOL_MIN_SIZE,
+            DatabaseConfig.POOL_MAX_SIZE,
+            DatabaseConfig.POOL_ACQUIRE_TIMEOUT_MS,
+            DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+            DatabaseConfig.STATEMENT_CACHE_SIZE);
+    }
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DatabaseConfig.POOL_VALIDATION_INTERVAL_MS);
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Shared pool built from {@link DatabaseConfig}, created on first use. */
+    public static synchronized ConnectionPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new ConnectionPool(DatabaseConfig.URL, DatabaseConfig.USER, DatabaseConfig.PASSWORD);
+            ConnectionPool pool = defaultPool;
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "connection-pool-shutdown"));
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout when the pool is exhausted.
+     * Closing the returned connection gives it back to the pool.
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLTransientConnectionException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                    "Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection " + getStats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection conn = takeIdleOrCreate();
+            activeConnections.incrementAndGet();
+            recordAcquire(System.nanoTime() - start);
+            return conn;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            if (System.nanoTime() - conn.getLastUsedNanos() < validationIntervalNanos || isValid(conn)) {
+                conn.reopen();
+                return conn;
+            }
+            validationFailures.increment();
+            destroy(conn);
+        }
+        return createConnection();
+    }
+
+    private boolean isValid(PooledConnection conn) {
+        try {
+            return conn.getConnection().isValid(DatabaseConfig.POOL_VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        created.increment();
+        return new PooledConnection(this, raw, statementCacheSize);
+    }
+
+    private void recordAcquire(long waitNanos) {
+        if (Metrics.ENABLED) {
+            Metrics.recordAcquire(waitNanos);
+        }
+        acquireCount.increment();
+        acquireWaitNanos.add(waitNanos);
+        long max;
+        while (waitNanos > (max = maxAcquireWaitNanos.get())) {
+            if (maxAcquireWaitNanos.compareAndSet(max, waitNanos)) {
+                break;
+            }
+        }
+    }
+
+    /** Called by {@link PooledConnection#close()}. */
+    void release(PooledConnection conn) {
+        activeConnections.decrementAndGet();
+        try {
+            if (closed || !conn.reset()) {
+                destroy(conn);
+            } else {
+                idle.offerFirst(conn);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection conn) {
+        totalConnections.decrementAndGet();
+        destroyed.increment();
+        conn.closePhysical();
+    }
+
+    /** Retires connections idle for too long and tops the pool back up to its minimum size. */
+    private void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        // Oldest idle connections sit at the tail of the deque
+        while (idle.size() > minSize) {
+            PooledConnection oldest = idle.peekLast();
+            if (oldest == null || now - oldest.getLastUsedNanos() < idleTimeoutNanos || !idle.remove(oldest)) {
+                break;
+            }
+            destroy(oldest);
+        }
+        try {
+            while (totalConnections.get() < minSize && permits.tryAcquire()) {
+                try {
+                    idle.offerLast(createConnection());
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Pool): " + e.getMessage());
+        }
+    }
+
+    public PoolStats getStats() {
+        long count = acquireCount.sum();
+        return new PoolStats(
+            totalConnections.get(),
+            activeConnections.get(),
+            idle.size(),
+            permits.getQueueLength(),
+            maxSize,
+            count,
+            timeouts.sum(),
+            count == 0 ? 0 : acquireWaitNanos.sum() / count,
+            maxAcquireWaitNanos.get(),
+            created.sum(),
+            destroyed.sum(),
+            validationFailures.sum());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            destroy(conn);
+        }
+    }
+}
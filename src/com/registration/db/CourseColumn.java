@@ -0,0 +1,21 @@
+package com.registration.db;
+
+// Columns of the courses table that can be selected in projected reads
+public enum CourseColumn {
+    ID("course_id"),
+    CODE("course_code"),
+    NAME("course_name"),
+    CREDITS("credits"),
+    INSTRUCTOR("instructor"),
+    SCHEDULE("schedule");
+
+    private final String columnName;
+
+    CourseColumn(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+}
@@ -5,13 +5,57 @@ package com.registration.db;
 import com.registration.model.Course;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 // Interface defining the Data Access Object contract
 public interface CourseDAO {
     // Note the exact method signatures here:
     void addCourse(Course course) throws SQLException;
+    // Bulk insert; rows that violate constraints are reported instead of aborting the load
+    BatchResult addCourses(Iterable<Course> courses) throws SQLException;
     List<Course> getAllCourses() throws SQLException;
+    // Keyset pagination: up to 'limit' courses with course_id > lastId, in id order
+    List<Course> getCoursesAfter(int lastId, int limit) throws SQLException;
+    // Cursor-backed scan in id order; the stream holds a connection and must be closed.
+    // Columns not listed are left empty; ID is always included.
+    Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException;
     Course getCourseById(int id) throws SQLException;
-    void updateCourse(Course course) throws SQLException;
-    void deleteCourse(int id) throws SQLException;
+    // Looks a course up by its unique code; returns null when absent
+    Course getCourseByCode(String courseCode) throws SQLException;
+    // Optimistic concurrency: a course with a non-zero version is only updated if the row still has
+    // that version; false means the row was changed or deleted since it was read (or never existed).
+    // On success the course carries its new version.
+    boolean updateCourse(Course course) throws SQLException;
+    // Deletes the row if it still has expectedVersion (0 = whatever its version); false if it did not
+    boolean deleteCourse(int id, long expectedVersion) throws SQLException;
+
+    default void deleteCourse(int id) throws SQLException {
+        deleteCourse(id, 0);
+    }
+
+    // Applies the writes in order, in one transaction where the backend supports it (group commit).
+    // A write rejected by a constraint or a version check is recorded on it and the others still apply;
+    // an exception means the whole group failed. This default commits each write on its own.
+    default void applyWrites(List<CourseWrite> writes) throws SQLException {
+        for (CourseWrite write : writes) {
+            try {
+                switch (write.getKind()) {
+                    case INSERT -> {
+                        addCourse(write.getCourse());
+                        write.setApplied(true);
+                    }
+                    case UPDATE -> write.setApplied(updateCourse(write.getCourse()));
+                    case DELETE -> write.setApplied(deleteCourse(write.getCourseId(), write.getExpectedVersion()));
+                }
+            } catch (SQLException e) {
+                write.setError(e);
+            }
+        }
+    }
+
+    // --- Delta synchronisation ---
+    // Token describing the current state; pass it to getChangesSince to receive later changes
+    long getLatestChangeToken() throws SQLException;
+    // Courses written and deleted after the given token (cost grows with the number of changes)
+    ChangeSet getChangesSince(long token) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.registration.db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Creates the CourseDAO (and EnrollmentDAO) backend selected in DatabaseConfig (-Dregistration.dao=jdbc|mapped|memory|remote)
+public final class CourseDAOFactory {
+
+    private CourseDAOFactory() {
+    }
+
+    public static CourseDAO create() {
+        return create(DatabaseConfig.DAO_BACKEND);
+    }
+
+    public static CourseDAO create(String backend) {
+        switch (backend.toLowerCase()) {
+            case "jdbc":
+                return DatabaseConfig.REPLICA_URLS.isBlank() ? new CourseDAOImpl() : routedJdbc();
+            case "mapped":
+                try {
+                    MappedFileCourseDAO store = new MappedFileCourseDAO(Path.of(DatabaseConfig.STORE_DIR));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            store.close();
+                        } catch (IOException e) {
+                            System.err.println("Course store: close failed: " + e.getMessage());
+                        }
+                    }, "course-store-shutdown"));
+                    return store;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not open course store in " + DatabaseConfig.STORE_DIR, e);
+                }
+            case "memory":
+                return new InMemoryCourseDAO();
+            case "remote":
+                return new RemoteCourseDAO(URI.create(DatabaseConfig.REMOTE_URL));
+            default:
+                throw new IllegalArgumentException("Unknown CourseDAO backend: " + backend + " (expected jdbc, mapped, memory or remote)");
+        }
+    }
+
+    // The database in DatabaseConfig.URL for writes, its replicas for reads
+    private static RoutingCourseDAO routedJdbc() {
+        List<CourseDAO> replicas = new ArrayList<>();
+        for (String url : DatabaseConfig.REPLICA_URLS.split(",")) {
+            if (!url.isBlank()) {
+                replicas.add(new CourseDAOImpl(new ConnectionPool(url.trim(), DatabaseConfig.USER, DatabaseConfig.PASSWORD)));
+            }
+        }
+        return new RoutingCourseDAO(new CourseDAOImpl(), replicas);
+    }
+
+    /** EnrollmentDAO for the same backend; only jdbc and memory keep enrollments. */
+    public static EnrollmentDAO createEnrollmentDAO() {
+        return createEnrollmentDAO(DatabaseConfig.DAO_BACKEND);
+    }
+
+    public static EnrollmentDAO createEnrollmentDAO(String backend) {
+        switch (backend.toLowerCase()) {
+            case "jdbc":
+                return new EnrollmentDAOImpl();
+            case "memory":
+                return new InMemoryEnrollmentDAO();
+            default:
+                throw new IllegalArgumentException("Enrollments are not supported by the " + backend + " backend (use jdbc or memory)");
+        }
+    }
+}
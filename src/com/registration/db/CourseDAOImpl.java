@@ -2,56 +2,202 @@ package com.registration.db;
 
 
 import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class CourseDAOImpl implements CourseDAO {
 
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-            DatabaseConfig.URL, 
-            DatabaseConfig.USER, 
-            DatabaseConfig.PASSWORD
-        );
+    private static final String COURSE_COLUMNS = "course_id, course_code, course_name, credits, instructor, schedule, row_version";
+    private static final String INSERT_SQL =
+        "INSERT INTO courses (course_code, course_name, credits, instructor, schedule, row_version) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String STAMP_SQL = "UPDATE courses SET row_version = ? WHERE course_id = ?";
+    // The tombstone tells other desks to drop the row
+    private static final String TOMBSTONE_SQL = "INSERT INTO course_tombstones (course_id, row_version) VALUES (?, ?) "
+        + "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP(3)";
+
+    private final ConnectionPool pool;
+
+    // Uses the shared pool configured in DatabaseConfig
+    public CourseDAOImpl() {
+        this(ConnectionPool.getDefault());
+    }
+
+    public CourseDAOImpl(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    private PooledConnection getConnection() throws SQLException {
+        return pool.acquire();
+    }
+
+    /** Statistics of the pool backing this DAO. */
+    public PoolStats getPoolStats() {
+        return pool.getStats();
     }
 
     private Course extractCourseFromResultSet(ResultSet rs) throws SQLException {
-        return new Course(
-            rs.getInt("course_id"),
-            rs.getString("course_code"),
-            rs.getString("course_name"),
-            rs.getInt("credits"),
-            rs.getString("instructor")
-        );
+        return CourseRowMapper.extractCourseFromResultSet(rs);
+    }
+
+    // Statements below come from the connection's statement cache: only ResultSets are closed here
+
+    /**
+     * Hands out {@code count} consecutive row versions and returns the last one.
+     * Must run inside the write transaction: the sequence row stays locked until commit, so versions
+     * become visible to getChangesSince in increasing order and no change can be skipped.
+     * Call it after the transaction's row writes: every write path locks rows first and the sequence
+     * last, so two writers never wait on each other in opposite orders.
+     */
+    private long reserveVersions(PooledConnection conn, int count) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement("UPDATE course_change_seq SET value = LAST_INSERT_ID(value + ?) WHERE id = 1");
+        stmt.setInt(1, count);
+        stmt.executeUpdate();
+        try (ResultSet rs = conn.prepareStatement("SELECT LAST_INSERT_ID()").executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
     }
 
     @Override
     public void addCourse(Course course) throws SQLException {
-        String sql = "INSERT INTO courses (course_code, course_name, credits, instructor) VALUES (?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) { 
-            
-            stmt.setString(1, course.getCourseCode());
-            stmt.setString(2, course.getCourseName());
-            stmt.setInt(3, course.getCredits());
-            stmt.setString(4, course.getInstructor());
-            
-            stmt.executeUpdate();
+        try (PooledConnection conn = getConnection()) { 
+            conn.getConnection().setAutoCommit(false);
+            // Hands the generated id back so callers can show the new row without a reload
+            insertRow(conn, course);
+            long version = stampNewRows(conn, List.of(course));
+            conn.getConnection().commit();
+            course.setVersion(version);
         } catch (SQLException e) {
             System.err.println("Database Error (Add): " + e.getMessage());
             throw e; 
         }
     }
 
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        List<RowFailure> failures = new ArrayList<>();
+        List<Course> chunk = new ArrayList<>(DatabaseConfig.BATCH_SIZE);
+        int inserted = 0;
+        long chunkStart = 0;
+
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            conn.getConnection().setAutoCommit(false);
+
+            for (Course course : courses) {
+                chunk.add(course);
+                if (chunk.size() == DatabaseConfig.BATCH_SIZE) {
+                    inserted += insertChunk(conn, stmt, chunk, chunkStart, failures);
+                    chunkStart += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inserted += insertChunk(conn, stmt, chunk, chunkStart, failures);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Batch Add): " + e.getMessage());
+            throw e;
+        }
+        return new BatchResult(inserted, failures);
+    }
+
+    /**
+     * Inserts one chunk in a single transaction. If the batch is rejected, the chunk is rolled back
+     * and replayed row by row behind savepoints so only the offending rows are skipped.
+     * Rows are inserted with version 0 and then stamped with a block of versions reserved for the chunk.
+     */
+    private int insertChunk(PooledConnection pooled, PreparedStatement stmt, List<Course> chunk, long chunkStart,
+                            List<RowFailure> failures) throws SQLException {
+        Connection conn = pooled.getConnection();
+        try {
+            for (Course course : chunk) {
+                bindCourse(stmt, course, 0);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (int i = 0; i < chunk.size() && keys.next(); i++) {
+                    chunk.get(i).setCourseId(keys.getInt(1));
+                }
+            }
+            long firstVersion = stampNewRows(pooled, chunk);
+            conn.commit();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setVersion(firstVersion + i);
+            }
+            return chunk.size();
+        } catch (BatchUpdateException e) {
+            stmt.clearBatch();
+            conn.rollback();
+        }
+
+        List<Course> inserted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Course course = chunk.get(i);
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                bindCourse(stmt, course, 0);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        course.setCourseId(keys.getInt(1));
+                    }
+                }
+                inserted.add(course);
+            } catch (SQLException rowError) {
+                conn.rollback(savepoint);
+                failures.add(new RowFailure(chunkStart + i, course, rowError.getMessage()));
+            } finally {
+                conn.releaseSavepoint(savepoint);
+            }
+        }
+        long firstVersion = inserted.isEmpty() ? 0 : stampNewRows(pooled, inserted);
+        conn.commit();
+        for (int i = 0; i < inserted.size(); i++) {
+            inserted.get(i).setVersion(firstVersion + i);
+        }
+        return inserted.size();
+    }
+
+    /** Gives freshly inserted rows consecutive versions, after their inserts (see reserveVersions); returns the first. */
+    private long stampNewRows(PooledConnection conn, List<Course> rows) throws SQLException {
+        long firstVersion = reserveVersions(conn, rows.size()) - rows.size() + 1;
+        PreparedStatement stamp = conn.prepareStatement(STAMP_SQL);
+        for (int i = 0; i < rows.size(); i++) {
+            stamp.setLong(1, firstVersion + i);
+            stamp.setInt(2, rows.get(i).getCourseId());
+            stamp.addBatch();
+        }
+        stamp.executeBatch();
+        return firstVersion;
+    }
+
+    private void bindCourse(PreparedStatement stmt, Course course, long version) throws SQLException {
+        stmt.setString(1, course.getCourseCode());
+        stmt.setString(2, course.getCourseName());
+        stmt.setInt(3, course.getCredits());
+        stmt.setString(4, course.getInstructor());
+        stmt.setString(5, MeetingSlot.formatSchedule(course.getSchedule()));
+        stmt.setLong(6, version);
+    }
+
     @Override
     public List<Course> getAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();
-        String sql = "SELECT * FROM courses ORDER BY course_id";
+        String sql = "SELECT " + COURSE_COLUMNS + " FROM courses ORDER BY course_id";
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepareStatement(sql).executeQuery()) {
             
             while (rs.next()) {
                 courses.add(extractCourseFromResultSet(rs));
@@ -64,19 +210,108 @@ public class CourseDAOImpl implements CourseDAO {
     }
 
     @Override
-    public void updateCourse(Course course) throws SQLException {
-        String sql = "UPDATE courses SET course_code = ?, course_name = ?, credits = ?, instructor = ? WHERE course_id = ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, course.getCourseCode());
-            stmt.setString(2, course.getCourseName());
-            stmt.setInt(3, course.getCredits());
-            stmt.setString(4, course.getInstructor());
-            stmt.setInt(5, course.getCourseId());
-            
-            stmt.executeUpdate();
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        List<Course> courses = new ArrayList<>(Math.min(limit, 1_000));
+        String sql = "SELECT " + COURSE_COLUMNS + " FROM courses WHERE course_id > ? ORDER BY course_id LIMIT ?";
+
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, lastId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(extractCourseFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Read Page): " + e.getMessage());
+            throw e;
+        }
+        return courses;
+    }
+
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        Set<CourseColumn> projection = CourseRowMapper.projection(columns);
+        StringBuilder select = new StringBuilder();
+        for (CourseColumn column : projection) {
+            select.append(select.length() == 0 ? "" : ", ").append(column.getColumnName());
+        }
+        String sql = "SELECT " + select + " FROM courses ORDER BY course_id";
+
+        // The open cursor pins the connection and statement, so neither comes from the statement cache
+        PooledConnection conn = getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs;
+        try {
+            stmt = conn.getConnection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Database Error (Stream): " + e.getMessage());
+            closeStream(null, stmt, conn);
+            throw e;
+        }
+
+        PreparedStatement openStmt = stmt;
+        Spliterator<Course> rows = new Spliterators.AbstractSpliterator<Course>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Course> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(CourseRowMapper.extractProjectedCourse(rs, projection));
+                    return true;
+                } catch (SQLException e) {
+                    System.err.println("Database Error (Stream): " + e.getMessage());
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeStream(rs, openStmt, conn));
+    }
+
+    private void closeStream(ResultSet rs, Statement stmt, PooledConnection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Stream Close): " + e.getMessage());
+        } finally {
+            conn.close();
+        }
+    }
+
+    /*
+     * Updates and deletes are optimistic: the row statement only matches while the row still has the
+     * version the caller read, so no lock is taken at read time and edits of different courses never
+     * wait for each other. The change sequence is stamped last, keeping that shared lock short.
+     */
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        try (PooledConnection conn = getConnection()) {
+            conn.getConnection().setAutoCommit(false);
+            // Matched (not changed) rows are counted, so saving unchanged values still succeeds
+            if (!updateRow(conn, course)) {
+                conn.getConnection().rollback();
+                return false;
+            }
+            long version = reserveVersions(conn, 1);
+            PreparedStatement stamp = conn.prepareStatement(STAMP_SQL);
+            stamp.setLong(1, version);
+            stamp.setInt(2, course.getCourseId());
+            stamp.executeUpdate();
+            conn.getConnection().commit();
+            course.setVersion(version);
+            return true;
         } catch (SQLException e) {
             System.err.println("Database Error (Update): " + e.getMessage());
             throw e; 
@@ -84,22 +319,223 @@ public class CourseDAOImpl implements CourseDAO {
     }
 
     @Override
-    public void deleteCourse(int id) throws SQLException {
-        String sql = "DELETE FROM courses WHERE course_id = ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            
-            stmt.executeUpdate();
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        try (PooledConnection conn = getConnection()) {
+            conn.getConnection().setAutoCommit(false);
+            if (!deleteRow(conn, id, expectedVersion)) {
+                conn.getConnection().rollback();
+                return false;
+            }
+            PreparedStatement tombstone = conn.prepareStatement(TOMBSTONE_SQL);
+            tombstone.setInt(1, id);
+            tombstone.setLong(2, reserveVersions(conn, 1));
+            tombstone.executeUpdate();
+            conn.getConnection().commit();
+            return true;
         } catch (SQLException e) {
             System.err.println("Database Error (Delete): " + e.getMessage());
             throw e; 
         }
     }
-    
-    // Required by interface but not strictly used by UI
+
+    /**
+     * Group commit: all writes share one transaction, so the database syncs its log once per group
+     * instead of once per write. Each row statement runs behind a savepoint, so a rejected write is
+     * skipped alone; the applied writes are then stamped with one block of consecutive versions.
+     */
     @Override
-    public Course getCourseById(int id) throws SQLException { return null; }
+    public void applyWrites(List<CourseWrite> writes) throws SQLException {
+        List<CourseWrite> applied = new ArrayList<>(writes.size());
+        try (PooledConnection pooled = getConnection()) {
+            Connection conn = pooled.getConnection();
+            conn.setAutoCommit(false);
+            for (CourseWrite write : writes) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    boolean done = switch (write.getKind()) {
+                        case INSERT -> insertRow(pooled, write.getCourse());
+                        case UPDATE -> updateRow(pooled, write.getCourse());
+                        case DELETE -> deleteRow(pooled, write.getCourseId(), write.getExpectedVersion());
+                    };
+                    write.setApplied(done);
+                    if (done) {
+                        applied.add(write);
+                    }
+                } catch (SQLException rowError) {
+                    conn.rollback(savepoint);
+                    write.setError(rowError);
+                } finally {
+                    conn.releaseSavepoint(savepoint);
+                }
+            }
+            if (applied.isEmpty()) {
+                conn.rollback();
+                return;
+            }
+
+            long version = reserveVersions(pooled, applied.size()) - applied.size() + 1;
+            PreparedStatement stamp = pooled.prepareStatement(STAMP_SQL);
+            PreparedStatement tombstone = pooled.prepareStatement(TOMBSTONE_SQL);
+            boolean stamps = false;
+            boolean tombstones = false;
+            for (CourseWrite write : applied) {
+                PreparedStatement stmt = write.getKind() == CourseWrite.Kind.DELETE ? tombstone : stamp;
+                if (stmt == stamp) {
+                    stamp.setLong(1, version++);
+                    stamp.setInt(2, write.getCourseId());
+                    stamps = true;
+                } else {
+                    tombstone.setInt(1, write.getCourseId());
+                    tombstone.setLong(2, version++);
+                    tombstones = true;
+                }
+                stmt.addBatch();
+            }
+            if (stamps) {
+                stamp.executeBatch();
+            }
+            if (tombstones) {
+                tombstone.executeBatch();
+            }
+            conn.commit();
+
+            version -= applied.size();
+            for (CourseWrite write : applied) {
+                if (write.getCourse() != null) {
+                    write.getCourse().setVersion(version);
+                }
+                version++;
+            }
+        } catch (SQLException e) {
+            // Nothing was committed
+            for (CourseWrite write : applied) {
+                write.setApplied(false);
+            }
+            System.err.println("Database Error (Group Commit): " + e.getMessage());
+            throw e;
+        }
+    }
+
+    // Inserts with version 0; the caller stamps the row before committing
+    private boolean insertRow(PooledConnection conn, Course course) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+        bindCourse(stmt, course, 0);
+        stmt.executeUpdate();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                course.setCourseId(keys.getInt(1));
+            }
+        }
+        return true;
+    }
+
+    private boolean updateRow(PooledConnection conn, Course course) throws SQLException {
+        String sql = "UPDATE courses SET course_code = ?, course_name = ?, credits = ?, instructor = ?, schedule = ? WHERE course_id = ?"
+            + (course.getVersion() != 0 ? " AND row_version = ?" : "");
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        stmt.setString(1, course.getCourseCode());
+        stmt.setString(2, course.getCourseName());
+        stmt.setInt(3, course.getCredits());
+        stmt.setString(4, course.getInstructor());
+        stmt.setString(5, MeetingSlot.formatSchedule(course.getSchedule()));
+        stmt.setInt(6, course.getCourseId());
+        if (course.getVersion() != 0) {
+            stmt.setLong(7, course.getVersion());
+        }
+        return stmt.executeUpdate() > 0;
+    }
+
+    private boolean deleteRow(PooledConnection conn, int id, long expectedVersion) throws SQLException {
+        String sql = "DELETE FROM courses WHERE course_id = ?" + (expectedVersion != 0 ? " AND row_version = ?" : "");
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        stmt.setInt(1, id);
+        if (expectedVersion != 0) {
+            stmt.setLong(2, expectedVersion);
+        }
+        return stmt.executeUpdate() > 0;
+    }
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepareStatement("SELECT value FROM course_change_seq WHERE id = 1").executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Database Error (Change Token): " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the token and the rows changed after {@code token} in one transaction; both queries use
+     * the row_version indexes, so the cost follows the number of changes rather than the table size.
+     * Rows newer than the returned token are left for the next call.
+     */
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        String upsertSql = "SELECT " + COURSE_COLUMNS + " FROM courses WHERE row_version > ? AND row_version <= ? ORDER BY row_version";
+        String deleteSql = "SELECT course_id FROM course_tombstones WHERE row_version > ? AND row_version <= ? ORDER BY row_version";
+        List<Course> upserted = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+
+        try (PooledConnection conn = getConnection()) {
+            conn.getConnection().setAutoCommit(false);
+            long latest;
+            try (ResultSet rs = conn.prepareStatement("SELECT value FROM course_change_seq WHERE id = 1").executeQuery()) {
+                latest = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (latest > token) {
+                PreparedStatement stmt = conn.prepareStatement(upsertSql);
+                stmt.setLong(1, token);
+                stmt.setLong(2, latest);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        upserted.add(extractCourseFromResultSet(rs));
+                    }
+                }
+                stmt = conn.prepareStatement(deleteSql);
+                stmt.setLong(1, token);
+                stmt.setLong(2, latest);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deleted.add(rs.getInt(1));
+                    }
+                }
+            }
+            conn.getConnection().commit();
+            return new ChangeSet(latest, upserted, deleted);
+        } catch (SQLException e) {
+            System.err.println("Database Error (Changes): " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        return findOne("SELECT " + COURSE_COLUMNS + " FROM courses WHERE course_id = ?", stmt -> stmt.setInt(1, id));
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        return findOne("SELECT " + COURSE_COLUMNS + " FROM courses WHERE course_code = ?", stmt -> stmt.setString(1, courseCode));
+    }
+
+    // Binds the parameters of a single-row lookup
+    private interface ParameterBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private Course findOne(String sql, ParameterBinder binder) throws SQLException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            binder.bind(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? extractCourseFromResultSet(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Find): " + e.getMessage());
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,397 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON encoding of courses, change sets and batch results shared by CourseServer and RemoteCourseDAO.
+ * Only what the course API needs: objects, arrays, strings, integers, booleans and null.
+ *
+ * A course is {"id":1,"code":"CS101","name":"...","credits":3,"instructor":"...","schedule":"MON 09:00-10:30 B-204","version":7};
+ * schedule is null for an unscheduled course.
+ */
+public final class CourseJson {
+
+    private CourseJson() {
+    }
+
+    // --- Writing ---
+
+    public static String course(Course course) {
+        StringBuilder json = new StringBuilder(128);
+        appendCourse(json, course);
+        return json.toString();
+    }
+
+    public static String courses(List<Course> courses) {
+        StringBuilder json = new StringBuilder(64 + courses.size() * 112);
+        appendCourses(json, courses);
+        return json.toString();
+    }
+
+    public static String changeSet(ChangeSet changes) {
+        StringBuilder json = new StringBuilder(64 + changes.getUpserted().size() * 112);
+        json.append("{\"token\":").append(changes.getToken())
+            .append(",\"resync\":").append(changes.isResyncRequired())
+            .append(",\"upserted\":");
+        appendCourses(json, changes.getUpserted());
+        json.append(",\"deleted\":[");
+        List<Integer> deleted = changes.getDeletedIds();
+        for (int i = 0; i < deleted.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(deleted.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    // The batch's assigned ids and versions (0 for rejected rows) travel with the result
+    public static String batchResult(BatchResult result, List<Course> batch) {
+        StringBuilder json = new StringBuilder(64 + batch.size() * 16).append("{\"inserted\":").append(result.getInsertedCount())
+            .append(",\"failures\":[");
+        List<RowFailure> failures = result.getFailures();
+        for (int i = 0; i < failures.size(); i++) {
+            RowFailure failure = failures.get(i);
+            json.append(i > 0 ? ",{\"index\":" : "{\"index\":").append(failure.getIndex()).append(",\"message\":");
+            appendString(json, failure.getMessage());
+            json.append('}');
+        }
+        json.append("],\"ids\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            json.append(i > 0 ? "," : "").append(batch.get(i).getCourseId());
+        }
+        json.append("],\"versions\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            json.append(i > 0 ? "," : "").append(batch.get(i).getVersion());
+        }
+        return json.append("]}").toString();
+    }
+
+    public static String error(String message, String sqlState, int vendorCode) {
+        StringBuilder json = new StringBuilder(64).append("{\"error\":");
+        appendString(json, message);
+        json.append(",\"sqlState\":");
+        appendString(json, sqlState);
+        return json.append(",\"vendorCode\":").append(vendorCode).append('}').toString();
+    }
+
+    private static void appendCourses(StringBuilder json, List<Course> courses) {
+        json.append('[');
+        for (int i = 0; i < courses.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendCourse(json, courses.get(i));
+        }
+        json.append(']');
+    }
+
+    private static void appendCourse(StringBuilder json, Course course) {
+        json.append("{\"id\":").append(course.getCourseId()).append(",\"code\":");
+        appendString(json, course.getCourseCode());
+        json.append(",\"name\":");
+        appendString(json, course.getCourseName());
+        json.append(",\"credits\":").append(course.getCredits()).append(",\"instructor\":");
+        appendString(json, course.getInstructor());
+        json.append(",\"schedule\":");
+        appendString(json, MeetingSlot.formatSchedule(course.getSchedule()));
+        json.append(",\"version\":").append(course.getVersion()).append('}');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    // --- Reading ---
+
+    public static Course toCourse(Object json) {
+        Map<String, Object> fields = object(json);
+        Course course = new Course(
+            (int) number(fields.get("id")),
+            (String) fields.get("code"),
+            (String) fields.get("name"),
+            (int) number(fields.get("credits")),
+            (String) fields.get("instructor"));
+        course.setVersion(number(fields.get("version")));
+        course.setSchedule(MeetingSlot.parseSchedule((String) fields.get("schedule")));
+        return course;
+    }
+
+    public static List<Course> toCourses(Object json) {
+        List<Object> items = array(json);
+        List<Course> courses = new ArrayList<>(items.size());
+        for (Object item : items) {
+            courses.add(toCourse(item));
+        }
+        return courses;
+    }
+
+    public static ChangeSet toChangeSet(Object json) {
+        Map<String, Object> fields = object(json);
+        long token = number(fields.get("token"));
+        if (Boolean.TRUE.equals(fields.get("resync"))) {
+            return ChangeSet.resync(token);
+        }
+        List<Integer> deleted = new ArrayList<>();
+        for (Object id : array(fields.get("deleted"))) {
+            deleted.add((int) number(id));
+        }
+        return new ChangeSet(token, toCourses(fields.get("upserted")), deleted);
+    }
+
+    /** Reads a batchResult document back onto the courses that were sent; failure indexes start at indexOffset. */
+    public static BatchResult toBatchResult(Object json, List<Course> batch, long indexOffset) {
+        Map<String, Object> fields = object(json);
+        List<Object> ids = array(fields.get("ids"));
+        List<Object> versions = array(fields.get("versions"));
+        for (int i = 0; i < batch.size() && i < ids.size(); i++) {
+            batch.get(i).setCourseId((int) number(ids.get(i)));
+            batch.get(i).setVersion(number(versions.get(i)));
+        }
+        List<RowFailure> failures = new ArrayList<>();
+        for (Object item : array(fields.get("failures"))) {
+            Map<String, Object> failure = object(item);
+            int index = (int) number(failure.get("index"));
+            failures.add(new RowFailure(indexOffset + index, batch.get(index), (String) failure.get("message")));
+        }
+        return new BatchResult((int) number(fields.get("inserted")), failures);
+    }
+
+    public static Map<String, Object> object(Object json) {
+        if (!(json instanceof Map)) {
+            throw new IllegalArgumentException("JSON object expected");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) json;
+        return map;
+    }
+
+    public static List<Object> array(Object json) {
+        if (!(json instanceof List)) {
+            throw new IllegalArgumentException("JSON array expected");
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) json;
+        return list;
+    }
+
+    public static long number(Object json) {
+        if (!(json instanceof Long)) {
+            throw new IllegalArgumentException("JSON integer expected");
+        }
+        return (Long) json;
+    }
+
+    /** Parses a JSON document into maps, lists, strings, longs, booleans and nulls. */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("end of input expected");
+        }
+        return value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("value expected");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return number();
+                    }
+                    throw error("unexpected '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("member name expected");
+                }
+                String name = string();
+                skipWhitespace();
+                expect(':');
+                map.put(name, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() {
+            pos++;
+            StringBuilder value = null;
+            int start = pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    String result = value == null ? text.substring(start, pos) : value.append(text, start, pos).toString();
+                    pos++;
+                    return result;
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (value == null) {
+                    value = new StringBuilder();
+                }
+                value.append(text, start, pos);
+                if (pos + 1 >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos + 1);
+                pos += 2;
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("bad unicode escape");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+                start = pos;
+            }
+            throw error("unterminated string");
+        }
+
+        private Long number() {
+            int start = pos;
+            if (text.charAt(pos) == '-') {
+                pos++;
+            }
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos < text.length() && ".eE".indexOf(text.charAt(pos)) >= 0) {
+                throw error("integer expected");
+            }
+            try {
+                return Long.parseLong(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("bad number");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw error("unexpected token");
+            }
+            pos += word.length();
+            return value;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("'" + c + "' expected");
+            }
+            pos++;
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+        }
+    }
+}
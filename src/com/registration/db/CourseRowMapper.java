@@ -0,0 +1,64 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Maps courses rows (and column projections) to Course objects
+public final class CourseRowMapper {
+
+    private CourseRowMapper() {
+    }
+
+    public static Course extractCourseFromResultSet(ResultSet rs) throws SQLException {
+        Course course = new Course(
+            rs.getInt("course_id"),
+            rs.getString("course_code"),
+            rs.getString("course_name"),
+            rs.getInt("credits"),
+            rs.getString("instructor"),
+            rs.getLong("row_version")
+        );
+        course.setSchedule(MeetingSlot.parseSchedule(rs.getString("schedule")));
+        return course;
+    }
+
+    /** Maps a row produced by a projected query; columns outside the projection stay empty. */
+    public static Course extractProjectedCourse(ResultSet rs, Set<CourseColumn> columns) throws SQLException {
+        Course course = new Course(
+            rs.getInt("course_id"),
+            columns.contains(CourseColumn.CODE) ? rs.getString("course_code") : null,
+            columns.contains(CourseColumn.NAME) ? rs.getString("course_name") : null,
+            columns.contains(CourseColumn.CREDITS) ? rs.getInt("credits") : 0,
+            columns.contains(CourseColumn.INSTRUCTOR) ? rs.getString("instructor") : null
+        );
+        if (columns.contains(CourseColumn.SCHEDULE)) {
+            course.setSchedule(MeetingSlot.parseSchedule(rs.getString("schedule")));
+        }
+        return course;
+    }
+
+    /** Copy of an in-memory course restricted to a projection, for DAOs that do not read from JDBC. */
+    public static Course project(Course course, Set<CourseColumn> columns) {
+        Course projected = new Course(
+            course.getCourseId(),
+            columns.contains(CourseColumn.CODE) ? course.getCourseCode() : null,
+            columns.contains(CourseColumn.NAME) ? course.getCourseName() : null,
+            columns.contains(CourseColumn.CREDITS) ? course.getCredits() : 0,
+            columns.contains(CourseColumn.INSTRUCTOR) ? course.getInstructor() : null
+        );
+        if (columns.contains(CourseColumn.SCHEDULE)) {
+            projected.setSchedule(course.getSchedule());
+        }
+        return projected;
+    }
+
+    /** The projection requested by a streamCourses call: all columns when none are listed, ID always. */
+    public static Set<CourseColumn> projection(CourseColumn... columns) {
+        return columns.length == 0 ? EnumSet.allOf(CourseColumn.class) : EnumSet.of(CourseColumn.ID, columns);
+    }
+}
@@ -0,0 +1,65 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+
+// One insert, update or delete of a group commit (CourseDAO.applyWrites), with its outcome once applied
+public class CourseWrite {
+
+    public enum Kind { INSERT, UPDATE, DELETE }
+
+    private final Kind kind;
+    private final Course course;
+    private final int courseId;
+    private final long expectedVersion;
+    private boolean applied;
+    private SQLException error;
+
+    private CourseWrite(Kind kind, Course course, int courseId, long expectedVersion) {
+        this.kind = kind;
+        this.course = course;
+        this.courseId = courseId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    // The course receives its id and version when the insert applies
+    public static CourseWrite insert(Course course) {
+        return new CourseWrite(Kind.INSERT, course, 0, 0);
+    }
+
+    // Conditional on the course's version as for updateCourse; receives the new version
+    public static CourseWrite update(Course course) {
+        return new CourseWrite(Kind.UPDATE, course, course.getCourseId(), course.getVersion());
+    }
+
+    public static CourseWrite delete(int courseId, long expectedVersion) {
+        return new CourseWrite(Kind.DELETE, null, courseId, expectedVersion);
+    }
+
+    public Kind getKind() { return kind; }
+    // The inserted or updated course; null for deletes
+    public Course getCourse() { return course; }
+    public int getCourseId() { return course != null ? course.getCourseId() : courseId; }
+    public long getExpectedVersion() { return expectedVersion; }
+
+    // False with no error: the row had another version or no longer existed
+    public boolean isApplied() { return applied; }
+    // The error that rejected this write alone (e.g. a duplicate code); the rest of the group still applies
+    public SQLException getError() { return error; }
+
+    void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    void setError(SQLException error) {
+        this.error = error;
+        this.applied = false;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + (course != null ? course.getCourseCode() : "#" + courseId)
+            + (error != null ? " failed: " + error.getMessage() : applied ? " applied" : " not applied");
+    }
+}
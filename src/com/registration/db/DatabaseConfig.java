@@ -4,7 +4,46 @@ package com.registration.db;
 
 //Configuration constants for the database connection
 public class DatabaseConfig {
- public static final String URL = "jdbc:mysql://localhost:3306/course_registration_db";
+ public static final String URL = "jdbc:mysql://localhost:3306/course_registration_db?useCursorFetch=true"; // cursor fetch lets streamed reads honour the fetch size
  public static final String USER = "root"; // CHANGE THIS TO YOUR DB USER
  public static final String PASSWORD = ""; // CHANGE THIS TO YOUR DB PASSWORD
+
+ // Read replicas of the database above (comma-separated JDBC URLs, same user and password); empty = none.
+ // Writes stay on URL; reads are routed by RoutingCourseDAO
+ public static final String REPLICA_URLS = System.getProperty("registration.db.replicaUrls", "");
+ public static final long REPLICA_CHECK_INTERVAL_MS = Long.getLong("registration.replica.checkIntervalMs", 1_000);
+ // Replicas further behind the primary than this many changes are not read from (negative = no limit)
+ public static final long REPLICA_MAX_LAG = Long.getLong("registration.replica.maxLag", 1_000);
+
+ // Connection pool settings (override with -Dregistration.pool.<name>=<value>)
+ public static final int POOL_MIN_SIZE = Integer.getInteger("registration.pool.minSize", 2);
+ public static final int POOL_MAX_SIZE = Integer.getInteger("registration.pool.maxSize", 10);
+ public static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("registration.pool.acquireTimeoutMs", 5_000);
+ public static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("registration.pool.idleTimeoutMs", 300_000);
+ // Idle connections are only re-validated when they have not been used for this long
+ public static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("registration.pool.validationIntervalMs", 5_000);
+ public static final int POOL_VALIDATION_TIMEOUT_SECONDS = Integer.getInteger("registration.pool.validationTimeoutSeconds", 2);
+ public static final int STATEMENT_CACHE_SIZE = Integer.getInteger("registration.pool.statementCacheSize", 32);
+
+ // Rows sent per executeBatch/commit during bulk inserts
+ public static final int BATCH_SIZE = Integer.getInteger("registration.batchSize", 500);
+ // Rows fetched per round trip by streamed reads
+ public static final int STREAM_FETCH_SIZE = Integer.getInteger("registration.fetchSize", 1_000);
+
+ // CourseDAO backend: "jdbc" (MySQL above), "mapped" (local record file), "memory" (not persisted)
+ // or "remote" (a CourseServer at REMOTE_URL)
+ public static final String DAO_BACKEND = System.getProperty("registration.dao", "jdbc");
+ // Local course store used by the "mapped" backend
+ public static final String STORE_DIR = System.getProperty("registration.store.dir",
+     System.getProperty("user.home") + "/.course-registration");
+ // Flush every record to disk (survives power loss, slower); records always survive process crashes
+ public static final boolean STORE_SYNC_WRITES = Boolean.getBoolean("registration.store.sync");
+ public static final long STORE_COMPACT_INTERVAL_MS = Long.getLong("registration.store.compactIntervalMs", 30_000);
+ public static final long STORE_COMPACT_MIN_DEAD_BYTES = Long.getLong("registration.store.compactMinDeadBytes", 1 << 20);
+ // Course server used by the "remote" backend, and the time one request may take
+ public static final String REMOTE_URL = System.getProperty("registration.remote.url", "http://localhost:8080");
+ public static final long REMOTE_TIMEOUT_MS = Long.getLong("registration.remote.timeoutMs", 10_000);
+
+ // Deletes remembered by the embedded backends for getChangesSince; older tokens get a full resync
+ public static final int SYNC_TOMBSTONE_LIMIT = Integer.getInteger("registration.sync.tombstones", 10_000);
 }
\ No newline at end of file
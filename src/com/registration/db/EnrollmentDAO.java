@@ -0,0 +1,28 @@
+package com.registration.db;
+
+import com.registration.model.Enrollment;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence of course seat capacities and enrollments. Saving is idempotent: a stored enrollment is
+ * only replaced by one with a higher sequence, so a batch can be replayed after a failure.
+ */
+public interface EnrollmentDAO {
+
+    /** Seat capacity per course id, for the courses that have one set. */
+    Map<Integer, Integer> getCapacities() throws SQLException;
+
+    void setCapacity(int courseId, int capacity) throws SQLException;
+
+    /** Enrolled and waitlisted students (not dropped ones), in sequence order. */
+    List<Enrollment> getEnrollments() throws SQLException;
+
+    /** Highest sequence stored, dropped enrollments included; 0 when there is none. */
+    long getLastSequence() throws SQLException;
+
+    /** Stores the batch atomically: either all of it becomes visible or none. */
+    void saveEnrollments(List<Enrollment> enrollments) throws SQLException;
+}
@@ -0,0 +1,116 @@
+package com.registration.db;
+
+import com.registration.model.Enrollment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** EnrollmentDAO on the MySQL tables course_capacity and enrollments (see courses.sql). */
+public class EnrollmentDAOImpl implements EnrollmentDAO {
+
+    // Each column is only taken from the new row if its sequence is higher; status is assigned
+    // before seq, so it still compares against the stored sequence
+    private static final String UPSERT_SQL = "INSERT INTO enrollments (course_id, student_id, status, seq) VALUES (?, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE status = IF(VALUES(seq) > seq, VALUES(status), status), seq = GREATEST(seq, VALUES(seq))";
+    private static final String CAPACITY_SQL = "INSERT INTO course_capacity (course_id, capacity) VALUES (?, ?) "
+        + "ON DUPLICATE KEY UPDATE capacity = VALUES(capacity)";
+
+    private final ConnectionPool pool;
+
+    // Uses the shared pool configured in DatabaseConfig
+    public EnrollmentDAOImpl() {
+        this(ConnectionPool.getDefault());
+    }
+
+    public EnrollmentDAOImpl(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Map<Integer, Integer> getCapacities() throws SQLException {
+        Map<Integer, Integer> capacities = new HashMap<>();
+        try (PooledConnection conn = pool.acquire();
+             ResultSet rs = conn.prepareStatement("SELECT course_id, capacity FROM course_capacity").executeQuery()) {
+            while (rs.next()) {
+                capacities.put(rs.getInt(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Read Capacities): " + e.getMessage());
+            throw e;
+        }
+        return capacities;
+    }
+
+    @Override
+    public void setCapacity(int courseId, int capacity) throws SQLException {
+        try (PooledConnection conn = pool.acquire()) {
+            PreparedStatement stmt = conn.prepareStatement(CAPACITY_SQL);
+            stmt.setInt(1, courseId);
+            stmt.setInt(2, capacity);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Database Error (Set Capacity): " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Enrollment> getEnrollments() throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        try (PooledConnection conn = pool.acquire();
+             ResultSet rs = conn.prepareStatement("SELECT course_id, student_id, status, seq FROM enrollments "
+                 + "WHERE status <> 'DROPPED' ORDER BY seq").executeQuery()) {
+            while (rs.next()) {
+                enrollments.add(new Enrollment(rs.getInt(1), rs.getString(2), Enrollment.Status.valueOf(rs.getString(3)), rs.getLong(4)));
+            }
+        } catch (SQLException e) {
+            System.err.println("Database Error (Read Enrollments): " + e.getMessage());
+            throw e;
+        }
+        return enrollments;
+    }
+
+    @Override
+    public long getLastSequence() throws SQLException {
+        try (PooledConnection conn = pool.acquire();
+             ResultSet rs = conn.prepareStatement("SELECT COALESCE(MAX(seq), 0) FROM enrollments").executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            System.err.println("Database Error (Read Enrollments): " + e.getMessage());
+            throw e;
+        }
+    }
+
+    // One transaction, sent in BATCH_SIZE executeBatch rounds
+    @Override
+    public void saveEnrollments(List<Enrollment> enrollments) throws SQLException {
+        try (PooledConnection pooled = pool.acquire()) {
+            Connection conn = pooled.getConnection();
+            conn.setAutoCommit(false);
+            PreparedStatement stmt = pooled.prepareStatement(UPSERT_SQL);
+            for (int i = 0; i < enrollments.size(); i++) {
+                Enrollment enrollment = enrollments.get(i);
+                stmt.setInt(1, enrollment.getCourseId());
+                stmt.setString(2, enrollment.getStudentId());
+                stmt.setString(3, enrollment.getStatus().name());
+                stmt.setLong(4, enrollment.getSequence());
+                stmt.addBatch();
+                if ((i + 1) % DatabaseConfig.BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("Database Error (Save Enrollments): " + e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * CourseDAO kept entirely in process memory.
+ * Behaves like the courses table (auto-increment ids, unique course_code) and is used as the
+ * embedded database for benchmarks and tools that must run without a MySQL server.
+ * Every write gets the next row version, and the latest SYNC_TOMBSTONE_LIMIT deletes are remembered
+ * for getChangesSince.
+ */
+public class InMemoryCourseDAO implements CourseDAO {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Course> courses = new TreeMap<>();
+    private final Map<String, Integer> idByCode = new HashMap<>();
+    private int nextId = 1;
+
+    // Change feed: version -> id of live courses, version -> id of remembered deletes
+    private final TreeMap<Long, Integer> idByVersion = new TreeMap<>();
+    private final TreeMap<Long, Integer> tombstones = new TreeMap<>();
+    private long changeSeq;
+    // Deletes at or below this version were forgotten
+    private long tombstoneFloor;
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            insert(course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> batch) throws SQLException {
+        List<RowFailure> failures = new ArrayList<>();
+        int inserted = 0;
+        long index = 0;
+        lock.writeLock().lock();
+        try {
+            for (Course course : batch) {
+                try {
+                    insert(course);
+                    inserted++;
+                } catch (SQLException e) {
+                    failures.add(new RowFailure(index, course, e.getMessage()));
+                }
+                index++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new BatchResult(inserted, failures);
+    }
+
+    private void insert(Course course) throws SQLException {
+        String key = codeKey(course.getCourseCode());
+        if (idByCode.containsKey(key)) {
+            throw duplicateCode(course.getCourseCode());
+        }
+        course.setCourseId(nextId++);
+        course.setVersion(++changeSeq);
+        courses.put(course.getCourseId(), new Course(course));
+        idByCode.put(key, course.getCourseId());
+        idByVersion.put(course.getVersion(), course.getCourseId());
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        lock.readLock().lock();
+        try {
+            List<Course> result = new ArrayList<>(courses.size());
+            for (Course course : courses.values()) {
+                result.add(new Course(course));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Course> page = new ArrayList<>(Math.min(limit, 1_024));
+            for (Course course : courses.tailMap(lastId, false).values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(new Course(course));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Streams a snapshot taken page by page, so concurrent writers are never blocked for the whole scan
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) {
+        Set<CourseColumn> projection = CourseRowMapper.projection(columns);
+        int pageSize = Math.max(1, fetchSize);
+        return Stream.iterate(getCoursesAfter(0, pageSize),
+                page -> !page.isEmpty(),
+                page -> page.size() < pageSize ? List.of() : getCoursesAfter(page.get(page.size() - 1).getCourseId(), pageSize))
+            .flatMap(List::stream)
+            .map(course -> CourseRowMapper.project(course, projection));
+    }
+
+    @Override
+    public Course getCourseById(int id) {
+        lock.readLock().lock();
+        try {
+            Course course = courses.get(id);
+            return course == null ? null : new Course(course);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) {
+        lock.readLock().lock();
+        try {
+            Integer id = courseCode == null ? null : idByCode.get(codeKey(courseCode));
+            return id == null ? null : new Course(courses.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            Course current = courses.get(course.getCourseId());
+            if (current == null || (course.getVersion() != 0 && course.getVersion() != current.getVersion())) {
+                return false; // deleted, or changed since the caller read it
+            }
+            String key = codeKey(course.getCourseCode());
+            Integer owner = idByCode.get(key);
+            if (owner != null && owner != course.getCourseId()) {
+                throw duplicateCode(course.getCourseCode());
+            }
+            idByCode.remove(codeKey(current.getCourseCode()));
+            idByCode.put(key, course.getCourseId());
+            idByVersion.remove(current.getVersion());
+            course.setVersion(++changeSeq);
+            idByVersion.put(course.getVersion(), course.getCourseId());
+            courses.put(course.getCourseId(), new Course(course));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            Course current = courses.get(id);
+            if (current == null || (expectedVersion != 0 && expectedVersion != current.getVersion())) {
+                return false;
+            }
+            courses.remove(id);
+            idByCode.remove(codeKey(current.getCourseCode()));
+            idByVersion.remove(current.getVersion());
+            tombstones.put(++changeSeq, id);
+            if (tombstones.size() > DatabaseConfig.SYNC_TOMBSTONE_LIMIT) {
+                tombstoneFloor = tombstones.pollFirstEntry().getKey();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getLatestChangeToken() {
+        lock.readLock().lock();
+        try {
+            return changeSeq;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) {
+        lock.readLock().lock();
+        try {
+            if (token < tombstoneFloor) {
+                return ChangeSet.resync(changeSeq);
+            }
+            List<Course> upserted = new ArrayList<>();
+            for (int id : idByVersion.tailMap(token, false).values()) {
+                upserted.add(new Course(courses.get(id)));
+            }
+            return new ChangeSet(changeSeq, upserted, new ArrayList<>(tombstones.tailMap(token, false).values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Replica apply: rows arrive with the ids and versions given by the primary ---
+
+    /**
+     * Applies a change set read from another store's change feed, keeping its ids and versions, so this
+     * store can serve as a read replica of it. Afterwards getLatestChangeToken() is the change set's token.
+     * Deletes arrive without their versions, so readers of this store's own feed from before them resync.
+     */
+    public void applyChanges(ChangeSet changes) {
+        if (changes.isResyncRequired()) {
+            throw new IllegalArgumentException("A resync change set carries no rows; copy the source with replaceAll");
+        }
+        lock.writeLock().lock();
+        try {
+            for (int id : changes.getDeletedIds()) {
+                Course current = courses.remove(id);
+                if (current != null) {
+                    idByCode.remove(codeKey(current.getCourseCode()), id);
+                    idByVersion.remove(current.getVersion());
+                    tombstoneFloor = Math.max(tombstoneFloor, changes.getToken());
+                }
+            }
+            for (Course course : changes.getUpserted()) {
+                install(course);
+            }
+            changeSeq = Math.max(changeSeq, changes.getToken());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces every course with a copy of the source, read at (or after) the source's change token. */
+    public void replaceAll(List<Course> snapshot, long token) {
+        lock.writeLock().lock();
+        try {
+            courses.clear();
+            idByCode.clear();
+            idByVersion.clear();
+            tombstones.clear();
+            for (Course course : snapshot) {
+                install(course);
+            }
+            changeSeq = token;
+            tombstoneFloor = token;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void install(Course course) {
+        Course previous = courses.put(course.getCourseId(), new Course(course));
+        if (previous != null) {
+            // A code may already belong to a course whose rename arrives later in the same change set
+            idByCode.remove(codeKey(previous.getCourseCode()), previous.getCourseId());
+            idByVersion.remove(previous.getVersion());
+        }
+        idByCode.put(codeKey(course.getCourseCode()), course.getCourseId());
+        idByVersion.put(course.getVersion(), course.getCourseId());
+        nextId = Math.max(nextId, course.getCourseId() + 1);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return courses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static SQLException duplicateCode(String courseCode) {
+        return new SQLIntegrityConstraintViolationException("Duplicate entry '" + courseCode + "' for key 'course_code'", "23000", 1062);
+    }
+
+    // Same case-insensitive uniqueness as the course_code column
+    private static String codeKey(String courseCode) {
+        return courseCode == null ? "" : courseCode.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,61 @@
+package com.registration.db;
+
+import com.registration.model.Enrollment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** EnrollmentDAO kept in memory, for the embedded backends, tests and benchmarks. Nothing is persisted. */
+public class InMemoryEnrollmentDAO implements EnrollmentDAO {
+
+    private final Map<Integer, Integer> capacities = new HashMap<>();
+    // Keyed by "courseId/studentId"
+    private final Map<String, Enrollment> enrollments = new HashMap<>();
+    private long lastSequence;
+    private long savedBatches;
+
+    @Override
+    public synchronized Map<Integer, Integer> getCapacities() {
+        return new HashMap<>(capacities);
+    }
+
+    @Override
+    public synchronized void setCapacity(int courseId, int capacity) {
+        capacities.put(courseId, capacity);
+    }
+
+    @Override
+    public synchronized List<Enrollment> getEnrollments() {
+        List<Enrollment> current = new ArrayList<>();
+        for (Enrollment enrollment : enrollments.values()) {
+            if (enrollment.getStatus() != Enrollment.Status.DROPPED) {
+                current.add(enrollment);
+            }
+        }
+        current.sort(Comparator.comparingLong(Enrollment::getSequence));
+        return current;
+    }
+
+    @Override
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void saveEnrollments(List<Enrollment> batch) {
+        for (Enrollment enrollment : batch) {
+            enrollments.merge(enrollment.getCourseId() + "/" + enrollment.getStudentId(), enrollment,
+                (stored, saved) -> saved.getSequence() > stored.getSequence() ? saved : stored);
+            lastSequence = Math.max(lastSequence, enrollment.getSequence());
+        }
+        savedBatches++;
+    }
+
+    /** Number of saveEnrollments calls so far. */
+    public synchronized long getSavedBatches() {
+        return savedBatches;
+    }
+}
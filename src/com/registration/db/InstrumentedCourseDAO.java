@@ -0,0 +1,227 @@
+package com.registration.db;
+
+import com.registration.metrics.Metrics;
+import com.registration.metrics.OperationMetrics;
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * CourseDAO decorator recording call counts, errors and latency of every method in {@link Metrics}.
+ * Time spent waiting for pooled connections during a call is reported separately from query time.
+ * Only installed when {@link Metrics#ENABLED}, so disabled metrics add nothing to the call path.
+ */
+public class InstrumentedCourseDAO implements CourseDAO {
+
+    private final CourseDAO delegate;
+    private final OperationMetrics addCourseOp;
+    private final OperationMetrics addCoursesOp;
+    private final OperationMetrics getAllCoursesOp;
+    private final OperationMetrics getCoursesAfterOp;
+    private final OperationMetrics streamCoursesOp;
+    private final OperationMetrics getCourseByIdOp;
+    private final OperationMetrics getCourseByCodeOp;
+    private final OperationMetrics updateCourseOp;
+    private final OperationMetrics deleteCourseOp;
+    private final OperationMetrics applyWritesOp;
+    private final OperationMetrics getLatestChangeTokenOp;
+    private final OperationMetrics getChangesSinceOp;
+
+    public InstrumentedCourseDAO(CourseDAO delegate) {
+        this(delegate, "dao");
+    }
+
+    // Operations are named <prefix>.<method>, e.g. dao.getCourseById
+    public InstrumentedCourseDAO(CourseDAO delegate, String prefix) {
+        this.delegate = delegate;
+        this.addCourseOp = Metrics.operation(prefix + ".addCourse");
+        this.addCoursesOp = Metrics.operation(prefix + ".addCourses");
+        this.getAllCoursesOp = Metrics.operation(prefix + ".getAllCourses");
+        this.getCoursesAfterOp = Metrics.operation(prefix + ".getCoursesAfter");
+        this.streamCoursesOp = Metrics.operation(prefix + ".streamCourses");
+        this.getCourseByIdOp = Metrics.operation(prefix + ".getCourseById");
+        this.getCourseByCodeOp = Metrics.operation(prefix + ".getCourseByCode");
+        this.updateCourseOp = Metrics.operation(prefix + ".updateCourse");
+        this.deleteCourseOp = Metrics.operation(prefix + ".deleteCourse");
+        this.applyWritesOp = Metrics.operation(prefix + ".applyWrites");
+        this.getLatestChangeTokenOp = Metrics.operation(prefix + ".getLatestChangeToken");
+        this.getChangesSinceOp = Metrics.operation(prefix + ".getChangesSince");
+    }
+
+    public CourseDAO getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            delegate.addCourse(course);
+            failed = false;
+        } finally {
+            finish(addCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            BatchResult result = delegate.addCourses(courses);
+            failed = false;
+            return result;
+        } finally {
+            finish(addCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<Course> result = delegate.getAllCourses();
+            failed = false;
+            return result;
+        } finally {
+            finish(getAllCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<Course> result = delegate.getCoursesAfter(lastId, limit);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCoursesAfterOp, start, acquired, failed);
+        }
+    }
+
+    // Measures opening the stream (the query); rows are read later by the caller
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Stream<Course> result = delegate.streamCourses(fetchSize, columns);
+            failed = false;
+            return result;
+        } finally {
+            finish(streamCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Course result = delegate.getCourseById(id);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCourseByIdOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Course result = delegate.getCourseByCode(courseCode);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCourseByCodeOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            boolean result = delegate.updateCourse(course);
+            failed = false;
+            return result;
+        } finally {
+            finish(updateCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            boolean result = delegate.deleteCourse(id, expectedVersion);
+            failed = false;
+            return result;
+        } finally {
+            finish(deleteCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public void applyWrites(List<CourseWrite> writes) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            delegate.applyWrites(writes);
+            failed = false;
+        } finally {
+            finish(applyWritesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            long result = delegate.getLatestChangeToken();
+            failed = false;
+            return result;
+        } finally {
+            finish(getLatestChangeTokenOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            ChangeSet result = delegate.getChangesSince(token);
+            failed = false;
+            return result;
+        } finally {
+            finish(getChangesSinceOp, start, acquired, failed);
+        }
+    }
+
+    private static void finish(OperationMetrics metrics, long start, long acquiredBefore, boolean failed) {
+        metrics.record(System.nanoTime() - start, Metrics.threadAcquireNanos() - acquiredBefore, failed);
+    }
+}
@@ -0,0 +1,797 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded CourseDAO storing courses in a local, memory-mapped, append-only record file.
+ *
+ * Every write appends a checksummed record (PUT or DELETE); the record length is written last, so
+ * a record only becomes visible once complete. On open the file is replayed into an in-memory
+ * id/code index and anything after the last valid record (a torn write) is discarded.
+ * Superseded records are reclaimed by background compaction, which copies the live records into a
+ * new generation file and switches over only after that file is fully written and flushed.
+ *
+ * Every record carries the row version it was written with. DELETE records of the latest
+ * SYNC_TOMBSTONE_LIMIT deletes survive compaction as tombstones, so getChangesSince can report them.
+ * Stores written in format 1 (before row versions) are upgraded to a new generation when opened.
+ *
+ * Process crashes lose nothing: data lives in the OS page cache as soon as a record is written.
+ * Set {@code syncWrites} to also flush every record to disk (protects against power loss).
+ */
+public class MappedFileCourseDAO implements CourseDAO, AutoCloseable {
+
+    // --- File layout ---
+    private static final int MAGIC = 0x43525331; // "CRS1"
+    // Version 2 added row versions to records and the change sequence / tombstone floor to the header
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_NEXT_ID = 8;
+    private static final int HEADER_STATE = 12;
+    private static final int HEADER_CHANGE_SEQ = 16;
+    private static final int HEADER_TOMBSTONE_FLOOR = 24;
+    // A generation file is only used once its state says it was completely written
+    private static final int STATE_COMPLETE = 1;
+
+    // Record: int payload length, int CRC32 of payload, payload
+    // Payload: byte type, int id, long version, and for PUT: int credits, code, name, instructor, schedule
+    // (records written before schedules existed end after the instructor)
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int NULL_STRING = 0xFFFF;
+
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final Pattern DATA_FILE = Pattern.compile("courses-(\\d+)\\.dat");
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService compactor;
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    private int nextId;
+
+    // In-memory index: id -> offset of the course's latest PUT record, in id order
+    private final TreeMap<Integer, Integer> offsetById = new TreeMap<>();
+    private final Map<String, Integer> idByCode = new HashMap<>();
+    private long liveBytes;
+    private long deadBytes;
+
+    // Change feed: version -> id of live courses, version -> offset of retained DELETE records
+    private final TreeMap<Long, Integer> idByVersion = new TreeMap<>();
+    private final TreeMap<Long, Integer> tombstones = new TreeMap<>();
+    private long changeSeq;
+    // Deletes at or below this version were forgotten
+    private long tombstoneFloor;
+
+    public MappedFileCourseDAO(Path directory) throws IOException {
+        this(directory, DatabaseConfig.STORE_SYNC_WRITES);
+    }
+
+    public MappedFileCourseDAO(Path directory, boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        Files.createDirectories(directory);
+        open();
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "course-store-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = DatabaseConfig.STORE_COMPACT_INTERVAL_MS;
+        compactor.scheduleWithFixedDelay(this::compactIfWorthwhile, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Opening and recovery ---
+
+    private void open() throws IOException {
+        long latest = 0;
+        List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "courses-*.dat")) {
+            for (Path file : files) {
+                Matcher m = DATA_FILE.matcher(file.getFileName().toString());
+                if (!m.matches()) {
+                    continue;
+                }
+                long gen = Long.parseLong(m.group(1));
+                if (gen > latest && isComplete(file)) {
+                    if (latest > 0) {
+                        stale.add(dataFile(latest));
+                    }
+                    latest = gen;
+                } else {
+                    stale.add(file);
+                }
+            }
+        }
+        // Leftovers: older generations and compactions interrupted before completion
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+
+        if (latest == 0) {
+            generation = 1;
+            mapFile(dataFile(generation), INITIAL_CAPACITY);
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+            buffer.putInt(HEADER_NEXT_ID, 1);
+            buffer.putInt(HEADER_STATE, STATE_COMPLETE);
+            buffer.force();
+        } else {
+            generation = latest;
+            mapFile(dataFile(generation), Math.max(INITIAL_CAPACITY, Files.size(dataFile(generation))));
+            int format = buffer.getInt(HEADER_VERSION);
+            if (format == 1) {
+                upgradeFormat1();
+            } else if (format != FORMAT_VERSION) {
+                channel.close();
+                throw new IOException("Unsupported course store format " + format + " in " + dataFile(generation));
+            }
+        }
+        replay();
+    }
+
+    /**
+     * Rewrites a format 1 file (no row versions, schedules or change sequence) into the next generation in
+     * the current format, the way compaction does: the old file is only deleted once the new one is complete.
+     * Courses get versions 1..n in id order; deletes made before the upgrade are not carried over.
+     */
+    private void upgradeFormat1() throws IOException {
+        TreeMap<Integer, Course> courses = readFormat1();
+        int storedNextId = buffer.getInt(HEADER_NEXT_ID);
+        FileChannel oldChannel = channel;
+        Path oldFile = dataFile(generation);
+        generation++;
+        mapFile(dataFile(generation), Math.max(INITIAL_CAPACITY, oldChannel.size()));
+        buffer.putInt(HEADER_MAGIC, MAGIC);
+        buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+        writePosition = HEADER_SIZE;
+        long version = 0;
+        try {
+            for (Course course : courses.values()) {
+                append(PUT, course, ++version);
+            }
+        } catch (SQLException e) {
+            channel.close();
+            oldChannel.close();
+            throw new IOException("Could not upgrade " + oldFile + ": " + e.getMessage(), e);
+        }
+        buffer.putInt(HEADER_NEXT_ID, courses.isEmpty() ? storedNextId : Math.max(storedNextId, courses.lastKey() + 1));
+        buffer.putLong(HEADER_CHANGE_SEQ, version);
+        buffer.force();
+        buffer.putInt(HEADER_STATE, STATE_COMPLETE);
+        buffer.force();
+
+        oldChannel.close();
+        try {
+            Files.deleteIfExists(oldFile);
+        } catch (IOException e) {
+            // Still mapped on some platforms; removed on next open
+        }
+        System.err.println("Course store: upgraded " + oldFile + " (format 1) to " + dataFile(generation));
+    }
+
+    /** Live courses of a format 1 file, whose payload is byte type, int id, and for PUT: int credits, code, name, instructor. */
+    private TreeMap<Integer, Course> readFormat1() {
+        TreeMap<Integer, Course> courses = new TreeMap<>();
+        int pos = HEADER_SIZE;
+        while (pos + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || (long) pos + RECORD_HEADER_SIZE + length > buffer.capacity()
+                    || buffer.getInt(pos + 4) != checksum(pos + RECORD_HEADER_SIZE, length)) {
+                break; // end of the log, or a torn last record
+            }
+            int p = pos + RECORD_HEADER_SIZE;
+            int id = buffer.getInt(p + 1);
+            if (buffer.get(p) == PUT) {
+                int credits = buffer.getInt(p + 5);
+                p += 9;
+                String code = readString(p);
+                p += stringSize(buffer, p);
+                String name = readString(p);
+                p += stringSize(buffer, p);
+                courses.put(id, new Course(id, code, name, credits, readString(p)));
+            } else {
+                courses.remove(id);
+            }
+            pos += RECORD_HEADER_SIZE + length;
+        }
+        return courses;
+    }
+
+    private boolean isComplete(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_SIZE) {
+                return false;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            ch.read(header, 0);
+            // The format is checked after selection: a file in another format is never deleted
+            return header.getInt(HEADER_MAGIC) == MAGIC
+                && header.getInt(HEADER_STATE) == STATE_COMPLETE;
+        }
+    }
+
+    private void mapFile(Path file, long capacity) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /** Rebuilds the index from the records and cuts off a torn tail, if any. */
+    private void replay() {
+        offsetById.clear();
+        idByCode.clear();
+        idByVersion.clear();
+        tombstones.clear();
+        liveBytes = 0;
+        deadBytes = 0;
+        changeSeq = buffer.getLong(HEADER_CHANGE_SEQ);
+        tombstoneFloor = buffer.getLong(HEADER_TOMBSTONE_FLOOR);
+        int maxId = 0;
+        int pos = HEADER_SIZE;
+
+        while (pos + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || (long) pos + RECORD_HEADER_SIZE + length > buffer.capacity()
+                    || buffer.getInt(pos + 4) != checksum(pos + RECORD_HEADER_SIZE, length)) {
+                System.err.println("Course store: discarding incomplete record at offset " + pos + " in " + dataFile(generation));
+                int end = length < 0 ? pos + RECORD_HEADER_SIZE : Math.min(buffer.capacity(), pos + RECORD_HEADER_SIZE + length);
+                for (int i = pos; i < end; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+
+            int recordSize = RECORD_HEADER_SIZE + length;
+            int payload = pos + RECORD_HEADER_SIZE;
+            int id = buffer.getInt(payload + 1);
+            long version = buffer.getLong(payload + 5);
+            maxId = Math.max(maxId, id);
+            changeSeq = Math.max(changeSeq, version);
+            Integer previous = offsetById.get(id);
+            if (previous != null) {
+                // A later record may have moved the code to another course: only drop the key if it is still ours
+                idByCode.remove(codeKey(readCourse(previous).getCourseCode()), id);
+                idByVersion.remove(versionAt(previous));
+                retire(previous);
+            }
+            liveBytes += recordSize;
+            if (buffer.get(payload) == PUT) {
+                offsetById.put(id, pos);
+                idByVersion.put(version, id);
+                idByCode.put(codeKey(readCourse(pos).getCourseCode()), id);
+            } else {
+                offsetById.remove(id);
+                addTombstone(version, pos);
+            }
+            pos += recordSize;
+        }
+
+        writePosition = pos;
+        nextId = Math.max(buffer.getInt(HEADER_NEXT_ID), maxId + 1);
+    }
+
+    // --- Reads ---
+
+    @Override
+    public Course getCourseById(int id) {
+        lock.readLock().lock();
+        try {
+            Integer offset = offsetById.get(id);
+            return offset == null ? null : readCourse(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) {
+        lock.readLock().lock();
+        try {
+            Integer id = courseCode == null ? null : idByCode.get(codeKey(courseCode));
+            Integer offset = id == null ? null : offsetById.get(id);
+            return offset == null ? null : readCourse(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        lock.readLock().lock();
+        try {
+            List<Course> courses = new ArrayList<>(offsetById.size());
+            for (int offset : offsetById.values()) {
+                courses.add(readCourse(offset));
+            }
+            return courses;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Course> page = new ArrayList<>(Math.min(limit, 1_024));
+            for (int offset : offsetById.tailMap(lastId, false).values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(readCourse(offset));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reads page by page so writers are never blocked for the whole scan
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) {
+        Set<CourseColumn> projection = CourseRowMapper.projection(columns);
+        int pageSize = Math.max(1, fetchSize);
+        return Stream.iterate(getCoursesAfter(0, pageSize),
+                page -> !page.isEmpty(),
+                page -> page.size() < pageSize ? List.of() : getCoursesAfter(page.get(page.size() - 1).getCourseId(), pageSize))
+            .flatMap(List::stream)
+            .map(course -> CourseRowMapper.project(course, projection));
+    }
+
+    // --- Writes ---
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            insert(course);
+            syncHeader();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        List<RowFailure> failures = new ArrayList<>();
+        int inserted = 0;
+        long index = 0;
+        lock.writeLock().lock();
+        try {
+            for (Course course : courses) {
+                try {
+                    insert(course);
+                    inserted++;
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    failures.add(new RowFailure(index, course, e.getMessage()));
+                }
+                index++;
+            }
+            syncHeader();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new BatchResult(inserted, failures);
+    }
+
+    private void insert(Course course) throws SQLException {
+        String key = codeKey(course.getCourseCode());
+        if (idByCode.containsKey(key)) {
+            throw duplicateCode(course.getCourseCode());
+        }
+        int id = nextId;
+        course.setCourseId(id);
+        int offset = append(PUT, course, changeSeq + 1);
+        course.setVersion(advanceChangeSeq());
+        nextId = id + 1;
+        buffer.putInt(HEADER_NEXT_ID, nextId);
+        offsetById.put(id, offset);
+        idByCode.put(key, id);
+        idByVersion.put(course.getVersion(), id);
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            Integer previous = offsetById.get(course.getCourseId());
+            if (previous == null || (course.getVersion() != 0 && course.getVersion() != versionAt(previous))) {
+                return false; // deleted, or changed since the caller read it
+            }
+            String key = codeKey(course.getCourseCode());
+            Integer owner = idByCode.get(key);
+            if (owner != null && owner != course.getCourseId()) {
+                throw duplicateCode(course.getCourseCode());
+            }
+            String previousKey = codeKey(readCourse(previous).getCourseCode());
+            int offset = append(PUT, course, changeSeq + 1);
+            course.setVersion(advanceChangeSeq());
+            idByVersion.remove(versionAt(previous));
+            retire(previous);
+            idByCode.remove(previousKey);
+            idByCode.put(key, course.getCourseId());
+            offsetById.put(course.getCourseId(), offset);
+            idByVersion.put(course.getVersion(), course.getCourseId());
+            syncHeader();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            Integer previous = offsetById.get(id);
+            if (previous == null || (expectedVersion != 0 && expectedVersion != versionAt(previous))) {
+                return false;
+            }
+            String previousKey = codeKey(readCourse(previous).getCourseCode());
+            int offset = append(DELETE, new Course(id, null, null, 0, null), changeSeq + 1);
+            long version = advanceChangeSeq();
+            idByVersion.remove(versionAt(previous));
+            retire(previous);
+            offsetById.remove(id);
+            idByCode.remove(previousKey);
+            addTombstone(version, offset);
+            syncHeader();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Remembers a DELETE record for the change feed, forgetting the oldest one beyond the limit. */
+    private void addTombstone(long version, int offset) {
+        tombstones.put(version, offset);
+        if (tombstones.size() > DatabaseConfig.SYNC_TOMBSTONE_LIMIT) {
+            Map.Entry<Long, Integer> oldest = tombstones.pollFirstEntry();
+            retire(oldest.getValue());
+            tombstoneFloor = oldest.getKey();
+            buffer.putLong(HEADER_TOMBSTONE_FLOOR, tombstoneFloor);
+        }
+    }
+
+    private long advanceChangeSeq() {
+        changeSeq++;
+        buffer.putLong(HEADER_CHANGE_SEQ, changeSeq);
+        return changeSeq;
+    }
+
+    // Records are forced as they are appended; the header (next id, change sequence, tombstone floor) once per write
+    private void syncHeader() {
+        if (syncWrites) {
+            buffer.force(0, HEADER_SIZE);
+        }
+    }
+
+    // --- Change feed ---
+
+    @Override
+    public long getLatestChangeToken() {
+        lock.readLock().lock();
+        try {
+            return changeSeq;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) {
+        lock.readLock().lock();
+        try {
+            if (token < tombstoneFloor) {
+                return ChangeSet.resync(changeSeq);
+            }
+            List<Course> upserted = new ArrayList<>();
+            for (int id : idByVersion.tailMap(token, false).values()) {
+                upserted.add(readCourse(offsetById.get(id)));
+            }
+            List<Integer> deleted = new ArrayList<>();
+            for (int offset : tombstones.tailMap(token, false).values()) {
+                deleted.add(buffer.getInt(offset + RECORD_HEADER_SIZE + 1));
+            }
+            return new ChangeSet(changeSeq, upserted, deleted);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Marks a superseded record as reclaimable by compaction. */
+    private void retire(int offset) {
+        int size = recordSize(offset);
+        liveBytes -= size;
+        deadBytes += size;
+    }
+
+    // --- Record encoding ---
+
+    /** Appends one record and returns its offset. Caller holds the write lock. */
+    private int append(byte type, Course course, long version) throws SQLException {
+        byte[] code = encode(course.getCourseCode());
+        byte[] name = encode(course.getCourseName());
+        byte[] instructor = encode(course.getInstructor());
+        byte[] schedule = encode(MeetingSlot.formatSchedule(course.getSchedule()));
+        int length = 1 + 4 + 8;
+        if (type == PUT) {
+            length += 4 + stringSize(code) + stringSize(name) + stringSize(instructor) + stringSize(schedule);
+        }
+        ensureCapacity(RECORD_HEADER_SIZE + length);
+
+        int pos = writePosition;
+        int payload = pos + RECORD_HEADER_SIZE;
+        int p = payload;
+        buffer.put(p, type);
+        buffer.putInt(p + 1, course.getCourseId());
+        buffer.putLong(p + 5, version);
+        p += 13;
+        if (type == PUT) {
+            buffer.putInt(p, course.getCredits());
+            p += 4;
+            p = writeString(p, code);
+            p = writeString(p, name);
+            p = writeString(p, instructor);
+            p = writeString(p, schedule);
+        }
+        buffer.putInt(pos + 4, checksum(payload, length));
+        // Length last: a reader (or recovery) only sees the record once it is complete
+        buffer.putInt(pos, length);
+        if (syncWrites) {
+            buffer.force(pos, RECORD_HEADER_SIZE + length);
+        }
+        writePosition = pos + RECORD_HEADER_SIZE + length;
+        liveBytes += RECORD_HEADER_SIZE + length;
+        return pos;
+    }
+
+    private Course readCourse(int offset) {
+        int end = offset + recordSize(offset);
+        int p = offset + RECORD_HEADER_SIZE + 1;
+        int id = buffer.getInt(p);
+        long version = buffer.getLong(p + 4);
+        int credits = buffer.getInt(p + 12);
+        p += 16;
+        String code = readString(p);
+        p += stringSize(buffer, p);
+        String name = readString(p);
+        p += stringSize(buffer, p);
+        String instructor = readString(p);
+        p += stringSize(buffer, p);
+        Course course = new Course(id, code, name, credits, instructor, version);
+        if (p < end) {
+            course.setSchedule(MeetingSlot.parseSchedule(readString(p)));
+        }
+        return course;
+    }
+
+    private long versionAt(int offset) {
+        return buffer.getLong(offset + RECORD_HEADER_SIZE + 5);
+    }
+
+    private int recordSize(int offset) {
+        return RECORD_HEADER_SIZE + buffer.getInt(offset);
+    }
+
+    private static byte[] encode(String value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new SQLNonTransientException("Value too long for the course store (" + bytes.length + " bytes)");
+        }
+        return bytes;
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static int stringSize(MappedByteBuffer buffer, int pos) {
+        int length = buffer.getShort(pos) & 0xFFFF;
+        return 2 + (length == NULL_STRING ? 0 : length);
+    }
+
+    private int writeString(int pos, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort(pos, (short) NULL_STRING);
+            return pos + 2;
+        }
+        buffer.putShort(pos, (short) bytes.length);
+        buffer.put(pos + 2, bytes);
+        return pos + 2 + bytes.length;
+    }
+
+    private String readString(int pos) {
+        int length = buffer.getShort(pos) & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(pos + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int checksum(int pos, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(pos, length));
+        return (int) crc.getValue();
+    }
+
+    /** Grows the mapping (doubling) when the next record would not fit. */
+    private void ensureCapacity(int recordSize) throws SQLException {
+        long required = (long) writePosition + recordSize + RECORD_HEADER_SIZE;
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new SQLNonTransientException("Course store is full (2 GB)");
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new SQLNonTransientException("Could not grow course store: " + e.getMessage(), e);
+        }
+    }
+
+    // --- Compaction ---
+
+    private void compactIfWorthwhile() {
+        try {
+            boolean worthwhile;
+            lock.readLock().lock();
+            try {
+                worthwhile = deadBytes >= DatabaseConfig.STORE_COMPACT_MIN_DEAD_BYTES && deadBytes > liveBytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (worthwhile) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Course store: compaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the live records into the next generation file and switches to it.
+     * The new file is marked complete only after all records are flushed, so a crash during
+     * compaction leaves the current generation in use.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            long nextGeneration = generation + 1;
+            Path target = dataFile(nextGeneration);
+            long capacity = Math.max(INITIAL_CAPACITY, Long.highestOneBit(HEADER_SIZE + liveBytes + RECORD_HEADER_SIZE) << 1);
+
+            FileChannel newChannel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            newBuffer.putInt(HEADER_MAGIC, MAGIC);
+            newBuffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+            newBuffer.putInt(HEADER_NEXT_ID, nextId);
+            newBuffer.putLong(HEADER_CHANGE_SEQ, changeSeq);
+            newBuffer.putLong(HEADER_TOMBSTONE_FLOOR, tombstoneFloor);
+
+            int pos = HEADER_SIZE;
+            TreeMap<Integer, Integer> newOffsets = new TreeMap<>();
+            for (Map.Entry<Integer, Integer> entry : offsetById.entrySet()) {
+                int size = recordSize(entry.getValue());
+                newBuffer.put(pos, buffer, entry.getValue(), size);
+                newOffsets.put(entry.getKey(), pos);
+                pos += size;
+            }
+            TreeMap<Long, Integer> newTombstones = new TreeMap<>();
+            for (Map.Entry<Long, Integer> entry : tombstones.entrySet()) {
+                int size = recordSize(entry.getValue());
+                newBuffer.put(pos, buffer, entry.getValue(), size);
+                newTombstones.put(entry.getKey(), pos);
+                pos += size;
+            }
+            newBuffer.force();
+            newBuffer.putInt(HEADER_STATE, STATE_COMPLETE);
+            newBuffer.force();
+
+            FileChannel oldChannel = channel;
+            Path oldFile = dataFile(generation);
+            channel = newChannel;
+            buffer = newBuffer;
+            generation = nextGeneration;
+            writePosition = pos;
+            offsetById.clear();
+            offsetById.putAll(newOffsets);
+            tombstones.clear();
+            tombstones.putAll(newTombstones);
+            liveBytes = pos - HEADER_SIZE;
+            deadBytes = 0;
+
+            oldChannel.close();
+            try {
+                Files.deleteIfExists(oldFile);
+            } catch (IOException e) {
+                // Still mapped on some platforms; removed on next open
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Path dataFile(long gen) {
+        return directory.resolve(String.format("courses-%06d.dat", gen));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return offsetById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static SQLException duplicateCode(String courseCode) {
+        return new SQLIntegrityConstraintViolationException("Duplicate entry '" + courseCode + "' for key 'course_code'", "23000", 1062);
+    }
+
+    // Same case-insensitive uniqueness as the course_code column
+    private static String codeKey(String courseCode) {
+        return courseCode == null ? "" : courseCode.toUpperCase(Locale.ROOT);
+    }
+}
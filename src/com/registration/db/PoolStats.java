@@ -0,0 +1,59 @@
+package com.registration.db;
+
+import java.util.concurrent.TimeUnit;
+
+// Point-in-time snapshot of connection pool statistics
+public class PoolStats {
+    private final int total;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int maxSize;
+    private final long acquireCount;
+    private final long timeouts;
+    private final long averageWaitNanos;
+    private final long maxWaitNanos;
+    private final long created;
+    private final long destroyed;
+    private final long validationFailures;
+
+    public PoolStats(int total, int active, int idle, int waiting, int maxSize, long acquireCount, long timeouts,
+                     long averageWaitNanos, long maxWaitNanos, long created, long destroyed, long validationFailures) {
+        this.total = total;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.acquireCount = acquireCount;
+        this.timeouts = timeouts;
+        this.averageWaitNanos = averageWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.validationFailures = validationFailures;
+    }
+
+    // --- Getters ---
+    public int getTotal() { return total; }
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getWaiting() { return waiting; }
+    public int getMaxSize() { return maxSize; }
+    public long getAcquireCount() { return acquireCount; }
+    public long getTimeouts() { return timeouts; }
+    public long getAverageWaitNanos() { return averageWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getValidationFailures() { return validationFailures; }
+
+    @Override
+    public String toString() {
+        return String.format("[total=%d, active=%d, idle=%d, waiting=%d, max=%d, acquired=%d, timeouts=%d, "
+                + "avgWait=%.3fms, maxWait=%.3fms, created=%d, destroyed=%d, validationFailures=%d]",
+            total, active, idle, waiting, maxSize, acquireCount, timeouts,
+            averageWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            maxWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            created, destroyed, validationFailures);
+    }
+}
@@ -0,0 +1,125 @@
+package com.registration.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}.
+ * Statements returned by {@link #prepareStatement(String)} are cached for the lifetime of the
+ * physical connection, so callers must close their ResultSets but never the statements themselves.
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statementCache;
+    private long lastUsedNanos = System.nanoTime();
+    private boolean released;
+
+    PooledConnection(ConnectionPool pool, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        // Access-ordered map gives LRU eviction of the least used statements
+        this.statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Returns a cached statement for this SQL, preparing it on first use. */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return cachedStatement(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /** Same as {@link #prepareStatement(String)} for statements that return generated keys. */
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return cachedStatement(sql, autoGeneratedKeys);
+    }
+
+    private PreparedStatement cachedStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        PreparedStatement stmt = statementCache.get(key);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+            statementCache.put(key, stmt);
+        } else {
+            stmt.clearParameters();
+        }
+        return stmt;
+    }
+
+    /** The physical connection, for transactions or statements that should not be cached. */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    /** Returns this connection to the pool. */
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            lastUsedNanos = System.nanoTime();
+            pool.release(this);
+        }
+    }
+
+    /** Marks the connection as borrowed again; called by the pool on hand-out. */
+    void reopen() {
+        released = false;
+    }
+
+    /**
+     * Puts the connection back into its default state before it is pooled again.
+     * Returns false when the connection is no longer usable.
+     */
+    boolean reset() {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        Iterator<PreparedStatement> it = statementCache.values().iterator();
+        while (it.hasNext()) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Database Error (Close): " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Statement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ignored) {
+            // Statement is being discarded anyway
+        }
+    }
+}
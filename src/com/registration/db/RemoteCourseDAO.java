@@ -0,0 +1,312 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CourseDAO talking to a CourseServer over HTTP/JSON, so a desk needs no database connection of its own.
+ * Responses are requested gzip-compressed; the whole catalog is revalidated with its ETag and
+ * only downloaded again after it changed. Network failures surface as SQLTransientConnectionException.
+ */
+public class RemoteCourseDAO implements CourseDAO {
+
+    // Largest page the server returns per request; longer pages are fetched in several requests
+    private static final int SERVER_PAGE_LIMIT = 5_000;
+
+    /** The last whole catalog received and the ETag it was sent with. */
+    private static final class CachedCatalog {
+        final String etag;
+        final List<Course> courses;
+
+        CachedCatalog(String etag, List<Course> courses) {
+            this.etag = etag;
+            this.courses = courses;
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+        final String etag;
+
+        Response(int status, String body, String etag) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Duration timeout;
+    private volatile CachedCatalog catalog;
+
+    public RemoteCourseDAO(URI baseUri) {
+        this(baseUri, Duration.ofMillis(DatabaseConfig.REMOTE_TIMEOUT_MS));
+    }
+
+    public RemoteCourseDAO(URI baseUri, Duration timeout) {
+        String base = baseUri.toString();
+        this.baseUri = URI.create(base.endsWith("/") ? base : base + "/");
+        this.timeout = timeout;
+        // The JDK server speaks HTTP/1.1; connections are kept alive and shared by all callers
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        Response response = send("Add", request("courses").POST(json(CourseJson.course(course))));
+        expect(response, 201);
+        Course added = CourseJson.toCourse(CourseJson.parse(response.body));
+        course.setCourseId(added.getCourseId());
+        course.setVersion(added.getVersion());
+    }
+
+    // Sent in BATCH_SIZE chunks so one request body stays small
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        List<RowFailure> failures = new ArrayList<>();
+        int inserted = 0;
+        long chunkStart = 0;
+        List<Course> chunk = new ArrayList<>(DatabaseConfig.BATCH_SIZE);
+        for (Course course : courses) {
+            chunk.add(course);
+            if (chunk.size() == DatabaseConfig.BATCH_SIZE) {
+                inserted += addChunk(chunk, chunkStart, failures);
+                chunkStart += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserted += addChunk(chunk, chunkStart, failures);
+        }
+        return new BatchResult(inserted, failures);
+    }
+
+    private int addChunk(List<Course> chunk, long chunkStart, List<RowFailure> failures) throws SQLException {
+        Response response = send("Batch Add", request("courses/batch").POST(json(CourseJson.courses(chunk))));
+        expect(response, 200);
+        BatchResult result = CourseJson.toBatchResult(CourseJson.parse(response.body), chunk, chunkStart);
+        failures.addAll(result.getFailures());
+        return result.getInsertedCount();
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        CachedCatalog cached = catalog;
+        HttpRequest.Builder request = request("courses").GET();
+        if (cached != null) {
+            request.header("If-None-Match", cached.etag);
+        }
+        Response response = send("Read", request);
+        if (response.status == 304 && cached != null) {
+            return copies(cached.courses);
+        }
+        expect(response, 200);
+        List<Course> courses = CourseJson.toCourses(CourseJson.parse(response.body));
+        if (response.etag != null) {
+            catalog = new CachedCatalog(response.etag, courses);
+            return copies(courses);
+        }
+        return courses;
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        List<Course> page = new ArrayList<>(Math.min(limit, 1_024));
+        while (page.size() < limit) {
+            int wanted = Math.min(limit - page.size(), SERVER_PAGE_LIMIT);
+            Response response = send("Read Page", request("courses?after=" + lastId + "&limit=" + wanted).GET());
+            expect(response, 200);
+            List<Course> part = CourseJson.toCourses(CourseJson.parse(response.body));
+            page.addAll(part);
+            if (part.size() < wanted) {
+                break;
+            }
+            lastId = part.get(part.size() - 1).getCourseId();
+        }
+        return page;
+    }
+
+    // Pages through the catalog; nothing is held open between pages
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        Set<CourseColumn> projection = CourseRowMapper.projection(columns);
+        int pageSize = Math.max(1, fetchSize);
+        return Stream.iterate(getCoursesAfter(0, pageSize),
+                page -> !page.isEmpty(),
+                page -> page.size() < pageSize ? List.of() : nextPage(page.get(page.size() - 1).getCourseId(), pageSize))
+            .flatMap(List::stream)
+            .map(course -> CourseRowMapper.project(course, projection));
+    }
+
+    private List<Course> nextPage(int lastId, int pageSize) {
+        try {
+            return getCoursesAfter(lastId, pageSize);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        return readCourse(request("courses/" + id).GET());
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        if (courseCode == null) {
+            return null;
+        }
+        return readCourse(request("courses?code=" + URLEncoder.encode(courseCode, StandardCharsets.UTF_8)).GET());
+    }
+
+    private Course readCourse(HttpRequest.Builder request) throws SQLException {
+        Response response = send("Read", request);
+        if (response.status == 404) {
+            return null;
+        }
+        expect(response, 200);
+        return CourseJson.toCourse(CourseJson.parse(response.body));
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        HttpRequest.Builder request = request("courses/" + course.getCourseId()).PUT(json(CourseJson.course(course)));
+        ifMatch(request, course.getVersion());
+        Response response = send("Update", request);
+        if (response.status == 412 || response.status == 404) {
+            return false;
+        }
+        expect(response, 200);
+        course.setVersion(CourseJson.toCourse(CourseJson.parse(response.body)).getVersion());
+        return true;
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        HttpRequest.Builder request = request("courses/" + id).DELETE();
+        ifMatch(request, expectedVersion);
+        Response response = send("Delete", request);
+        if (response.status == 412 || response.status == 404) {
+            return false;
+        }
+        expect(response, 204);
+        return true;
+    }
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        Response response = send("Sync", request("changes/latest").GET());
+        expect(response, 200);
+        return CourseJson.number(CourseJson.object(CourseJson.parse(response.body)).get("token"));
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        Response response = send("Sync", request("changes?since=" + token).GET());
+        expect(response, 200);
+        return CourseJson.toChangeSet(CourseJson.parse(response.body));
+    }
+
+    // --- HTTP ---
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(timeout)
+            .header("Accept", "application/json")
+            .header("Accept-Encoding", "gzip");
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8);
+    }
+
+    private static void ifMatch(HttpRequest.Builder request, long version) {
+        if (version != 0) {
+            request.header("If-Match", "\"" + version + "\"");
+        }
+    }
+
+    private Response send(String operation, HttpRequest.Builder request) throws SQLException {
+        request.header("Content-Type", "application/json; charset=utf-8");
+        try {
+            HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            String body;
+            try (InputStream raw = response.body();
+                 InputStream in = "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))
+                     ? new GZIPInputStream(raw) : raw) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            return new Response(response.statusCode(), body, response.headers().firstValue("ETag").orElse(null));
+        } catch (HttpTimeoutException e) {
+            System.err.println("Database Error (" + operation + "): " + e.getMessage());
+            throw new SQLTimeoutException("Course server did not answer within " + timeout.toMillis() + " ms", "08S01", e);
+        } catch (IOException e) {
+            System.err.println("Database Error (" + operation + "): " + e);
+            throw new SQLTransientConnectionException("Course server unreachable at " + baseUri + ": " + e, "08S01", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the course server", "08S01", e);
+        }
+    }
+
+    // Turns an error response back into the exception the server-side service raised
+    private static void expect(Response response, int status) throws SQLException {
+        if (response.status == status) {
+            return;
+        }
+        String message = "Course server answered " + response.status;
+        String sqlState = null;
+        int vendorCode = 0;
+        try {
+            Map<String, Object> error = CourseJson.object(CourseJson.parse(response.body));
+            message = String.valueOf(error.get("error"));
+            sqlState = (String) error.get("sqlState");
+            vendorCode = (int) CourseJson.number(error.get("vendorCode"));
+        } catch (RuntimeException e) {
+            // Not one of our error documents (e.g. a proxy page); keep the status message
+        }
+        switch (response.status) {
+            case 400:
+                throw new IllegalArgumentException(message);
+            case 409:
+                throw new SQLIntegrityConstraintViolationException(message, sqlState, vendorCode);
+            case 503:
+                throw new SQLTransientConnectionException(message, sqlState, vendorCode);
+            default:
+                throw new SQLException(message, sqlState, vendorCode);
+        }
+    }
+
+    private static List<Course> copies(List<Course> courses) {
+        List<Course> result = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            result.add(new Course(course));
+        }
+        return result;
+    }
+}
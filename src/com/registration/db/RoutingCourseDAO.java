@@ -0,0 +1,266 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Sends writes and the change feed to a primary CourseDAO and spreads reads over its replicas, round robin.
+ *
+ * A background thread asks every store for its change token every REPLICA_CHECK_INTERVAL_MS. A replica
+ * that fails a read or a check is skipped until a check succeeds again; the read is retried on the next
+ * replica and finally on the primary. Replicas more than REPLICA_MAX_LAG changes behind the primary are
+ * skipped as well.
+ *
+ * Reads see this DAO's own writes: every write remembers the change token it produced, and reads go to
+ * the primary until a replica has reported that token. The "session" is this instance, so one desk, or
+ * all clients of one CourseServer together. Replicas must carry the primary's change tokens (MySQL
+ * replication of row_version and course_change_seq does, and so does {@link ChangeFeedReplicator}).
+ */
+public class RoutingCourseDAO implements CourseDAO, AutoCloseable {
+
+    // Session token after a write whose token could not be read: only the next check learns it
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    /** A read run against whichever store it is routed to. */
+    @FunctionalInterface
+    private interface Read<T> {
+        T from(CourseDAO dao) throws SQLException;
+    }
+
+    /** A replica and what the last check or read found out about it. */
+    private static final class Replica {
+        final CourseDAO dao;
+        final String name;
+        final LongAdder reads = new LongAdder();
+        volatile boolean healthy = true;
+        volatile long token;
+
+        Replica(CourseDAO dao, String name) {
+            this.dao = dao;
+            this.name = name;
+        }
+    }
+
+    private final CourseDAO primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    // Highest change token written through this DAO
+    private final AtomicLong sessionToken = new AtomicLong();
+    private final LongAdder primaryReads = new LongAdder();
+    private final ScheduledExecutorService checker;
+    private volatile long primaryToken;
+
+    public RoutingCourseDAO(CourseDAO primary, List<? extends CourseDAO> replicas) {
+        this(primary, replicas, DatabaseConfig.REPLICA_CHECK_INTERVAL_MS, DatabaseConfig.REPLICA_MAX_LAG);
+    }
+
+    /** Checks every store once before returning; a negative maxLag reads from replicas however far behind. */
+    public RoutingCourseDAO(CourseDAO primary, List<? extends CourseDAO> replicas, long checkIntervalMs, long maxLag) {
+        this.primary = primary;
+        for (CourseDAO replica : replicas) {
+            this.replicas.add(new Replica(replica, "replica-" + (this.replicas.size() + 1)));
+        }
+        this.maxLag = maxLag;
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "course-replica-check");
+            t.setDaemon(true);
+            return t;
+        });
+        checkNow();
+        if (checkIntervalMs > 0) {
+            checker.scheduleWithFixedDelay(this::checkNow, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // --- Writes: primary ---
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        primary.addCourse(course);
+        wrote(course.getVersion());
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        BatchResult result = primary.addCourses(courses);
+        wroteLatest();
+        return result;
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        boolean updated = primary.updateCourse(course);
+        if (updated) {
+            wrote(course.getVersion());
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        boolean deleted = primary.deleteCourse(id, expectedVersion);
+        if (deleted) {
+            wroteLatest();
+        }
+        return deleted;
+    }
+
+    @Override
+    public void applyWrites(List<CourseWrite> writes) throws SQLException {
+        primary.applyWrites(writes);
+        wroteLatest();
+    }
+
+    // --- Reads: a replica that has this session's writes, else the primary ---
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        return read(CourseDAO::getAllCourses);
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        return read(dao -> dao.getCoursesAfter(lastId, limit));
+    }
+
+    // Only opening the stream fails over; an error while it is consumed reaches the caller
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        return read(dao -> dao.streamCourses(fetchSize, columns));
+    }
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        return read(dao -> dao.getCourseById(id));
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        return read(dao -> dao.getCourseByCode(courseCode));
+    }
+
+    // --- Change feed: primary, since its tokens decide whether a replica has caught up ---
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        return primary.getLatestChangeToken();
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        return primary.getChangesSince(token);
+    }
+
+    // --- Health ---
+
+    /** Asks every store for its change token; runs on the checker thread every check interval. */
+    public void checkNow() {
+        try {
+            // Seen before the read, so the token read is at least that of the write that set it
+            boolean unknown = sessionToken.get() == UNKNOWN;
+            long token = primary.getLatestChangeToken();
+            primaryToken = token;
+            if (unknown) {
+                sessionToken.compareAndSet(UNKNOWN, token);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Database Error (Primary Check): " + e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try {
+                replica.token = replica.dao.getLatestChangeToken();
+                if (!replica.healthy) {
+                    System.err.println("Database (" + replica.name + "): back in service");
+                    replica.healthy = true;
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public boolean isReplicaHealthy(int index) {
+        return replicas.get(index).healthy;
+    }
+
+    public long getReplicaReads(int index) {
+        return replicas.get(index).reads.sum();
+    }
+
+    /** Reads that went to the primary: no replicas usable, or none with this session's writes yet. */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /** Stops the health checks; the stores themselves belong to the caller and stay open. */
+    @Override
+    public void close() {
+        checker.shutdownNow();
+    }
+
+    // --- Internals ---
+
+    private <T> T read(Read<T> read) throws SQLException {
+        int count = replicas.size();
+        if (count > 0) {
+            long needed = sessionToken.get();
+            int first = Math.floorMod(next.getAndIncrement(), count);
+            for (int i = 0; i < count; i++) {
+                Replica replica = replicas.get((first + i) % count);
+                if (!usable(replica, needed)) {
+                    continue;
+                }
+                try {
+                    T result = read.from(replica.dao);
+                    replica.reads.increment();
+                    return result;
+                } catch (SQLException | UncheckedSQLException e) {
+                    markDown(replica, e);
+                }
+            }
+        }
+        primaryReads.increment();
+        return read.from(primary);
+    }
+
+    private boolean usable(Replica replica, long needed) {
+        return replica.healthy && replica.token >= needed && (maxLag < 0 || primaryToken - replica.token <= maxLag);
+    }
+
+    private void markDown(Replica replica, Exception e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            System.err.println("Database Error (" + replica.name + "): " + e.getMessage() + "; reading elsewhere until it recovers");
+        }
+    }
+
+    private void wrote(long token) {
+        sessionToken.accumulateAndGet(token, Math::max);
+    }
+
+    // Deletes and batches do not report their version: take the primary's token right after them
+    private void wroteLatest() {
+        try {
+            wrote(primary.getLatestChangeToken());
+        } catch (SQLException e) {
+            // The write itself succeeded; stay on the primary until the next check reads its token
+            System.err.println("Database Error (Primary Check): " + e.getMessage());
+            sessionToken.set(UNKNOWN);
+        }
+    }
+}
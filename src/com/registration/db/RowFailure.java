@@ -0,0 +1,27 @@
+package com.registration.db;
+
+import com.registration.model.Course;
+
+// A single row rejected during a bulk operation
+public class RowFailure {
+    private final long index;
+    private final Course course;
+    private final String message;
+
+    public RowFailure(long index, Course course, String message) {
+        this.index = index;
+        this.course = course;
+        this.message = message;
+    }
+
+    // Position of the row in the input (0-based for collections, 1-based line number for files)
+    public long getIndex() { return index; }
+    // The rejected course, or null when the row could not be parsed
+    public Course getCourse() { return course; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "#" + index + (course != null ? " (" + course.getCourseCode() + ")" : "") + ": " + message;
+    }
+}
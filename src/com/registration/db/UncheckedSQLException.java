@@ -0,0 +1,15 @@
+package com.registration.db;
+
+import java.sql.SQLException;
+
+// Wraps a SQLException raised while consuming a lazily evaluated result (e.g. a course Stream)
+public class UncheckedSQLException extends RuntimeException {
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,35 @@
+package com.registration.metrics;
+
+import java.util.Locale;
+
+// Percentiles of a LatencyHistogram at one point in time (all values in nanoseconds)
+public class LatencySnapshot {
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    public LatencySnapshot(long count, long meanNanos, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() { return count; }
+    public long getMeanNanos() { return meanNanos; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP95Nanos() { return p95Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "[n=%d, mean=%.1fus, p50=%.1fus, p95=%.1fus, p99=%.1fus, max=%.1fus]",
+            count, meanNanos / 1e3, p50Nanos / 1e3, p95Nanos / 1e3, p99Nanos / 1e3, maxNanos / 1e3);
+    }
+}
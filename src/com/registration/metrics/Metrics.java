@@ -0,0 +1,74 @@
+package com.registration.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of operation metrics, published as JMX MBeans under {@code com.registration:type=Operation}.
+ *
+ * {@link #ENABLED} is a static final flag (-Dregistration.metrics.disabled=true turns it off): when off,
+ * no instrumented decorator is installed and the remaining guarded calls are removed by the JIT.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = !Boolean.getBoolean("registration.metrics.disabled");
+    // Periodic report interval (0 = no reports) and optional CSV file the reports are appended to
+    public static final long REPORT_INTERVAL_MS = Long.getLong("registration.metrics.reportMs", 60_000);
+    public static final String REPORT_CSV = System.getProperty("registration.metrics.csv");
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentSkipListMap<>();
+    // Nanoseconds this thread spent acquiring connections, ever; callers diff it around a call
+    private static final ThreadLocal<long[]> ACQUIRE_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+    private static final OperationMetrics POOL_ACQUIRE = operation("pool.acquire");
+
+    static {
+        if (ENABLED && REPORT_INTERVAL_MS > 0) {
+            MetricsReporter.startDefault(REPORT_INTERVAL_MS, REPORT_CSV);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /** The metrics of an operation, created (and registered with JMX) on first use. */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, n -> {
+            OperationMetrics metrics = new OperationMetrics(n);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    public static List<OperationMetrics> getOperations() {
+        return new ArrayList<>(OPERATIONS.values());
+    }
+
+    /** Called by the connection pool with the time one acquire took. */
+    public static void recordAcquire(long nanos) {
+        ACQUIRE_NANOS.get()[0] += nanos;
+        POOL_ACQUIRE.record(nanos, nanos, false);
+    }
+
+    /** Running total of this thread's connection-acquire time; read before and after a call. */
+    public static long threadAcquireNanos() {
+        return ACQUIRE_NANOS.get()[0];
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.registration:type=Operation,name=" + ObjectName.quote(metrics.getName()));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Metrics: could not register " + metrics.getName() + ": " + e.getMessage());
+        }
+    }
+}
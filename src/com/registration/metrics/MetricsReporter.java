@@ -0,0 +1,79 @@
+package com.registration.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically prints every operation that was called (cumulative counts and percentiles) and,
+ * when a file is configured, appends the same figures as CSV rows.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private static final String CSV_HEADER =
+        "timestamp,operation,calls,errors,mean_us,p50_us,p95_us,p99_us,max_us,acquire_p99_us,query_p99_us";
+
+    private static MetricsReporter defaultReporter;
+
+    private final PrintStream out;
+    private final Path csvFile;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsReporter(long intervalMillis, PrintStream out, Path csvFile) {
+        this.out = out;
+        this.csvFile = csvFile;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    static synchronized void startDefault(long intervalMillis, String csvFile) {
+        if (defaultReporter == null) {
+            defaultReporter = new MetricsReporter(intervalMillis, System.out, csvFile == null ? null : Path.of(csvFile));
+        }
+    }
+
+    /** Writes one report now. */
+    public void report() {
+        String timestamp = Instant.now().toString();
+        StringBuilder csv = new StringBuilder();
+        for (OperationMetrics op : Metrics.getOperations()) {
+            if (op.getCalls() == 0) {
+                continue;
+            }
+            LatencySnapshot latency = op.getLatency();
+            out.println("Metrics: " + op);
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                timestamp, op.getName(), op.getCalls(), op.getErrors(),
+                latency.getMeanNanos() / 1e3, latency.getP50Nanos() / 1e3, latency.getP95Nanos() / 1e3,
+                latency.getP99Nanos() / 1e3, latency.getMaxNanos() / 1e3,
+                op.getAcquireP99Micros(), op.getQueryP99Micros()));
+        }
+        if (csvFile != null && csv.length() > 0) {
+            try {
+                if (!Files.exists(csvFile)) {
+                    csv.insert(0, CSV_HEADER + System.lineSeparator());
+                }
+                Files.writeString(csvFile, csv, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Metrics: could not write " + csvFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
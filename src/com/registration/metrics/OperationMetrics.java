@@ -0,0 +1,80 @@
+package com.registration.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of one operation (e.g. dao.getCourseById).
+ * The total time of a call is split into connection-acquire time and query time (the rest);
+ * calls that never borrow a connection only add to the query histogram.
+ */
+public class OperationMetrics implements OperationMetricsMBean {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram query = new LatencyHistogram();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /** Records one call; {@code acquireNanos} is the part of {@code totalNanos} spent waiting for connections. */
+    public void record(long totalNanos, long acquireNanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(totalNanos);
+        if (acquireNanos > 0) {
+            acquire.record(acquireNanos);
+        }
+        query.record(totalNanos - acquireNanos);
+    }
+
+    public void record(long totalNanos, boolean failed) {
+        record(totalNanos, 0, failed);
+    }
+
+    public LatencySnapshot getLatency() { return latency.snapshot(); }
+    public LatencySnapshot getAcquireLatency() { return acquire.snapshot(); }
+    public LatencySnapshot getQueryLatency() { return query.snapshot(); }
+
+    // --- OperationMetricsMBean ---
+
+    @Override
+    public String getName() { return name; }
+    @Override
+    public long getCalls() { return calls.sum(); }
+    @Override
+    public long getErrors() { return errors.sum(); }
+    @Override
+    public double getMeanMicros() { return latency.snapshot().getMeanNanos() / 1e3; }
+    @Override
+    public double getP50Micros() { return latency.snapshot().getP50Nanos() / 1e3; }
+    @Override
+    public double getP95Micros() { return latency.snapshot().getP95Nanos() / 1e3; }
+    @Override
+    public double getP99Micros() { return latency.snapshot().getP99Nanos() / 1e3; }
+    @Override
+    public double getMaxMicros() { return latency.snapshot().getMaxNanos() / 1e3; }
+    @Override
+    public double getAcquireP99Micros() { return acquire.snapshot().getP99Nanos() / 1e3; }
+    @Override
+    public double getQueryP99Micros() { return query.snapshot().getP99Nanos() / 1e3; }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        latency.reset();
+        acquire.reset();
+        query.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + " calls=" + getCalls() + " errors=" + getErrors() + " latency=" + getLatency();
+    }
+}
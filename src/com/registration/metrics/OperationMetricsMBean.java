@@ -0,0 +1,17 @@
+package com.registration.metrics;
+
+// JMX view of one instrumented operation (latencies in microseconds)
+public interface OperationMetricsMBean {
+    String getName();
+    long getCalls();
+    long getErrors();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP95Micros();
+    double getP99Micros();
+    double getMaxMicros();
+    // Time spent waiting for a pooled connection, and the rest of the call
+    double getAcquireP99Micros();
+    double getQueryP99Micros();
+    void reset();
+}
@@ -0,0 +1 @@
+package com.registration.metrics;
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.registration.model;
 
+import java.util.List;
 
 //Course class representing the data model (Encapsulation)
 public class Course {
@@ -8,6 +9,8 @@ public class Course {
  private String courseName;
  private int credits;        
  private String instructor;
+ private long version;        // Row version: changes on every write (0 = not loaded from DB)
+ private List<MeetingSlot> schedule = List.of(); // Weekly meeting slots (empty = not scheduled)
 
  // Constructor for creating new Course
  public Course(String courseCode, String courseName, int credits, String instructor) {
@@ -26,6 +29,19 @@ public class Course {
      this.instructor = instructor;
  }
 
+ // Constructor for loading from DB including the row version
+ public Course(int courseId, String courseCode, String courseName, int credits, String instructor, long version) {
+     this(courseId, courseCode, courseName, credits, instructor);
+     this.version = version;
+ }
+
+ // Copy constructor (used where callers must not share mutable instances, e.g. caches).
+ // Reads through the getters, so read-only views (ColumnarCatalog rows) copy as well
+ public Course(Course other) {
+     this(other.getCourseId(), other.getCourseCode(), other.getCourseName(), other.getCredits(), other.getInstructor(), other.getVersion());
+     this.schedule = other.getSchedule(); // immutable list, safe to share
+ }
+
  // --- Getters and Setters ---
  public int getCourseId() { return courseId; }
  public void setCourseId(int courseId) { this.courseId = courseId; }
@@ -41,4 +57,10 @@ public class Course {
 
  public String getInstructor() { return instructor; }
  public void setInstructor(String instructor) { this.instructor = instructor; }
+
+ public long getVersion() { return version; }
+ public void setVersion(long version) { this.version = version; }
+
+ public List<MeetingSlot> getSchedule() { return schedule; }
+ public void setSchedule(List<MeetingSlot> schedule) { this.schedule = schedule == null ? List.of() : List.copyOf(schedule); }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.registration.model;
+
+
+//Enrollment class: one student's place in one course (Immutable: every change is a new Enrollment)
+public class Enrollment {
+ public enum Status { ENROLLED, WAITLISTED, DROPPED }
+
+ private final int courseId;
+ private final String studentId;
+ private final Status status;
+ private final long sequence;   // Order of the change that produced this state (a later change has a higher one)
+
+ public Enrollment(int courseId, String studentId, Status status, long sequence) {
+     this.courseId = courseId;
+     this.studentId = studentId;
+     this.status = status;
+     this.sequence = sequence;
+ }
+
+ // --- Getters ---
+ public int getCourseId() { return courseId; }
+ public String getStudentId() { return studentId; }
+ public Status getStatus() { return status; }
+ public long getSequence() { return sequence; }
+
+ @Override
+ public String toString() {
+     return studentId + " " + status + " in course " + courseId + " (#" + sequence + ")";
+ }
+}
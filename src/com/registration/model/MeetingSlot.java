@@ -0,0 +1,134 @@
+package com.registration.model;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+
+//MeetingSlot class: one weekly meeting of a course, e.g. "MON 09:00-10:30 B-204" (Immutable)
+public final class MeetingSlot {
+ public static final int MINUTES_PER_DAY = 24 * 60;
+ public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+ private final DayOfWeek day;
+ private final int startMinute;  // Minutes after midnight; the slot ends before endMinute
+ private final int endMinute;
+ private final String room;      // null when no room is assigned
+
+ public MeetingSlot(DayOfWeek day, int startMinute, int endMinute, String room) {
+     if (day == null) {
+         throw new IllegalArgumentException("Meeting day is required.");
+     }
+     if (startMinute < 0 || endMinute > MINUTES_PER_DAY || startMinute >= endMinute) {
+         throw new IllegalArgumentException("Meeting time must start before it ends, within one day.");
+     }
+     if (room != null && room.indexOf(';') >= 0) {
+         throw new IllegalArgumentException("Room names cannot contain ';'.");
+     }
+     this.day = day;
+     this.startMinute = startMinute;
+     this.endMinute = endMinute;
+     this.room = room == null || room.isBlank() ? null : room.trim();
+ }
+
+ // --- Getters ---
+ public DayOfWeek getDay() { return day; }
+ public int getStartMinute() { return startMinute; }
+ public int getEndMinute() { return endMinute; }
+ public String getRoom() { return room; }
+
+ // Position in the week (Monday 00:00 = 0), so slots of different days compare as plain intervals
+ public int getWeekStart() { return (day.getValue() - 1) * MINUTES_PER_DAY + startMinute; }
+ public int getWeekEnd() { return (day.getValue() - 1) * MINUTES_PER_DAY + endMinute; }
+
+ public boolean overlaps(MeetingSlot other) {
+     return day == other.day && startMinute < other.endMinute && other.startMinute < endMinute;
+ }
+
+ // --- Text form: "DAY HH:MM-HH:MM [ROOM]", slots separated by ';' ---
+
+ /** Parses one slot, e.g. "MON 09:00-10:30 B-204" (the room is optional and may contain spaces). */
+ public static MeetingSlot parse(String text) {
+     String[] parts = text.trim().split("\\s+", 3);
+     if (parts.length < 2) {
+         throw new IllegalArgumentException("Invalid meeting slot '" + text.trim() + "'. Use e.g. MON 09:00-10:30 B-204.");
+     }
+     DayOfWeek day = parseDay(parts[0]);
+     String[] times = parts[1].split("-");
+     if (times.length != 2) {
+         throw new IllegalArgumentException("Invalid meeting time '" + parts[1] + "'. Use e.g. 09:00-10:30.");
+     }
+     return new MeetingSlot(day, parseTime(times[0]), parseTime(times[1]), parts.length == 3 ? parts[2] : null);
+ }
+
+ /** Parses a whole schedule ("MON 09:00-10:30 B-204; WED 09:00-10:30 B-204"); null or blank is no slot. */
+ public static List<MeetingSlot> parseSchedule(String text) {
+     List<MeetingSlot> slots = new ArrayList<>();
+     if (text != null) {
+         for (String slot : text.split(";")) {
+             if (!slot.isBlank()) {
+                 slots.add(parse(slot));
+             }
+         }
+     }
+     return List.copyOf(slots);
+ }
+
+ /** The text form parseSchedule reads back; null for no slots (stored as NULL). */
+ public static String formatSchedule(List<MeetingSlot> slots) {
+     if (slots == null || slots.isEmpty()) {
+         return null;
+     }
+     StringBuilder text = new StringBuilder();
+     for (MeetingSlot slot : slots) {
+         text.append(text.length() == 0 ? "" : "; ").append(slot);
+     }
+     return text.toString();
+ }
+
+ private static DayOfWeek parseDay(String text) {
+     String day = text.toUpperCase(Locale.ROOT);
+     for (DayOfWeek candidate : DayOfWeek.values()) {
+         if (day.length() >= 3 && candidate.name().startsWith(day)) {
+             return candidate;
+         }
+     }
+     throw new IllegalArgumentException("Invalid meeting day '" + text + "'. Use MON, TUE, WED, THU, FRI, SAT or SUN.");
+ }
+
+ private static int parseTime(String text) {
+     String[] parts = text.split(":");
+     try {
+         int hours = Integer.parseInt(parts[0]);
+         int minutes = parts.length == 2 ? Integer.parseInt(parts[1]) : -1;
+         if (parts.length == 2 && hours >= 0 && hours <= 24 && minutes >= 0 && minutes < 60) {
+             return hours * 60 + minutes;
+         }
+     } catch (NumberFormatException e) {
+         // reported below
+     }
+     throw new IllegalArgumentException("Invalid time '" + text + "'. Use HH:MM, e.g. 09:30.");
+ }
+
+ @Override
+ public boolean equals(Object o) {
+     if (!(o instanceof MeetingSlot)) return false;
+     MeetingSlot other = (MeetingSlot) o;
+     return day == other.day && startMinute == other.startMinute && endMinute == other.endMinute
+         && Objects.equals(room, other.room);
+ }
+
+ @Override
+ public int hashCode() {
+     return Objects.hash(day, startMinute, endMinute, room);
+ }
+
+ @Override
+ public String toString() {
+     String time = String.format(Locale.ROOT, "%s %02d:%02d-%02d:%02d", day.name().substring(0, 3),
+         startMinute / 60, startMinute % 60, endMinute / 60, endMinute % 60);
+     return room == null ? time : time + " " + room;
+ }
+}
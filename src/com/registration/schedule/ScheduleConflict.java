@@ -0,0 +1,47 @@
+package com.registration.schedule;
+
+import com.registration.model.MeetingSlot;
+
+/** Two meeting slots that overlap on the same instructor, room or student. */
+public final class ScheduleConflict {
+
+    public enum Kind { INSTRUCTOR, ROOM, STUDENT }
+
+    private final Kind kind;
+    private final String resource;
+    private final int courseId;
+    private final String courseCode;
+    private final MeetingSlot slot;
+    private final int otherCourseId;
+    private final String otherCourseCode;
+    private final MeetingSlot otherSlot;
+
+    public ScheduleConflict(Kind kind, String resource, int courseId, String courseCode, MeetingSlot slot,
+                            int otherCourseId, String otherCourseCode, MeetingSlot otherSlot) {
+        this.kind = kind;
+        this.resource = resource;
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.slot = slot;
+        this.otherCourseId = otherCourseId;
+        this.otherCourseCode = otherCourseCode;
+        this.otherSlot = otherSlot;
+    }
+
+    public Kind getKind() { return kind; }
+    /** The instructor, room or student id both slots need. */
+    public String getResource() { return resource; }
+    public int getCourseId() { return courseId; }
+    public String getCourseCode() { return courseCode; }
+    public MeetingSlot getSlot() { return slot; }
+    public int getOtherCourseId() { return otherCourseId; }
+    public String getOtherCourseCode() { return otherCourseCode; }
+    public MeetingSlot getOtherSlot() { return otherSlot; }
+
+    @Override
+    public String toString() {
+        String what = kind == Kind.INSTRUCTOR ? "Instructor" : kind == Kind.ROOM ? "Room" : "Student";
+        return what + " " + resource + ": " + courseCode + " (" + slot + ") overlaps "
+            + otherCourseCode + " (" + otherSlot + ")";
+    }
+}
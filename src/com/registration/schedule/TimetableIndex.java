@@ -0,0 +1,338 @@
+package com.registration.schedule;
+
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly timetable of the catalog, indexed per instructor and per room, for clash checks.
+ *
+ * Every resource keeps a bitmap of its busy minutes in the week, so a slot in free time is
+ * accepted after checking a few words. Otherwise its bookings, sorted by start minute, are
+ * scanned from (slot start - longest booking) to the slot end, which finds every overlap in
+ * O(log n + k) without comparing against the rest of the week.
+ */
+public class TimetableIndex {
+
+    private static final Comparator<ScheduleConflict> REPORT_ORDER = Comparator
+        .comparing(ScheduleConflict::getKind)
+        .thenComparing(ScheduleConflict::getResource)
+        .thenComparingInt(conflict -> conflict.getSlot().getWeekStart())
+        .thenComparingInt(ScheduleConflict::getCourseId)
+        .thenComparingInt(ScheduleConflict::getOtherCourseId);
+
+    /** One meeting slot of one course on one resource. */
+    private static final class Booking {
+        final int courseId;
+        final String courseCode;
+        final MeetingSlot slot;
+
+        Booking(int courseId, String courseCode, MeetingSlot slot) {
+            this.courseId = courseId;
+            this.courseCode = courseCode;
+            this.slot = slot;
+        }
+    }
+
+    /** An instructor or a room: its busy minutes and its bookings keyed by (week start, course id). */
+    private static final class Resource {
+        final ScheduleConflict.Kind kind;
+        final String name;
+        final long[] busy = new long[(MeetingSlot.MINUTES_PER_WEEK + 63) / 64];
+        final TreeMap<Long, Booking> bookings = new TreeMap<>();
+        int maxLength; // Longest booking ever added; bounds how far back an overlap can start
+
+        Resource(ScheduleConflict.Kind kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        void add(Booking booking) {
+            bookings.put(key(booking.slot.getWeekStart(), booking.courseId), booking);
+            maxLength = Math.max(maxLength, booking.slot.getWeekEnd() - booking.slot.getWeekStart());
+            setBits(booking.slot.getWeekStart(), booking.slot.getWeekEnd());
+        }
+
+        void remove(int courseId, MeetingSlot slot) {
+            bookings.remove(key(slot.getWeekStart(), courseId));
+            // Other bookings may still cover part of the freed range
+            clearBits(slot.getWeekStart(), slot.getWeekEnd());
+            for (Booking other : scan(slot.getWeekStart(), slot.getWeekEnd())) {
+                setBits(Math.max(slot.getWeekStart(), other.slot.getWeekStart()), Math.min(slot.getWeekEnd(), other.slot.getWeekEnd()));
+            }
+        }
+
+        boolean isFree(int start, int end) {
+            for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+                if ((busy[word] & mask(word, start, end)) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Collection<Booking> overlapping(int start, int end) {
+            return isFree(start, end) ? List.of() : scan(start, end);
+        }
+
+        private List<Booking> scan(int start, int end) {
+            List<Booking> found = new ArrayList<>();
+            for (Booking booking : bookings.subMap(key(start - maxLength + 1, 0), key(end, 0)).values()) {
+                if (booking.slot.getWeekEnd() > start) {
+                    found.add(booking);
+                }
+            }
+            return found;
+        }
+
+        private void setBits(int start, int end) {
+            for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+                busy[word] |= mask(word, start, end);
+            }
+        }
+
+        private void clearBits(int start, int end) {
+            for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+                busy[word] &= ~mask(word, start, end);
+            }
+        }
+
+        // Bits of minutes [start, end) that fall into the given word
+        private static long mask(int word, int start, int end) {
+            int from = Math.max(start - word * 64, 0);
+            int to = Math.min(end - word * 64, 64);
+            long upTo = to == 64 ? -1L : (1L << to) - 1;
+            return upTo & (-1L << from);
+        }
+    }
+
+    /** What is indexed for one course, to find its bookings again. */
+    private static final class Scheduled {
+        final String courseCode;
+        final List<MeetingSlot> slots;
+        final String instructorKey;
+
+        Scheduled(String courseCode, List<MeetingSlot> slots, String instructorKey) {
+            this.courseCode = courseCode;
+            this.slots = slots;
+            this.instructorKey = instructorKey;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Resource> resources = new HashMap<>();
+    private final Map<Integer, Scheduled> courses = new HashMap<>();
+
+    /** Replaces the whole index with the given courses. */
+    public void rebuild(Iterable<Course> catalog) {
+        lock.writeLock().lock();
+        try {
+            resources.clear();
+            courses.clear();
+            for (Course course : catalog) {
+                add(course);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds the course, or replaces what was indexed under its id. */
+    public void index(Course course) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(course.getCourseId());
+            add(course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return courses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Slots of indexed courses that clash with the course's slots on its instructor or rooms.
+     * Bookings under the course's own id are ignored, so an update is checked against everyone else.
+     */
+    public List<ScheduleConflict> findConflicts(Course course) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        String instructorKey = instructorKey(course.getInstructor());
+        lock.readLock().lock();
+        try {
+            for (MeetingSlot slot : course.getSchedule()) {
+                if (instructorKey != null) {
+                    collect(resources.get(instructorKey), course, slot, conflicts);
+                }
+                if (slot.getRoom() != null) {
+                    collect(resources.get(roomKey(slot.getRoom())), course, slot, conflicts);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conflicts;
+    }
+
+    /**
+     * Every instructor and room clash in the catalog, each pair reported once. Resources are swept
+     * in parallel; writers wait until the report is done.
+     */
+    public List<ScheduleConflict> conflictReport() {
+        lock.readLock().lock();
+        try {
+            return resources.values().parallelStream()
+                .flatMap(resource -> sweep(resource.kind, resource.name, resource.bookings.values()).stream())
+                .sorted(REPORT_ORDER)
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clashes between the courses each student takes ({@code timetables} maps a student id to course ids).
+     * Students are checked in parallel; courses that are not indexed or not scheduled are skipped.
+     */
+    public List<ScheduleConflict> studentConflictReport(Map<String, ? extends Collection<Integer>> timetables) {
+        lock.readLock().lock();
+        try {
+            return timetables.entrySet().parallelStream()
+                .flatMap(entry -> studentConflicts(entry.getKey(), entry.getValue()).stream())
+                .sorted(REPORT_ORDER)
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internals (callers hold the lock) ---
+
+    private void add(Course course) {
+        if (course.getSchedule().isEmpty()) {
+            return;
+        }
+        String instructorKey = instructorKey(course.getInstructor());
+        courses.put(course.getCourseId(), new Scheduled(course.getCourseCode(), course.getSchedule(), instructorKey));
+        for (MeetingSlot slot : course.getSchedule()) {
+            Booking booking = new Booking(course.getCourseId(), course.getCourseCode(), slot);
+            if (instructorKey != null) {
+                resources.computeIfAbsent(instructorKey, key -> new Resource(ScheduleConflict.Kind.INSTRUCTOR, course.getInstructor().trim()))
+                    .add(booking);
+            }
+            if (slot.getRoom() != null) {
+                resources.computeIfAbsent(roomKey(slot.getRoom()), key -> new Resource(ScheduleConflict.Kind.ROOM, slot.getRoom()))
+                    .add(booking);
+            }
+        }
+    }
+
+    private void removeLocked(int courseId) {
+        Scheduled scheduled = courses.remove(courseId);
+        if (scheduled == null) {
+            return;
+        }
+        for (MeetingSlot slot : scheduled.slots) {
+            if (scheduled.instructorKey != null) {
+                removeBooking(scheduled.instructorKey, courseId, slot);
+            }
+            if (slot.getRoom() != null) {
+                removeBooking(roomKey(slot.getRoom()), courseId, slot);
+            }
+        }
+    }
+
+    private void removeBooking(String key, int courseId, MeetingSlot slot) {
+        Resource resource = resources.get(key);
+        if (resource != null) {
+            resource.remove(courseId, slot);
+            if (resource.bookings.isEmpty()) {
+                resources.remove(key);
+            }
+        }
+    }
+
+    private static void collect(Resource resource, Course course, MeetingSlot slot, List<ScheduleConflict> conflicts) {
+        if (resource == null) {
+            return;
+        }
+        for (Booking booking : resource.overlapping(slot.getWeekStart(), slot.getWeekEnd())) {
+            if (booking.courseId != course.getCourseId()) {
+                conflicts.add(new ScheduleConflict(resource.kind, resource.name, course.getCourseId(), course.getCourseCode(), slot,
+                    booking.courseId, booking.courseCode, booking.slot));
+            }
+        }
+    }
+
+    // Walks the bookings in start order, keeping those still running; each one overlaps the next start
+    private static List<ScheduleConflict> sweep(ScheduleConflict.Kind kind, String name, Collection<Booking> inStartOrder) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        List<Booking> running = new ArrayList<>();
+        for (Booking booking : inStartOrder) {
+            int start = booking.slot.getWeekStart();
+            running.removeIf(earlier -> earlier.slot.getWeekEnd() <= start);
+            for (Booking earlier : running) {
+                if (earlier.courseId != booking.courseId) {
+                    conflicts.add(new ScheduleConflict(kind, name, earlier.courseId, earlier.courseCode, earlier.slot,
+                        booking.courseId, booking.courseCode, booking.slot));
+                }
+            }
+            running.add(booking);
+        }
+        return conflicts;
+    }
+
+    private List<ScheduleConflict> studentConflicts(String studentId, Collection<Integer> courseIds) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int courseId : courseIds) {
+            Scheduled scheduled = courses.get(courseId);
+            if (scheduled != null) {
+                for (MeetingSlot slot : scheduled.slots) {
+                    bookings.add(new Booking(courseId, scheduled.courseCode, slot));
+                }
+            }
+        }
+        if (bookings.size() < 2) {
+            return List.of();
+        }
+        bookings.sort(Comparator.comparingInt((Booking booking) -> booking.slot.getWeekStart()).thenComparingInt(booking -> booking.courseId));
+        return sweep(ScheduleConflict.Kind.STUDENT, studentId, bookings);
+    }
+
+    private static long key(int weekStart, int courseId) {
+        return ((long) weekStart << 32) | (courseId & 0xFFFFFFFFL);
+    }
+
+    private static String instructorKey(String instructor) {
+        return instructor == null || instructor.isBlank() ? null : "i:" + instructor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String roomKey(String room) {
+        return "r:" + room.toLowerCase(Locale.ROOT);
+    }
+}
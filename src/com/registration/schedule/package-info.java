@@ -0,0 +1 @@
+package com.registration.schedule;
\ No newline at end of file
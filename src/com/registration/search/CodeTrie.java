@@ -0,0 +1,138 @@
+package com.registration.search;
+
+import java.util.Arrays;
+
+/**
+ * Prefix trie over upper-cased course codes.
+ * Children are kept in small sorted arrays instead of maps to keep 100k+ codes compact.
+ */
+class CodeTrie {
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        // Document slots of courses whose code ends at this node (codes are unique, so usually one)
+        int[] ids = new int[0];
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -(i + 1);
+            Node node = new Node();
+            keys = insert(keys, at, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = node;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] k = new char[keys.length - 1];
+            System.arraycopy(keys, 0, k, 0, i);
+            System.arraycopy(keys, i + 1, k, i, keys.length - i - 1);
+            Node[] ch = new Node[children.length - 1];
+            System.arraycopy(children, 0, ch, 0, i);
+            System.arraycopy(children, i + 1, ch, i, children.length - i - 1);
+            keys = k;
+            children = ch;
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0 && keys.length == 0;
+        }
+
+        private static char[] insert(char[] array, int at, char c) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, at);
+            grown[at] = c;
+            System.arraycopy(array, at, grown, at + 1, array.length - at);
+            return grown;
+        }
+    }
+
+    /** Receives the document slots found under a prefix. */
+    interface IdVisitor {
+        void visit(int doc, boolean exact);
+    }
+
+    private Node root = new Node();
+
+    void add(String code, int id) {
+        Node node = root;
+        for (int i = 0; i < code.length(); i++) {
+            node = node.getOrAddChild(code.charAt(i));
+        }
+        int[] ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        ids[ids.length - 1] = id;
+        node.ids = ids;
+    }
+
+    void remove(String code, int id) {
+        remove(root, code, 0, id);
+    }
+
+    // Returns true when the node became empty and can be unlinked by its parent
+    private boolean remove(Node node, String code, int depth, int id) {
+        if (depth == code.length()) {
+            int[] ids = node.ids;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    int[] shrunk = new int[ids.length - 1];
+                    System.arraycopy(ids, 0, shrunk, 0, i);
+                    System.arraycopy(ids, i + 1, shrunk, i, ids.length - i - 1);
+                    node.ids = shrunk;
+                    break;
+                }
+            }
+            return node.isEmpty();
+        }
+        char c = code.charAt(depth);
+        Node child = node.child(c);
+        if (child != null && remove(child, code, depth + 1, id)) {
+            node.removeChild(c);
+        }
+        return node.isEmpty();
+    }
+
+    /** Visits every document whose code starts with {@code prefix}. */
+    void visitPrefix(String prefix, IdVisitor visitor) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node != null) {
+            for (int id : node.ids) {
+                visitor.visit(id, true);
+            }
+            for (Node child : node.children) {
+                visitAll(child, visitor);
+            }
+        }
+    }
+
+    private void visitAll(Node node, IdVisitor visitor) {
+        for (int id : node.ids) {
+            visitor.visit(id, false);
+        }
+        for (Node child : node.children) {
+            visitAll(child, visitor);
+        }
+    }
+
+    void clear() {
+        root = new Node();
+    }
+}
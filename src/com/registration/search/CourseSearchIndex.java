@@ -0,0 +1,352 @@
+package com.registration.search;
+
+import com.registration.model.Course;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over the course catalog.
+ * Course codes live in a prefix trie; course names and instructors are tokenized into sorted
+ * inverted indexes so every query token can be matched as a prefix (search-as-you-type).
+ * All query tokens must match (in any field); results are ranked by score, then by course id.
+ *
+ * Courses are stored in dense document slots and postings are primitive int lists, so a query
+ * scores matches in plain arrays without boxing.
+ */
+public class CourseSearchIndex {
+
+    // Scores per query token: exact matches rank above prefix matches, code above name above instructor
+    private static final int CODE_EXACT = 100;
+    private static final int CODE_PREFIX = 60;
+    private static final int NAME_EXACT = 30;
+    private static final int NAME_PREFIX = 20;
+    private static final int INSTRUCTOR_EXACT = 25;
+    private static final int INSTRUCTOR_PREFIX = 15;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Unordered list of document slots for one token. */
+    private static final class Postings {
+        int[] docs = new int[2];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        boolean remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    docs[i] = docs[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Per-token scratch: best score of each document and the list of documents touched. */
+    private static final class TokenScores {
+        final int[] best;
+        int[] touched = new int[64];
+        int touchedCount;
+
+        TokenScores(int docLimit) {
+            best = new int[docLimit];
+        }
+
+        void touch(int doc, int score) {
+            if (best[doc] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = doc;
+            }
+            if (score > best[doc]) {
+                best[doc] = score;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                best[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Document slot -> course copy (null for free slots)
+    private Course[] docs = new Course[1_024];
+    private int docLimit;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final Map<Integer, Integer> slotById = new HashMap<>();
+    private final CodeTrie codeTrie = new CodeTrie();
+    private final TreeMap<String, Postings> nameTokens = new TreeMap<>();
+    private final TreeMap<String, Postings> instructorTokens = new TreeMap<>();
+
+    // --- Maintenance ---
+
+    /** Adds a course, or re-indexes it if a course with the same id is already present. */
+    public void index(Course course) {
+        lock.writeLock().lock();
+        try {
+            removeById(course.getCourseId());
+            Course copy = new Course(course);
+            int doc = allocateSlot();
+            docs[doc] = copy;
+            slotById.put(copy.getCourseId(), doc);
+            if (copy.getCourseCode() != null) {
+                codeTrie.add(copy.getCourseCode().toUpperCase(Locale.ROOT), doc);
+            }
+            addTokens(nameTokens, copy.getCourseName(), doc);
+            addTokens(instructorTokens, copy.getInstructor(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            removeById(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the whole index content. */
+    public void rebuild(Iterable<Course> catalog) {
+        lock.writeLock().lock();
+        try {
+            docs = new Course[1_024];
+            docLimit = 0;
+            freeCount = 0;
+            slotById.clear();
+            codeTrie.clear();
+            nameTokens.clear();
+            instructorTokens.clear();
+            for (Course course : catalog) {
+                index(course);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (docLimit == docs.length) {
+            docs = Arrays.copyOf(docs, docLimit * 2);
+        }
+        return docLimit++;
+    }
+
+    private void removeById(int courseId) {
+        Integer doc = slotById.remove(courseId);
+        if (doc == null) {
+            return;
+        }
+        Course course = docs[doc];
+        if (course.getCourseCode() != null) {
+            codeTrie.remove(course.getCourseCode().toUpperCase(Locale.ROOT), doc);
+        }
+        removeTokens(nameTokens, course.getCourseName(), doc);
+        removeTokens(instructorTokens, course.getInstructor(), doc);
+        docs[doc] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = doc;
+    }
+
+    private static void addTokens(Map<String, Postings> index, String text, int doc) {
+        List<String> tokens = tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            // Repeated words are posted once
+            if (tokens.indexOf(tokens.get(i)) == i) {
+                index.computeIfAbsent(tokens.get(i), t -> new Postings()).add(doc);
+            }
+        }
+    }
+
+    private static void removeTokens(Map<String, Postings> index, String text, int doc) {
+        for (String token : tokenize(text)) {
+            Postings postings = index.get(token);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                index.remove(token);
+            }
+        }
+    }
+
+    // --- Queries ---
+
+    /**
+     * Ranked search; returns {@code limit} results starting at {@code offset}.
+     * Every token in the query must match a code prefix, a name word prefix or an instructor word prefix.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        long start = System.nanoTime();
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new SearchResult(query, 0, offset, List.of(), System.nanoTime() - start);
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] total = new int[docLimit];
+            TokenScores scores = new TokenScores(docLimit);
+            int[] matched = null;
+            int matchedCount = 0;
+
+            for (String token : tokens) {
+                codeTrie.visitPrefix(token.toUpperCase(Locale.ROOT),
+                    (doc, exact) -> scores.touch(doc, exact ? CODE_EXACT : CODE_PREFIX));
+                scorePrefix(nameTokens, token, NAME_EXACT, NAME_PREFIX, scores);
+                scorePrefix(instructorTokens, token, INSTRUCTOR_EXACT, INSTRUCTOR_PREFIX, scores);
+
+                if (matched == null) {
+                    matched = Arrays.copyOf(scores.touched, scores.touchedCount);
+                    matchedCount = scores.touchedCount;
+                    for (int i = 0; i < matchedCount; i++) {
+                        total[matched[i]] = scores.best[matched[i]];
+                    }
+                } else {
+                    // AND semantics: keep only documents also matched by this token
+                    int kept = 0;
+                    for (int i = 0; i < matchedCount; i++) {
+                        int doc = matched[i];
+                        if (scores.best[doc] > 0) {
+                            total[doc] += scores.best[doc];
+                            matched[kept++] = doc;
+                        }
+                    }
+                    matchedCount = kept;
+                }
+                scores.reset();
+                if (matchedCount == 0) {
+                    break;
+                }
+            }
+
+            List<Course> page = topResults(matched, matchedCount, total, offset, limit);
+            return new SearchResult(query, matchedCount, offset, page, System.nanoTime() - start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void scorePrefix(TreeMap<String, Postings> index, String prefix, int exactScore, int prefixScore,
+                                    TokenScores scores) {
+        // All words starting with the prefix form one contiguous range of the sorted map
+        for (Map.Entry<String, Postings> entry : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().length() == prefix.length() ? exactScore : prefixScore;
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                scores.touch(postings.docs[i], score);
+            }
+        }
+    }
+
+    /**
+     * Selects one page of the ranking with a bounded max-heap instead of sorting every match.
+     * Each candidate is packed into a long (inverted score, course id) so ordering is a primitive compare.
+     */
+    private List<Course> topResults(int[] matched, int matchedCount, int[] total, int offset, int limit) {
+        if (offset >= matchedCount) {
+            return List.of();
+        }
+        int wanted = Math.min(offset + limit, matchedCount);
+        long[] heap = new long[wanted];
+        int heapSize = 0;
+
+        for (int i = 0; i < matchedCount; i++) {
+            int doc = matched[i];
+            long key = rankKey(total[doc], docs[doc].getCourseId());
+            if (heapSize < wanted) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Arrays.sort(heap, 0, heapSize);
+        List<Course> page = new ArrayList<>(heapSize - offset);
+        for (int i = offset; i < heapSize; i++) {
+            page.add(new Course(docs[slotById.get((int) heap[i])]));
+        }
+        return page;
+    }
+
+    // Higher score sorts first, then lower course id
+    private static long rankKey(int score, int courseId) {
+        return ((long) (Integer.MAX_VALUE - score) << 32) | (courseId & 0xFFFFFFFFL);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= heap[i]) {
+                return;
+            }
+            long t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left + 1 < size && heap[left + 1] > heap[left] ? left + 1 : left;
+            if (heap[i] >= heap[largest]) {
+                return;
+            }
+            long t = heap[largest]; heap[largest] = heap[i]; heap[i] = t;
+            i = largest;
+        }
+    }
+
+    /** Lower-cased words of a text; codes such as "ITLWNA602" stay a single token. */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>(4);
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,34 @@
+package com.registration.search;
+
+import com.registration.model.Course;
+
+import java.util.Collections;
+import java.util.List;
+
+// One page of ranked search results
+public class SearchResult {
+    private final String query;
+    private final int totalMatches;
+    private final int offset;
+    private final List<Course> courses;
+    private final long tookNanos;
+
+    public SearchResult(String query, int totalMatches, int offset, List<Course> courses, long tookNanos) {
+        this.query = query;
+        this.totalMatches = totalMatches;
+        this.offset = offset;
+        this.courses = Collections.unmodifiableList(courses);
+        this.tookNanos = tookNanos;
+    }
+
+    public String getQuery() { return query; }
+    // Number of matching courses across all pages
+    public int getTotalMatches() { return totalMatches; }
+    public int getOffset() { return offset; }
+    public List<Course> getCourses() { return courses; }
+    public long getTookNanos() { return tookNanos; }
+
+    public boolean hasMore() {
+        return offset + courses.size() < totalMatches;
+    }
+}
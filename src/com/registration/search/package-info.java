@@ -0,0 +1 @@
+package com.registration.search;
\ No newline at end of file
@@ -0,0 +1,374 @@
+package com.registration.server;
+
+import com.registration.db.BatchResult;
+import com.registration.db.CourseJson;
+import com.registration.model.Course;
+import com.registration.service.CourseService;
+import com.registration.service.WriteResult;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Headless server exposing one CourseService over HTTP/JSON, so desks share a single connection pool
+ * and course cache instead of each opening their own database connections.
+ * Every request runs on its own virtual thread.
+ *
+ * <pre>
+ * GET    /courses                  whole catalog (ETag + If-None-Match, gzip)
+ * GET    /courses?after=ID&amp;limit=N  one page in id order
+ * GET    /courses?code=CODE        one course by code
+ * GET    /courses/ID               one course
+ * POST   /courses                  add a course (201, body = the course with its id and version)
+ * POST   /courses/batch            bulk insert (JSON array)
+ * PUT    /courses/ID               update; If-Match: "version" makes it conditional (412 on conflict)
+ * DELETE /courses/ID               delete; If-Match as for PUT
+ * GET    /changes?since=TOKEN      change set after a token
+ * GET    /changes/latest           {"token":N}
+ * GET    /health                   200 once the server accepts requests
+ * </pre>
+ *
+ * Errors are {"error":"...","sqlState":"...","vendorCode":N}: 400 invalid input, 404 unknown course,
+ * 409 duplicate code, 503 database unavailable.
+ */
+public class CourseServer implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY small responses wait ~40 ms for the client's delayed ACK (read once, when the
+        // JDK server is first used)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 5_000;
+
+    /** One encoding of the whole catalog at a change token, shared by all clients until the catalog changes. */
+    private static final class EncodedCatalog {
+        final long token;
+        final byte[] json;
+        private volatile byte[] gzipped;
+
+        EncodedCatalog(long token, byte[] json) {
+            this.token = token;
+            this.json = json;
+        }
+
+        // Compressed on first use; concurrent first users may both compress, which is harmless
+        byte[] gzipped() throws IOException {
+            byte[] result = gzipped;
+            if (result == null) {
+                gzipped = result = gzip(json);
+            }
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange exchange, String[] path) throws Exception;
+    }
+
+    private final CourseService service;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Distinguishes ETags of different server runs (embedded backends restart their tokens at 0)
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private volatile EncodedCatalog catalog;
+
+    public CourseServer(CourseService service, int port) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(port), ServerConfig.BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/courses", exchange -> dispatch(exchange, this::courses));
+        server.createContext("/changes", exchange -> dispatch(exchange, this::changes));
+        server.createContext("/health", exchange -> dispatch(exchange, (e, path) -> send(e, 200, "{\"status\":\"UP\"}")));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The bound port (useful when constructed with port 0). */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(ServerConfig.STOP_DELAY_SECONDS);
+        executor.shutdown();
+    }
+
+    // --- Routing ---
+
+    private void dispatch(HttpExchange exchange, Route route) {
+        try {
+            String context = exchange.getHttpContext().getPath();
+            String rest = exchange.getRequestURI().getPath().substring(context.length());
+            String[] path = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+            route.handle(exchange, path);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            // Includes NumberFormatException and malformed JSON
+            sendError(exchange, 400, e.getMessage(), null, 0);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            sendError(exchange, 409, e.getMessage(), e.getSQLState(), e.getErrorCode());
+        } catch (SQLTransientException e) {
+            sendError(exchange, 503, e.getMessage(), e.getSQLState(), e.getErrorCode());
+        } catch (SQLException e) {
+            System.err.println("Server Error (" + exchange.getRequestMethod() + " " + exchange.getRequestURI() + "): " + e.getMessage());
+            sendError(exchange, 500, e.getMessage(), e.getSQLState(), e.getErrorCode());
+        } catch (Exception e) {
+            System.err.println("Server Error (" + exchange.getRequestMethod() + " " + exchange.getRequestURI() + "): " + e);
+            sendError(exchange, 500, String.valueOf(e.getMessage()), null, 0);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void courses(HttpExchange exchange, String[] path) throws Exception {
+        String method = exchange.getRequestMethod();
+        if (path.length == 0) {
+            switch (method) {
+                case "GET" -> {
+                    Map<String, String> query = query(exchange);
+                    if (query.containsKey("after")) {
+                        int limit = Math.min(MAX_PAGE_SIZE, intParam(query, "limit", DEFAULT_PAGE_SIZE));
+                        send(exchange, 200, CourseJson.courses(service.getCoursesAfter(intParam(query, "after", 0), limit)));
+                    } else if (query.containsKey("code")) {
+                        sendCourse(exchange, service.getCourseByCode(query.get("code")));
+                    } else {
+                        sendCatalog(exchange);
+                    }
+                }
+                case "POST" -> {
+                    Course course = CourseJson.toCourse(readJson(exchange));
+                    service.addCourse(course);
+                    send(exchange, 201, CourseJson.course(course));
+                }
+                default -> sendMethodNotAllowed(exchange, "GET, POST");
+            }
+        } else if (path.length == 1 && path[0].equals("batch")) {
+            if (!method.equals("POST")) {
+                sendMethodNotAllowed(exchange, "POST");
+                return;
+            }
+            List<Course> batch = CourseJson.toCourses(readJson(exchange));
+            BatchResult result = service.addCourses(batch);
+            send(exchange, 200, CourseJson.batchResult(result, batch));
+        } else if (path.length == 1) {
+            int id = Integer.parseInt(path[0]);
+            switch (method) {
+                case "GET" -> sendCourse(exchange, service.getCourseById(id));
+                case "PUT" -> {
+                    Course course = CourseJson.toCourse(readJson(exchange));
+                    course.setCourseId(id);
+                    course.setVersion(ifMatchVersion(exchange));
+                    sendWriteResult(exchange, service.updateCourse(course));
+                }
+                case "DELETE" -> sendWriteResult(exchange, service.deleteCourse(id, ifMatchVersion(exchange)));
+                default -> sendMethodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        } else {
+            sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath(), null, 0);
+        }
+    }
+
+    private void changes(HttpExchange exchange, String[] path) throws Exception {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendMethodNotAllowed(exchange, "GET");
+        } else if (path.length == 1 && path[0].equals("latest")) {
+            send(exchange, 200, "{\"token\":" + service.getLatestChangeToken() + "}");
+        } else if (path.length == 0) {
+            long since = Long.parseLong(query(exchange).getOrDefault("since", "0"));
+            send(exchange, 200, CourseJson.changeSet(service.getChangesSince(since)));
+        } else {
+            sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath(), null, 0);
+        }
+    }
+
+    // --- Whole catalog: conditional GET, one shared encoding per change token ---
+
+    private void sendCatalog(HttpExchange exchange) throws Exception {
+        // Token first: a list read afterwards is at least as new as the ETag claims
+        long token = service.getLatestChangeToken();
+        String etag = "\"" + etagPrefix + token + "\"";
+        String gzipEtag = "\"" + etagPrefix + token + "-gz\"";
+        boolean gzip = acceptsGzip(exchange);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", gzip ? gzipEtag : etag);
+        headers.set("Vary", "Accept-Encoding");
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (etag.equals(ifNoneMatch) || gzipEtag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        EncodedCatalog encoded = catalog;
+        if (encoded == null || encoded.token < token) {
+            // One request encodes the new catalog; the others arriving meanwhile wait and share it.
+            // A lock rather than synchronized, which would pin the virtual thread during the read.
+            catalogLock.lock();
+            try {
+                encoded = catalog;
+                if (encoded == null || encoded.token < token) {
+                    encoded = new EncodedCatalog(token, CourseJson.courses(service.getAllCourses()).getBytes(StandardCharsets.UTF_8));
+                    catalog = encoded;
+                }
+            } finally {
+                catalogLock.unlock();
+            }
+        }
+        if (gzip && encoded.json.length >= ServerConfig.GZIP_MIN_BYTES) {
+            sendBytes(exchange, 200, encoded.gzipped(), true);
+        } else {
+            headers.set("ETag", etag);
+            sendBytes(exchange, 200, encoded.json, false);
+        }
+    }
+
+    // --- Responses ---
+
+    private void sendCourse(HttpExchange exchange, Course course) throws IOException {
+        if (course == null) {
+            sendError(exchange, 404, "Course not found", null, 0);
+        } else {
+            send(exchange, 200, CourseJson.course(course));
+        }
+    }
+
+    private void sendWriteResult(HttpExchange exchange, WriteResult result) throws IOException {
+        switch (result.getStatus()) {
+            case APPLIED -> {
+                if (result.getCourse() == null) {
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    send(exchange, 200, CourseJson.course(result.getCourse()));
+                }
+            }
+            // The current row lets the client resolve the conflict without another round trip
+            case CONFLICT -> send(exchange, 412, CourseJson.course(result.getCourse()));
+            case NOT_FOUND -> sendError(exchange, 404, "Course not found", null, 0);
+        }
+    }
+
+    private void sendMethodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Method not allowed", null, 0);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message, String sqlState, int vendorCode) {
+        try {
+            send(exchange, status, CourseJson.error(message, sqlState, vendorCode));
+        } catch (IOException e) {
+            // The client went away; nothing left to tell it
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        if (body.length >= ServerConfig.GZIP_MIN_BYTES && acceptsGzip(exchange)) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            sendBytes(exchange, status, gzip(body), true);
+        } else {
+            sendBytes(exchange, status, body, false);
+        }
+    }
+
+    private static void sendBytes(HttpExchange exchange, int status, byte[] body, boolean gzipped) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        if (gzipped) {
+            headers.set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        // Fastest level: JSON still shrinks ~5x and compression stays cheap next to serialization
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8_192) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    // --- Requests ---
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accepted != null && accepted.contains("gzip");
+    }
+
+    private static Object readJson(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(ServerConfig.MAX_REQUEST_BYTES + 1);
+        if (body.length > ServerConfig.MAX_REQUEST_BYTES) {
+            throw new IllegalArgumentException("Request body larger than " + ServerConfig.MAX_REQUEST_BYTES + " bytes");
+        }
+        return CourseJson.parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    // If-Match: "7" -> 7; absent -> 0 (unconditional)
+    private static long ifMatchVersion(HttpExchange exchange) {
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch == null || ifMatch.equals("*")) {
+            return 0;
+        }
+        return Long.parseLong(ifMatch.replace("\"", "").trim());
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = eq < 0 ? pair : pair.substring(0, eq);
+                String value = eq < 0 ? "" : pair.substring(eq + 1);
+                params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    /** Runs the server on ServerConfig.PORT with the backend selected in DatabaseConfig until the process is stopped. */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ServerConfig.PORT;
+        CourseServer server = new CourseServer(CourseService.create(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "course-server-shutdown"));
+        server.start();
+        System.out.println("Course server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,14 @@
+package com.registration.server;
+
+//Configuration constants for the headless course server (override with -Dregistration.server.<name>=<value>)
+public class ServerConfig {
+ public static final int PORT = Integer.getInteger("registration.server.port", 8080);
+ // Pending connections the listening socket queues before refusing new clients (0 = system default)
+ public static final int BACKLOG = Integer.getInteger("registration.server.backlog", 1_024);
+ // Responses smaller than this are sent uncompressed even when the client accepts gzip
+ public static final int GZIP_MIN_BYTES = Integer.getInteger("registration.server.gzipMinBytes", 1_024);
+ // Largest request body accepted (a bulk import chunk)
+ public static final int MAX_REQUEST_BYTES = Integer.getInteger("registration.server.maxRequestBytes", 16 << 20);
+ // Seconds in-flight requests get to finish on shutdown
+ public static final int STOP_DELAY_SECONDS = Integer.getInteger("registration.server.stopDelaySeconds", 2);
+}
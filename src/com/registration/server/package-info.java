@@ -0,0 +1 @@
+package com.registration.server;
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.registration.service;
+
+import com.registration.db.BatchResult;
+import com.registration.db.DatabaseConfig;
+import com.registration.db.RowFailure;
+import com.registration.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Non-blocking facade over {@link CourseService}.
+ *
+ * Every call runs on its own virtual thread, so thousands of requests can be in flight without
+ * tying up platform threads. At most {@code maxConcurrency} of them (by default the connection pool
+ * size) touch the database at once; the rest wait for a permit here, in arrival order, rather than
+ * timing out inside the pool. Failures (validation or SQLException) complete the future exceptionally.
+ *
+ * Cancelling a returned future, or its timeout expiring, releases a call that is still waiting for
+ * a permit. A call already talking to the database finishes and its result is discarded.
+ */
+public class AsyncCourseService implements AutoCloseable {
+
+    private final CourseService service;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long timeoutMillis;
+
+    public AsyncCourseService(CourseService service) {
+        this(service, ServiceConfig.ASYNC_MAX_CONCURRENCY, ServiceConfig.ASYNC_TIMEOUT_MS);
+    }
+
+    public AsyncCourseService(CourseService service, int maxConcurrency, long timeoutMillis) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+        }
+        this.service = service;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public CourseService getService() {
+        return service;
+    }
+
+    // --- CRUD ---
+
+    /** Validates and inserts the course; completes with the same course carrying its new id. */
+    public CompletableFuture<Course> addCourse(Course course) {
+        return submit(() -> {
+            service.addCourse(course);
+            return course;
+        });
+    }
+
+    /** Versioned update; a conflict or missing course is reported in the result, not as a failure. */
+    public CompletableFuture<WriteResult> updateCourse(Course course) {
+        return submit(() -> service.updateCourse(course));
+    }
+
+    public CompletableFuture<WriteResult> deleteCourse(int courseId) {
+        return submit(() -> service.deleteCourse(courseId));
+    }
+
+    public CompletableFuture<WriteResult> deleteCourse(int courseId, long expectedVersion) {
+        return submit(() -> service.deleteCourse(courseId, expectedVersion));
+    }
+
+    /** Completes with the course, or null when no course has this id. */
+    public CompletableFuture<Course> getCourseById(int courseId) {
+        return submit(() -> service.getCourseById(courseId));
+    }
+
+    public CompletableFuture<List<Course>> getAllCourses() {
+        return submit(service::getAllCourses);
+    }
+
+    public CompletableFuture<List<Course>> getCoursesAfter(int lastId, int limit) {
+        return submit(() -> service.getCoursesAfter(lastId, limit));
+    }
+
+    // --- Fan-out ---
+
+    /** Looks up every id concurrently; completes with the courses found, in the order of {@code ids}. */
+    public CompletableFuture<List<Course>> getCoursesByIds(Collection<Integer> ids) {
+        List<CompletableFuture<Course>> lookups = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            lookups.add(getCourseById(id));
+        }
+        return fanOut(lookups, results -> {
+            List<Course> found = new ArrayList<>(results.size());
+            for (Course course : results) {
+                if (course != null) {
+                    found.add(course);
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Validates and inserts many courses, one batch of {@link DatabaseConfig#BATCH_SIZE} rows per call,
+     * with the batches running concurrently on separate connections.
+     * Failure indexes refer to positions in {@code courses}, as with {@link CourseService#addCourses}.
+     */
+    public CompletableFuture<BatchResult> addCourses(List<Course> courses) {
+        int chunkSize = DatabaseConfig.BATCH_SIZE;
+        List<CompletableFuture<BatchResult>> chunks = new ArrayList<>();
+        for (int start = 0; start < courses.size(); start += chunkSize) {
+            List<Course> chunk = courses.subList(start, Math.min(start + chunkSize, courses.size()));
+            chunks.add(submit(() -> service.addCourses(chunk)));
+        }
+        return fanOut(chunks, results -> {
+            int inserted = 0;
+            List<RowFailure> failures = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                BatchResult result = results.get(i);
+                long offset = (long) i * chunkSize;
+                inserted += result.getInsertedCount();
+                for (RowFailure failure : result.getFailures()) {
+                    failures.add(new RowFailure(offset + failure.getIndex(), failure.getCourse(), failure.getMessage()));
+                }
+            }
+            return new BatchResult(inserted, failures);
+        });
+    }
+
+    // --- Execution ---
+
+    /**
+     * Runs any service work under the same concurrency limit, timeout and cancellation rules.
+     * Pass a timeout of 0 for none.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> work, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Call<T> call = new Call<>(work, result);
+        executor.execute(call);
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                call.abandon();
+            }
+        });
+        return timeoutMillis > 0 ? result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : result;
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        return submit(work, timeoutMillis);
+    }
+
+    /** Calls currently holding a permit. */
+    public int getRunningCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /** Calls waiting for a permit. */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /** Stops accepting work and waits for calls in flight to finish. */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Combines the results of all parts (in order) once every part has completed; fails as soon as one
+     * part fails. Cancelling the combined future, or its failure, cancels the parts still pending.
+     */
+    private static <T, R> CompletableFuture<R> fanOut(List<CompletableFuture<T>> parts, Function<List<T>, R> combiner) {
+        CompletableFuture<R> combined = new CompletableFuture<>();
+        CompletableFuture<?>[] pending = parts.toArray(new CompletableFuture<?>[0]);
+        CompletableFuture.allOf(pending).whenComplete((ignored, error) -> {
+            if (error != null) {
+                return; // already failed by the part that failed
+            }
+            try {
+                List<T> results = new ArrayList<>(parts.size());
+                for (CompletableFuture<T> part : parts) {
+                    results.add(part.join());
+                }
+                combined.complete(combiner.apply(results));
+            } catch (RuntimeException e) {
+                combined.completeExceptionally(e);
+            }
+        });
+        for (CompletableFuture<T> part : parts) {
+            part.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    combined.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+        }
+        combined.whenComplete((ignored, error) -> {
+            if (error != null) {
+                parts.forEach(part -> part.cancel(false));
+            }
+        });
+        return combined;
+    }
+
+    /** One submitted call: waits for a permit, then runs unless its future is already complete. */
+    private final class Call<T> implements Runnable {
+        private final Callable<T> work;
+        private final CompletableFuture<T> result;
+        private Thread waiter;
+        private boolean waiting = true;
+
+        Call(Callable<T> work, CompletableFuture<T> result) {
+            this.work = work;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (!waiting) {
+                    return; // abandoned before it started
+                }
+                waiter = Thread.currentThread();
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                return; // abandoned while waiting; the future is already complete
+            }
+            try {
+                synchronized (this) {
+                    waiting = false;
+                    Thread.interrupted(); // an abandon() racing with the acquire must not hit the query
+                }
+                if (!result.isDone()) {
+                    result.complete(work.call());
+                }
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        }
+
+        /** Interrupts the call only while it waits for a permit; running database work is left alone. */
+        synchronized void abandon() {
+            if (waiting) {
+                waiting = false;
+                if (waiter != null) {
+                    waiter.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.registration.service;
+
+import com.registration.db.BatchResult;
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseColumn;
+import com.registration.db.CourseDAO;
+import com.registration.db.CourseWrite;
+import com.registration.db.RowFailure;
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Read-through / write-through cache in front of another CourseDAO.
+ * Courses are indexed by id and by code, bounded in size with LRU eviction and expire after a TTL.
+ * Once a full load fits in the cache, list and page reads are served from memory until an entry
+ * is evicted or the snapshot expires. Callers always receive copies, never the cached instances.
+ * Change sets read through {@link #getChangesSince} are applied to the cached rows, so changes made by
+ * other clients show up without dropping the cache.
+ *
+ * A row read from the database is only cached if no write or invalidation happened while it was read,
+ * so a read that raced with a write never puts the older row back over the newer one.
+ */
+public class CachingCourseDAO implements CourseDAO {
+
+    private final CourseDAO delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Courses ordered by id (serves list and keyset-page reads)
+    private final TreeMap<Integer, Course> byId = new TreeMap<>();
+    // Access-ordered id -> load time; iteration order is least recently used first
+    private final LinkedHashMap<Integer, Long> recency = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idByCode = new HashMap<>();
+    // True while byId holds every course in the database
+    private boolean complete;
+    private long completeLoadedAt;
+    // Bumped by every write and invalidation; reads fill the cache only if it did not move meanwhile
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CachingCourseDAO(CourseDAO delegate) {
+        this(delegate, ServiceConfig.CACHE_MAX_SIZE, ServiceConfig.CACHE_TTL_MS);
+    }
+
+    public CachingCourseDAO(CourseDAO delegate, int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public CourseDAO getDelegate() {
+        return delegate;
+    }
+
+    // --- Reads ---
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        Course cached = lookup(id);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation();
+        Course loaded = delegate.getCourseById(id);
+        if (loaded != null) {
+            fill(loaded, seen);
+        }
+        return loaded;
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        if (courseCode == null) {
+            return null;
+        }
+        Integer id;
+        synchronized (this) {
+            id = idByCode.get(codeKey(courseCode));
+        }
+        Course cached = id != null ? lookup(id) : null;
+        if (cached != null) {
+            return cached;
+        }
+        if (id == null) {
+            misses.increment();
+        }
+        long seen = generation();
+        Course loaded = delegate.getCourseByCode(courseCode);
+        if (loaded != null) {
+            fill(loaded, seen);
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        synchronized (this) {
+            if (isCompleteAndFresh()) {
+                hits.increment();
+                return copies(byId.values(), byId.size());
+            }
+        }
+        misses.increment();
+        long seen = generation();
+        List<Course> courses = delegate.getAllCourses();
+        synchronized (this) {
+            if (courses.size() <= maxSize && generation == seen) {
+                clear();
+                for (Course course : courses) {
+                    put(new Course(course));
+                }
+                complete = true;
+                completeLoadedAt = System.nanoTime();
+            }
+        }
+        return courses;
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        synchronized (this) {
+            if (isCompleteAndFresh()) {
+                hits.increment();
+                return copies(byId.tailMap(lastId, false).values(), limit);
+            }
+        }
+        return delegate.getCoursesAfter(lastId, limit);
+    }
+
+    // Scans bypass the cache so a full export does not evict the working set
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        return delegate.streamCourses(fetchSize, columns);
+    }
+
+    // --- Writes (write-through) ---
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        try {
+            delegate.addCourse(course);
+        } catch (SQLException e) {
+            invalidateCode(course.getCourseCode());
+            throw e;
+        }
+        store(course);
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        BatchResult result;
+        try {
+            result = delegate.addCourses(courses);
+        } catch (SQLException e) {
+            invalidateAll();
+            throw e;
+        }
+        Set<Course> failed = new HashSet<>();
+        for (RowFailure failure : result.getFailures()) {
+            failed.add(failure.getCourse());
+        }
+        for (Course course : courses) {
+            if (course.getCourseId() > 0 && !failed.contains(course)) {
+                store(course);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateCourse(Course course) throws SQLException {
+        boolean updated;
+        try {
+            updated = delegate.updateCourse(course);
+        } catch (SQLException e) {
+            invalidate(course.getCourseId());
+            throw e;
+        }
+        if (updated) {
+            store(course);
+        } else {
+            invalidate(course.getCourseId()); // the cached row is stale: the next read goes to the database
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) throws SQLException {
+        try {
+            return delegate.deleteCourse(id, expectedVersion);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    // Group commit: the cache is updated from each write's outcome, as for the single-row writes
+    @Override
+    public void applyWrites(List<CourseWrite> writes) throws SQLException {
+        try {
+            delegate.applyWrites(writes);
+        } catch (SQLException e) {
+            for (CourseWrite write : writes) {
+                forget(write);
+            }
+            throw e;
+        }
+        for (CourseWrite write : writes) {
+            if (write.isApplied() && write.getKind() != CourseWrite.Kind.DELETE) {
+                store(write.getCourse());
+            } else {
+                forget(write);
+            }
+        }
+    }
+
+    private void forget(CourseWrite write) {
+        if (write.getKind() == CourseWrite.Kind.INSERT) {
+            invalidateCode(write.getCourse().getCourseCode());
+        } else {
+            invalidate(write.getCourseId());
+        }
+    }
+
+    // --- Change feed ---
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        return delegate.getLatestChangeToken();
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        ChangeSet changes = delegate.getChangesSince(token);
+        applyChanges(changes);
+        return changes;
+    }
+
+    /**
+     * Merges a change set into the cache. Updated rows replace cached ones unless the cache already
+     * holds a newer version (e.g. written by this client after the change set was read);
+     * a full snapshot stays complete because the change set carries every added and deleted row.
+     */
+    public synchronized void applyChanges(ChangeSet changes) {
+        generation++;
+        if (changes.isResyncRequired()) {
+            clear();
+            return;
+        }
+        for (Course course : changes.getUpserted()) {
+            Course cached = byId.get(course.getCourseId());
+            if (cached == null ? complete : cached.getVersion() <= course.getVersion()) {
+                put(new Course(course));
+            }
+        }
+        for (int id : changes.getDeletedIds()) {
+            remove(id);
+        }
+    }
+
+    // --- Cache maintenance ---
+
+    public synchronized void invalidate(int id) {
+        generation++;
+        remove(id);
+        complete = false;
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), byId.size());
+    }
+
+    private synchronized void invalidateCode(String courseCode) {
+        Integer id = courseCode == null ? null : idByCode.get(codeKey(courseCode));
+        if (id != null) {
+            invalidate(id);
+        }
+    }
+
+    /** Returns a copy of a fresh cached course, counting the hit or miss. */
+    private synchronized Course lookup(int id) {
+        Long loadedAt = recency.get(id); // also marks the entry as recently used
+        if (loadedAt == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - loadedAt > ttlNanos) {
+            expirations.increment();
+            misses.increment();
+            remove(id);
+            complete = false;
+            return null;
+        }
+        hits.increment();
+        return new Course(byId.get(id));
+    }
+
+    /** Caches a course this DAO has just written. */
+    private synchronized void store(Course course) {
+        generation++;
+        if (!isOlderThanCached(course)) {
+            put(new Course(course));
+        }
+    }
+
+    /** Caches a course read from the delegate, unless a write or invalidation happened since {@code seen}. */
+    private synchronized void fill(Course course, long seen) {
+        if (generation == seen && !isOlderThanCached(course)) {
+            put(new Course(course));
+        }
+    }
+
+    // A read that returns after a newer write-through must not replace that write's row
+    private boolean isOlderThanCached(Course course) {
+        Course cached = byId.get(course.getCourseId());
+        return cached != null && cached.getVersion() > course.getVersion();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    // Code keys are only dropped while they still map to the row: a renamed course's old code may belong to another by now
+    private void put(Course copy) {
+        Course previous = byId.put(copy.getCourseId(), copy);
+        if (previous != null && previous.getCourseCode() != null) {
+            idByCode.remove(codeKey(previous.getCourseCode()), previous.getCourseId());
+        }
+        if (copy.getCourseCode() != null) {
+            idByCode.put(codeKey(copy.getCourseCode()), copy.getCourseId());
+        }
+        recency.put(copy.getCourseId(), System.nanoTime());
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Integer> lru = recency.keySet().iterator();
+        while (byId.size() > maxSize && lru.hasNext()) {
+            int eldest = lru.next();
+            lru.remove();
+            Course evicted = byId.remove(eldest);
+            if (evicted != null && evicted.getCourseCode() != null) {
+                idByCode.remove(codeKey(evicted.getCourseCode()), eldest);
+            }
+            evictions.increment();
+            complete = false;
+        }
+    }
+
+    private void remove(int id) {
+        recency.remove(id);
+        Course removed = byId.remove(id);
+        if (removed != null && removed.getCourseCode() != null) {
+            idByCode.remove(codeKey(removed.getCourseCode()), id);
+        }
+    }
+
+    private void clear() {
+        byId.clear();
+        recency.clear();
+        idByCode.clear();
+        complete = false;
+    }
+
+    private boolean isCompleteAndFresh() {
+        if (complete && System.nanoTime() - completeLoadedAt > ttlNanos) {
+            complete = false;
+            expirations.increment();
+        }
+        return complete;
+    }
+
+    private static List<Course> copies(Iterable<Course> source, int limit) {
+        List<Course> result = new ArrayList<>(Math.min(limit, 1_024));
+        for (Course course : source) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(new Course(course));
+        }
+        return result;
+    }
+
+    // course_code uses a case-insensitive collation, so the code index does too
+    private static String codeKey(String courseCode) {
+        return courseCode.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,237 @@
+package com.registration.service;
+
+import com.registration.model.Course;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collector;
+
+/**
+ * Catalog statistics for the registrar dashboards: course count and credits per instructor and per code
+ * prefix (department, e.g. "ITLOJ" for ITLOJ602), and the number of courses per credit value.
+ *
+ * Each course's contribution is remembered, so an add, update (credits, instructor or code) or delete
+ * adjusts only the groups it touches. Reads come straight from the maintained totals: one group or the
+ * histogram costs the same for ten courses or a million. Writes are serialized; readers take no lock and
+ * may see a write applied to one group before the other.
+ */
+public class CatalogAggregates {
+
+    // Credits accepted by CourseService.validateCourse; rows outside are counted at the nearest end
+    public static final int MAX_CREDITS = 35;
+
+    /** Course count and total credits of one group (immutable). */
+    public static final class Totals {
+        static final Totals EMPTY = new Totals(0, 0);
+
+        private final int courses;
+        private final long credits;
+
+        Totals(int courses, long credits) {
+            this.courses = courses;
+            this.credits = credits;
+        }
+
+        public int getCourses() { return courses; }
+        public long getCredits() { return credits; }
+
+        Totals plus(Totals other) {
+            return new Totals(courses + other.courses, credits + other.credits);
+        }
+
+        Totals minus(Totals other) {
+            return new Totals(courses - other.courses, credits - other.credits);
+        }
+
+        @Override
+        public String toString() {
+            return "[courses=" + courses + ", credits=" + credits + "]";
+        }
+    }
+
+    /** What one course added to the totals, to take it back out. */
+    private static final class Contribution {
+        final String instructor;
+        final String prefix;
+        final int credits;
+
+        Contribution(Course course) {
+            this.instructor = instructorOf(course);
+            this.prefix = prefixOf(course.getCourseCode());
+            this.credits = course.getCredits();
+        }
+    }
+
+    /** Partial result of a parallel rebuild. */
+    private static final class Partial {
+        final Map<Integer, Contribution> courses = new HashMap<>();
+        final Map<String, Totals> instructors = new HashMap<>();
+        final Map<String, Totals> prefixes = new HashMap<>();
+        final long[] histogram = new long[MAX_CREDITS + 1];
+
+        void add(Course course) {
+            Contribution contribution = new Contribution(course);
+            courses.put(course.getCourseId(), contribution);
+            Totals one = new Totals(1, contribution.credits);
+            instructors.merge(contribution.instructor, one, Totals::plus);
+            prefixes.merge(contribution.prefix, one, Totals::plus);
+            histogram[bucket(contribution.credits)]++;
+        }
+
+        Partial merge(Partial other) {
+            courses.putAll(other.courses);
+            other.instructors.forEach((key, totals) -> instructors.merge(key, totals, Totals::plus));
+            other.prefixes.forEach((key, totals) -> prefixes.merge(key, totals, Totals::plus));
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            return this;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final Map<Integer, Contribution> courses = new HashMap<>();
+    private final ConcurrentHashMap<String, Totals> instructors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Totals> prefixes = new ConcurrentHashMap<>();
+    private final AtomicLongArray histogram = new AtomicLongArray(MAX_CREDITS + 1);
+    private volatile Totals catalog = Totals.EMPTY;
+
+    // --- Reads ---
+
+    /** Number of courses and their total credits. */
+    public Totals getCatalogTotals() {
+        return catalog;
+    }
+
+    /** Totals of one instructor (names compare as entered, trimmed); empty totals when unknown. */
+    public Totals getInstructorTotals(String instructor) {
+        return instructors.getOrDefault(instructor == null ? "" : instructor.trim(), Totals.EMPTY);
+    }
+
+    /** Totals of one code prefix, e.g. "CS"; case does not matter. */
+    public Totals getPrefixTotals(String prefix) {
+        return prefixes.getOrDefault(prefix == null ? "" : prefix.toUpperCase(Locale.ROOT), Totals.EMPTY);
+    }
+
+    /** Live read-only view of the totals per instructor. */
+    public Map<String, Totals> getInstructorTotals() {
+        return Collections.unmodifiableMap(instructors);
+    }
+
+    /** Live read-only view of the totals per code prefix. */
+    public Map<String, Totals> getPrefixTotals() {
+        return Collections.unmodifiableMap(prefixes);
+    }
+
+    /** Course count per credit value: element c is the number of courses with c credits (0..MAX_CREDITS). */
+    public long[] getCreditHistogram() {
+        long[] copy = new long[histogram.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = histogram.get(i);
+        }
+        return copy;
+    }
+
+    // --- Maintenance ---
+
+    /** Adds the course, or replaces what was counted under its id. */
+    public void index(Course course) {
+        lock.lock();
+        try {
+            Contribution contribution = new Contribution(course);
+            Contribution previous = courses.put(course.getCourseId(), contribution);
+            if (previous != null) {
+                subtract(previous);
+            }
+            add(contribution);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(int courseId) {
+        lock.lock();
+        try {
+            Contribution previous = courses.remove(courseId);
+            if (previous != null) {
+                subtract(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes everything from the catalog, splitting the courses over the common fork-join pool.
+     * Readers see the old totals until the new ones are installed.
+     */
+    public void rebuild(Collection<Course> catalogCourses) {
+        Partial rebuilt = catalogCourses.parallelStream()
+            .collect(Collector.of(Partial::new, Partial::add, Partial::merge));
+        lock.lock();
+        try {
+            courses.clear();
+            courses.putAll(rebuilt.courses);
+            instructors.keySet().retainAll(rebuilt.instructors.keySet());
+            instructors.putAll(rebuilt.instructors);
+            prefixes.keySet().retainAll(rebuilt.prefixes.keySet());
+            prefixes.putAll(rebuilt.prefixes);
+            long credits = 0;
+            for (int i = 0; i < rebuilt.histogram.length; i++) {
+                histogram.set(i, rebuilt.histogram[i]);
+            }
+            for (Contribution contribution : rebuilt.courses.values()) {
+                credits += contribution.credits;
+            }
+            catalog = new Totals(rebuilt.courses.size(), credits);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Internals (callers hold the lock) ---
+
+    private void add(Contribution contribution) {
+        Totals one = new Totals(1, contribution.credits);
+        instructors.merge(contribution.instructor, one, Totals::plus);
+        prefixes.merge(contribution.prefix, one, Totals::plus);
+        histogram.incrementAndGet(bucket(contribution.credits));
+        catalog = catalog.plus(one);
+    }
+
+    private void subtract(Contribution contribution) {
+        Totals one = new Totals(1, contribution.credits);
+        // A group whose last course left disappears
+        instructors.computeIfPresent(contribution.instructor, (key, totals) -> totals.courses == 1 ? null : totals.minus(one));
+        prefixes.computeIfPresent(contribution.prefix, (key, totals) -> totals.courses == 1 ? null : totals.minus(one));
+        histogram.decrementAndGet(bucket(contribution.credits));
+        catalog = catalog.minus(one);
+    }
+
+    private static int bucket(int credits) {
+        return Math.max(0, Math.min(MAX_CREDITS, credits));
+    }
+
+    private static String instructorOf(Course course) {
+        return course.getInstructor() == null ? "" : course.getInstructor().trim();
+    }
+
+    // Leading letters of the code, upper-cased: "ITLOJ602" -> "ITLOJ"
+    private static String prefixOf(String code) {
+        if (code == null) {
+            return "";
+        }
+        int end = 0;
+        while (end < code.length() && Character.isLetter(code.charAt(end))) {
+            end++;
+        }
+        return code.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
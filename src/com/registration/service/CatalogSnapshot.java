@@ -0,0 +1,252 @@
+package com.registration.service;
+
+import com.registration.db.ChangeSet;
+import com.registration.db.DatabaseConfig;
+import com.registration.db.UncheckedSQLException;
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * The whole catalog as of one change token, saved to a local file so the UI can show it before the
+ * database has answered. After loading it, {@link CourseService#getChangesSince} with {@link #getToken()}
+ * brings it up to date.
+ *
+ * File layout (big-endian): magic, format, source, token, instructor dictionary, then per course
+ * id, version, credits, instructor index, code, name and schedule, and a CRC32 of everything before it.
+ * Format 1 files (before schedules) are still read. The courses are held in a {@link ColumnarCatalog},
+ * so a large catalog is read and kept without a Course object per row.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43525353; // "CRSS"
+    private static final int FORMAT = 2;
+
+    private final String source;
+    private final long token;
+    private final ColumnarCatalog catalog;
+
+    /** {@code courses} must be sorted by id; {@code source} names the store the courses came from. */
+    public CatalogSnapshot(String source, long token, List<Course> courses) {
+        this(source, token, new ColumnarCatalog(courses.size()));
+        catalog.addAll(courses);
+    }
+
+    private CatalogSnapshot(String source, long token, ColumnarCatalog catalog) {
+        this.source = source;
+        this.token = token;
+        this.catalog = catalog;
+    }
+
+    public String getSource() { return source; }
+    public long getToken() { return token; }
+    /** Courses sorted by id, as read-only views of {@link #getCatalog()}. */
+    public List<Course> getCourses() { return catalog.asList(); }
+    /** The courses column by column, sorted by id; must not be modified. */
+    public ColumnarCatalog getCatalog() { return catalog; }
+
+    /** The store the configured backend reads from; a snapshot from any other store is ignored. */
+    public static String defaultSource() {
+        switch (DatabaseConfig.DAO_BACKEND.toLowerCase()) {
+            case "jdbc":
+                return "jdbc " + DatabaseConfig.URL;
+            case "mapped":
+                return "mapped " + DatabaseConfig.STORE_DIR;
+            case "remote":
+                return "remote " + DatabaseConfig.REMOTE_URL;
+            default:
+                return null; // nothing outlives the process, so there is nothing to snapshot
+        }
+    }
+
+    /** Snapshot file of the configured backend, or null when snapshots are off. */
+    public static Path defaultFile() {
+        return ServiceConfig.SNAPSHOT_ENABLED && defaultSource() != null ? Path.of(ServiceConfig.SNAPSHOT_FILE) : null;
+    }
+
+    /**
+     * Reads the catalog the service had at its current change token. The token is read first,
+     * so changes made during the read are merged again by the next getChangesSince.
+     */
+    public static CatalogSnapshot capture(CourseService service, String source) throws SQLException {
+        long token = service.getLatestChangeToken();
+        ColumnarCatalog catalog = new ColumnarCatalog();
+        // Streamed in id order: each Course only lives until its row is copied into the columns
+        try (Stream<Course> courses = service.streamCourses()) {
+            courses.forEach(catalog::add);
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        return new CatalogSnapshot(source, token, catalog);
+    }
+
+    /**
+     * A snapshot with the change set merged in; courses already at a newer version are kept.
+     * Resync change sets must be handled by a new capture.
+     */
+    public CatalogSnapshot withChanges(ChangeSet changes) {
+        return withChanges(List.of(changes));
+    }
+
+    /**
+     * A snapshot with the change sets merged in, in order. The catalog is copied once for all of them,
+     * so callers collect the change sets and merge them when the snapshot is needed (e.g. saved).
+     */
+    public CatalogSnapshot withChanges(List<ChangeSet> changeSets) {
+        ColumnarCatalog merged = new ColumnarCatalog(catalog);
+        long mergedToken = token;
+        for (ChangeSet changes : changeSets) {
+            if (changes.isResyncRequired()) {
+                throw new IllegalArgumentException("A resync change set cannot be merged into a snapshot");
+            }
+            for (Course course : changes.getUpserted()) {
+                int index = merged.binarySearch(course.getCourseId());
+                if (index >= 0) {
+                    if (merged.getVersion(index) <= course.getVersion()) {
+                        merged.set(index, course);
+                    }
+                } else {
+                    merged.add(-(index + 1), course);
+                }
+            }
+            for (int courseId : changes.getDeletedIds()) {
+                int index = merged.binarySearch(courseId);
+                if (index >= 0) {
+                    merged.remove(index);
+                }
+            }
+            mergedToken = Math.max(mergedToken, changes.getToken());
+        }
+        return new CatalogSnapshot(source, mergedToken, merged);
+    }
+
+    // --- File format ---
+
+    /** Writes the snapshot to a temporary file and moves it over {@code file}, so readers never see half of it. */
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + catalog.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeUTF(source);
+        out.writeLong(token);
+
+        // Instructors repeat across many courses; each is stored once
+        Map<String, Integer> instructorIndex = new HashMap<>();
+        List<String> instructors = new ArrayList<>();
+        for (int row = 0; row < catalog.size(); row++) {
+            if (instructorIndex.putIfAbsent(nullToEmpty(catalog.getInstructor(row)), instructors.size()) == null) {
+                instructors.add(nullToEmpty(catalog.getInstructor(row)));
+            }
+        }
+        out.writeInt(instructors.size());
+        for (String instructor : instructors) {
+            out.writeUTF(instructor);
+        }
+
+        out.writeInt(catalog.size());
+        for (int row = 0; row < catalog.size(); row++) {
+            out.writeInt(catalog.getCourseId(row));
+            out.writeLong(catalog.getVersion(row));
+            out.writeInt(catalog.getCredits(row));
+            out.writeInt(instructorIndex.get(nullToEmpty(catalog.getInstructor(row))));
+            out.writeUTF(nullToEmpty(catalog.getCourseCode(row)));
+            out.writeUTF(nullToEmpty(catalog.getCourseName(row)));
+            out.writeUTF(nullToEmpty(MeetingSlot.formatSchedule(catalog.getSchedule(row))));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}. Returns null when there is no file or it was taken from
+     * another store; a damaged file or an unknown format is an IOException.
+     */
+    public static CatalogSnapshot read(Path file, String source) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < 16) {
+            throw new IOException("Catalog snapshot " + file + " is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 8);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int format;
+        if (in.readInt() != MAGIC || (format = in.readInt()) < 1 || format > FORMAT) {
+            throw new IOException(file + " is not a catalog snapshot of this version");
+        }
+        in.skipNBytes(bytes.length - 16L);
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("Catalog snapshot " + file + " is damaged (checksum mismatch)");
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(bytes, 8, bytes.length - 16));
+        String snapshotSource = in.readUTF();
+        if (!snapshotSource.equals(source)) {
+            return null;
+        }
+        long token = in.readLong();
+        String[] instructors = new String[in.readInt()];
+        for (int i = 0; i < instructors.length; i++) {
+            instructors[i] = in.readUTF();
+        }
+        int count = in.readInt();
+        ColumnarCatalog catalog = new ColumnarCatalog(count);
+        // One Course carries every row into the columns
+        Course row = new Course(null, null, 0, null);
+        for (int i = 0; i < count; i++) {
+            row.setCourseId(in.readInt());
+            row.setVersion(in.readLong());
+            row.setCredits(in.readInt());
+            row.setInstructor(instructors[in.readInt()]);
+            row.setCourseCode(in.readUTF());
+            row.setCourseName(in.readUTF());
+            if (format >= 2) {
+                row.setSchedule(MeetingSlot.parseSchedule(in.readUTF()));
+            }
+            catalog.add(row);
+        }
+        return new CatalogSnapshot(snapshotSource, token, catalog);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
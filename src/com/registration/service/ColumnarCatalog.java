@@ -0,0 +1,512 @@
+package com.registration.service;
+
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Courses stored column by column, for catalogs of hundreds of thousands of rows. Ids, credits and
+ * versions sit in primitive arrays; instructors and code prefixes (the leading letters, "ITLOJ" of
+ * ITLOJ602) are indexes into dictionaries holding each distinct value once; the number ending a code
+ * is kept as an int; names are UTF-8 in one shared byte array. A row costs about 40 bytes plus its
+ * name, against roughly 200 for a Course and its Strings, and filling the columns leaves no objects
+ * per row behind for the collector.
+ *
+ * Rows stay in the order they are added. {@link #view} gives a read-only Course reading one row in
+ * place (flyweight) and {@link #getCourse} a detached copy to edit. Not thread-safe: fill it on one
+ * thread and publish it safely, or confine it (e.g. to the EDT).
+ */
+public class ColumnarCatalog {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // Code tails of 1..8 digits: (digits - 1) << 27 | value; other tails are -2 - dictionary index
+    private static final int TAIL_DIGITS_SHIFT = 27;
+    private static final int TAIL_VALUE_MASK = (1 << TAIL_DIGITS_SHIFT) - 1;
+    private static final int MAX_TAIL_DIGITS = 8;
+
+    /**
+     * Distinct strings, each held once and referred to by index; -1 stands for null. Open addressing
+     * over the values themselves, so a lookup by part of a string (a code prefix) allocates nothing.
+     */
+    private static final class Dictionary {
+        String[] values;
+        int size;
+        int[] slots; // Index into values, -1 when free; at most half full
+
+        Dictionary() {
+            values = new String[16];
+            slots = new int[32];
+            Arrays.fill(slots, -1);
+        }
+
+        Dictionary(Dictionary other) {
+            values = other.values.clone();
+            size = other.size;
+            slots = other.slots.clone();
+        }
+
+        int encode(String value) {
+            return value == null ? -1 : encode(value, 0, value.length());
+        }
+
+        // Index of text[from, to), added if new
+        int encode(String text, int from, int to) {
+            int mask = slots.length - 1;
+            for (int slot = hash(text, from, to) & mask; ; slot = (slot + 1) & mask) {
+                int index = slots[slot];
+                if (index < 0) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size] = from == 0 && to == text.length() ? text : text.substring(from, to);
+                    slots[slot] = size;
+                    if (++size * 2 > slots.length) {
+                        rehash();
+                    }
+                    return size - 1;
+                }
+                String value = values[index];
+                if (value.length() == to - from && value.regionMatches(0, text, from, to - from)) {
+                    return index;
+                }
+            }
+        }
+
+        String decode(int index) {
+            return index < 0 ? null : values[index];
+        }
+
+        // Index in this dictionary of every value of the other one
+        int[] remap(Dictionary other) {
+            int[] map = new int[other.size];
+            for (int i = 0; i < map.length; i++) {
+                map[i] = encode(other.values[i]);
+            }
+            return map;
+        }
+
+        void clear() {
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            Arrays.fill(slots, -1);
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            Arrays.fill(slots, -1);
+            int mask = slots.length - 1;
+            for (int index = 0; index < size; index++) {
+                int slot = hash(values[index], 0, values[index].length()) & mask;
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = index;
+            }
+        }
+
+        private static int hash(String text, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /** Read-only Course reading one row of the catalog; copy it with new Course(view) to keep or edit it. */
+    private final class RowView extends Course {
+        int row;
+
+        RowView(int row) {
+            super(null, null, 0, null);
+            this.row = row;
+        }
+
+        @Override public int getCourseId() { return ids[row]; }
+        @Override public String getCourseCode() { return ColumnarCatalog.this.getCourseCode(row); }
+        @Override public String getCourseName() { return ColumnarCatalog.this.getCourseName(row); }
+        @Override public int getCredits() { return credits[row]; }
+        @Override public String getInstructor() { return instructorNames.decode(instructors[row]); }
+        @Override public long getVersion() { return versions[row]; }
+        @Override public List<MeetingSlot> getSchedule() { return ColumnarCatalog.this.getSchedule(row); }
+
+        @Override public void setCourseId(int courseId) { throw readOnly(); }
+        @Override public void setCourseCode(String courseCode) { throw readOnly(); }
+        @Override public void setCourseName(String courseName) { throw readOnly(); }
+        @Override public void setCredits(int credits) { throw readOnly(); }
+        @Override public void setInstructor(String instructor) { throw readOnly(); }
+        @Override public void setVersion(long version) { throw readOnly(); }
+        @Override public void setSchedule(List<MeetingSlot> schedule) { throw readOnly(); }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Catalog rows are read-only; edit a copy (new Course(course))");
+        }
+    }
+
+    /** The rows as a read-only list of views. */
+    private final class RowList extends AbstractList<Course> implements RandomAccess {
+        @Override
+        public Course get(int index) {
+            return view(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private int size;
+    private int[] ids;
+    private int[] credits;
+    private long[] versions;
+    private int[] instructors;
+    private int[] codePrefixes;
+    private int[] codeTails;
+    private int[] nameOffsets;
+    private int[] nameLengths; // -1 for a null name
+    private Object[] schedules; // Immutable List<MeetingSlot>, null when not scheduled
+    private byte[] names;
+    private int namesUsed;
+    private int deadNameBytes; // Bytes of names that were replaced or removed
+    private final Dictionary instructorNames;
+    private final Dictionary prefixes;
+    private final Dictionary tails;
+
+    public ColumnarCatalog() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarCatalog(int capacity) {
+        allocate(Math.max(capacity, 1), new byte[Math.max(capacity, 1) * 16]);
+        instructorNames = new Dictionary();
+        prefixes = new Dictionary();
+        tails = new Dictionary();
+    }
+
+    /** Copy of another catalog (its columns are copied, not shared). */
+    public ColumnarCatalog(ColumnarCatalog other) {
+        size = other.size;
+        ids = Arrays.copyOf(other.ids, Math.max(size, 1));
+        credits = Arrays.copyOf(other.credits, ids.length);
+        versions = Arrays.copyOf(other.versions, ids.length);
+        instructors = Arrays.copyOf(other.instructors, ids.length);
+        codePrefixes = Arrays.copyOf(other.codePrefixes, ids.length);
+        codeTails = Arrays.copyOf(other.codeTails, ids.length);
+        nameOffsets = Arrays.copyOf(other.nameOffsets, ids.length);
+        nameLengths = Arrays.copyOf(other.nameLengths, ids.length);
+        schedules = Arrays.copyOf(other.schedules, ids.length);
+        names = Arrays.copyOf(other.names, Math.max(other.namesUsed, 16));
+        namesUsed = other.namesUsed;
+        deadNameBytes = other.deadNameBytes;
+        instructorNames = new Dictionary(other.instructorNames);
+        prefixes = new Dictionary(other.prefixes);
+        tails = new Dictionary(other.tails);
+    }
+
+    // --- Reads ---
+
+    public int size() {
+        return size;
+    }
+
+    public int getCourseId(int row) {
+        return ids[Objects.checkIndex(row, size)];
+    }
+
+    public String getCourseCode(int row) {
+        int prefix = codePrefixes[Objects.checkIndex(row, size)];
+        if (prefix < 0) {
+            return null;
+        }
+        String head = prefixes.decode(prefix);
+        int tail = codeTails[row];
+        if (tail < 0) {
+            return head + tails.decode(-2 - tail);
+        }
+        String number = Integer.toString(tail & TAIL_VALUE_MASK);
+        int digits = (tail >>> TAIL_DIGITS_SHIFT) + 1;
+        StringBuilder code = new StringBuilder(head.length() + digits).append(head);
+        for (int i = number.length(); i < digits; i++) {
+            code.append('0');
+        }
+        return code.append(number).toString();
+    }
+
+    public String getCourseName(int row) {
+        int length = nameLengths[Objects.checkIndex(row, size)];
+        if (length <= 0) {
+            return length < 0 ? null : "";
+        }
+        return new String(names, nameOffsets[row], length, StandardCharsets.UTF_8);
+    }
+
+    public int getCredits(int row) {
+        return credits[Objects.checkIndex(row, size)];
+    }
+
+    public String getInstructor(int row) {
+        return instructorNames.decode(instructors[Objects.checkIndex(row, size)]);
+    }
+
+    public long getVersion(int row) {
+        return versions[Objects.checkIndex(row, size)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<MeetingSlot> getSchedule(int row) {
+        Object schedule = schedules[Objects.checkIndex(row, size)];
+        return schedule == null ? List.of() : (List<MeetingSlot>) schedule;
+    }
+
+    /** A new Course holding the row's values, free to edit. */
+    public Course getCourse(int row) {
+        Course course = new Course(getCourseId(row), getCourseCode(row), getCourseName(row), credits[row], getInstructor(row), versions[row]);
+        course.setSchedule(getSchedule(row));
+        return course;
+    }
+
+    /**
+     * Read-only Course reading the row in place; nothing is decoded until a getter is called. The view
+     * follows the row position, so after rows are inserted or removed before it, it shows another course.
+     */
+    public Course view(int row) {
+        return new RowView(Objects.checkIndex(row, size));
+    }
+
+    /** Passes every row, in order, to the action as one view moved from row to row (copy it to keep it). */
+    public void forEach(Consumer<? super Course> action) {
+        RowView view = new RowView(0);
+        for (int row = 0; row < size; row++) {
+            view.row = row;
+            action.accept(view);
+        }
+    }
+
+    /** Live read-only list of row views. */
+    public List<Course> asList() {
+        return new RowList();
+    }
+
+    /** Row of the course with this id in a catalog sorted by id; negative result encodes the insertion point. */
+    public int binarySearch(int courseId) {
+        return Arrays.binarySearch(ids, 0, size, courseId);
+    }
+
+    // --- Writes ---
+
+    public void add(Course course) {
+        add(size, course);
+    }
+
+    /** Inserts the course at the given row, moving later rows down by one. */
+    public void add(int row, Course course) {
+        Objects.checkIndex(row, size + 1);
+        ensureCapacity(size + 1);
+        shift(row, row + 1, size - row);
+        size++;
+        write(row, course);
+    }
+
+    public void addAll(Iterable<? extends Course> courses) {
+        for (Course course : courses) {
+            add(size, course);
+        }
+    }
+
+    /** Appends every row of another catalog, copying columns without going through Course objects. */
+    public void addAll(ColumnarCatalog other) {
+        ensureCapacity(size + other.size);
+        ensureNameCapacity(other.namesUsed - other.deadNameBytes);
+        int[] instructorMap = instructorNames.remap(other.instructorNames);
+        int[] prefixMap = prefixes.remap(other.prefixes);
+        int[] tailMap = tails.remap(other.tails);
+        for (int from = 0; from < other.size; from++) {
+            int row = size++;
+            ids[row] = other.ids[from];
+            credits[row] = other.credits[from];
+            versions[row] = other.versions[from];
+            instructors[row] = other.instructors[from] < 0 ? -1 : instructorMap[other.instructors[from]];
+            codePrefixes[row] = other.codePrefixes[from] < 0 ? -1 : prefixMap[other.codePrefixes[from]];
+            int tail = other.codeTails[from];
+            codeTails[row] = tail >= 0 || tail == -1 ? tail : -2 - tailMap[-2 - tail];
+            schedules[row] = other.schedules[from];
+            int length = other.nameLengths[from];
+            nameLengths[row] = length;
+            if (length > 0) {
+                System.arraycopy(other.names, other.nameOffsets[from], names, namesUsed, length);
+                nameOffsets[row] = namesUsed;
+                namesUsed += length;
+            }
+        }
+    }
+
+    /** Replaces the row with the course. */
+    public void set(int row, Course course) {
+        Objects.checkIndex(row, size);
+        releaseName(row);
+        write(row, course);
+    }
+
+    public void remove(int row) {
+        Objects.checkIndex(row, size);
+        releaseName(row);
+        shift(row + 1, row, size - row - 1);
+        size--;
+        schedules[size] = null;
+    }
+
+    /** Removes every row; the allocated columns are kept for the next load. */
+    public void clear() {
+        Arrays.fill(schedules, 0, size, null);
+        size = 0;
+        namesUsed = 0;
+        deadNameBytes = 0;
+        instructorNames.clear();
+        prefixes.clear();
+        tails.clear();
+    }
+
+    // --- Internals ---
+
+    private void write(int row, Course course) {
+        ids[row] = course.getCourseId();
+        credits[row] = course.getCredits();
+        versions[row] = course.getVersion();
+        instructors[row] = instructorNames.encode(course.getInstructor());
+        writeCode(row, course.getCourseCode());
+        writeName(row, course.getCourseName());
+        schedules[row] = course.getSchedule().isEmpty() ? null : course.getSchedule();
+    }
+
+    // "ITLOJ602" -> prefix "ITLOJ" from the dictionary and tail 602 as a number
+    private void writeCode(int row, String code) {
+        if (code == null) {
+            codePrefixes[row] = -1;
+            codeTails[row] = -1;
+            return;
+        }
+        int end = 0;
+        while (end < code.length() && Character.isLetter(code.charAt(end))) {
+            end++;
+        }
+        codePrefixes[row] = prefixes.encode(code, 0, end);
+        int digits = code.length() - end;
+        int value = 0;
+        for (int i = end; i < code.length() && digits <= MAX_TAIL_DIGITS; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                digits = MAX_TAIL_DIGITS + 1;
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        codeTails[row] = digits >= 1 && digits <= MAX_TAIL_DIGITS
+            ? (digits - 1) << TAIL_DIGITS_SHIFT | value
+            : -2 - tails.encode(code, end, code.length());
+    }
+
+    private void writeName(int row, String name) {
+        if (name == null) {
+            nameLengths[row] = -1;
+            return;
+        }
+        // Whatever the row held before (a replaced name, or a row shifted or removed from this slot) is
+        // not live: compacting below must not copy it
+        nameLengths[row] = 0;
+        int length = name.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = name.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            // The usual case: one byte per char, written without a temporary array
+            ensureNameCapacity(length);
+            for (int i = 0; i < length; i++) {
+                names[namesUsed + i] = (byte) name.charAt(i);
+            }
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            length = bytes.length;
+            ensureNameCapacity(length);
+            System.arraycopy(bytes, 0, names, namesUsed, length);
+        }
+        nameOffsets[row] = namesUsed;
+        nameLengths[row] = length;
+        namesUsed += length;
+    }
+
+    private void releaseName(int row) {
+        if (nameLengths[row] > 0) {
+            deadNameBytes += nameLengths[row];
+        }
+    }
+
+    // Makes room for more name bytes, dropping replaced names when they take up half the array
+    private void ensureNameCapacity(int more) {
+        if (namesUsed + more <= names.length) {
+            return;
+        }
+        int live = namesUsed - deadNameBytes;
+        boolean compact = deadNameBytes > live;
+        int needed = (compact ? live : namesUsed) + more;
+        byte[] grown = new byte[needed + (needed >> 1)];
+        if (compact) {
+            int used = 0;
+            for (int row = 0; row < size; row++) {
+                if (nameLengths[row] > 0) {
+                    System.arraycopy(names, nameOffsets[row], grown, used, nameLengths[row]);
+                    nameOffsets[row] = used;
+                    used += nameLengths[row];
+                }
+            }
+            namesUsed = used;
+            deadNameBytes = 0;
+        } else {
+            System.arraycopy(names, 0, grown, 0, namesUsed);
+        }
+        names = grown;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            allocate(Math.max(capacity, ids.length + (ids.length >> 1)), names);
+        }
+    }
+
+    private void allocate(int capacity, byte[] nameBytes) {
+        ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+        credits = credits == null ? new int[capacity] : Arrays.copyOf(credits, capacity);
+        versions = versions == null ? new long[capacity] : Arrays.copyOf(versions, capacity);
+        instructors = instructors == null ? new int[capacity] : Arrays.copyOf(instructors, capacity);
+        codePrefixes = codePrefixes == null ? new int[capacity] : Arrays.copyOf(codePrefixes, capacity);
+        codeTails = codeTails == null ? new int[capacity] : Arrays.copyOf(codeTails, capacity);
+        nameOffsets = nameOffsets == null ? new int[capacity] : Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = nameLengths == null ? new int[capacity] : Arrays.copyOf(nameLengths, capacity);
+        schedules = schedules == null ? new Object[capacity] : Arrays.copyOf(schedules, capacity);
+        names = nameBytes;
+    }
+
+    // Moves rows [from, from + count) to start at row 'to' in every column
+    private void shift(int from, int to, int count) {
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(credits, from, credits, to, count);
+        System.arraycopy(versions, from, versions, to, count);
+        System.arraycopy(instructors, from, instructors, to, count);
+        System.arraycopy(codePrefixes, from, codePrefixes, to, count);
+        System.arraycopy(codeTails, from, codeTails, to, count);
+        System.arraycopy(nameOffsets, from, nameOffsets, to, count);
+        System.arraycopy(nameLengths, from, nameLengths, to, count);
+        System.arraycopy(schedules, from, schedules, to, count);
+    }
+}
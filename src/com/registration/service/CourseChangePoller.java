@@ -0,0 +1,88 @@
+package com.registration.service;
+
+import com.registration.db.ChangeSet;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Asks {@link CourseService#getChangesSince} for new changes on a background thread and hands every
+ * non-empty change set to the listeners (on the poller thread). A poll that finds nothing costs a
+ * single one-row query; otherwise only the changed rows are read.
+ */
+public class CourseChangePoller implements AutoCloseable {
+
+    private final CourseService service;
+    private final long intervalMs;
+    private final List<Consumer<ChangeSet>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+    private volatile long token;
+
+    public CourseChangePoller(CourseService service) {
+        this(service, ServiceConfig.SYNC_POLL_INTERVAL_MS);
+    }
+
+    public CourseChangePoller(CourseService service, long intervalMs) {
+        this.service = service;
+        this.intervalMs = intervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "course-change-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void addListener(Consumer<ChangeSet> listener) {
+        listeners.add(listener);
+    }
+
+    /** Starts polling for changes after {@code fromToken} (read it before loading the data it describes). */
+    public synchronized void start(long fromToken) {
+        if (task != null || intervalMs <= 0) {
+            return;
+        }
+        token = fromToken;
+        task = scheduler.scheduleWithFixedDelay(this::poll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Polls once as soon as possible, e.g. after this client wrote something. */
+    public void pollNow() {
+        if (!scheduler.isShutdown()) {
+            scheduler.execute(this::poll);
+        }
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    // Runs on the single poller thread only
+    private void poll() {
+        try {
+            ChangeSet changes = service.getChangesSince(token);
+            token = changes.getToken();
+            if (!changes.isEmpty()) {
+                for (Consumer<ChangeSet> listener : listeners) {
+                    listener.accept(changes);
+                }
+            }
+        } catch (SQLException e) {
+            // Database unreachable: keep the token and try again on the next tick
+            System.err.println("Sync Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Sync Error: " + e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,181 @@
+package com.registration.service;
+
+import com.registration.db.BatchResult;
+import com.registration.db.DatabaseConfig;
+import com.registration.db.RowFailure;
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams courses from CSV (code,name,credits,instructor[,schedule]) into the database.
+ * Rows are read in chunks; while one chunk is being inserted the next one is parsed,
+ * so at most two chunks are held in memory regardless of the file size.
+ * Failure indexes in the returned result are 1-based line numbers.
+ */
+public class CourseCsvImporter {
+    private final CourseService courseService;
+    private final int chunkSize;
+
+    public CourseCsvImporter(CourseService courseService) {
+        this(courseService, DatabaseConfig.BATCH_SIZE);
+    }
+
+    public CourseCsvImporter(CourseService courseService, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.courseService = courseService;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResult importCsv(Reader source) throws IOException, SQLException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "csv-import-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<RowFailure> failures = new ArrayList<>();
+        int inserted = 0;
+        Future<BatchResult> pending = null;
+        List<Long> pendingLines = null;
+
+        try {
+            List<Course> chunk = new ArrayList<>(chunkSize);
+            List<Long> lines = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                try {
+                    chunk.add(parseCourse(line));
+                    lines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    failures.add(new RowFailure(lineNumber, null, e.getMessage()));
+                }
+
+                if (chunk.size() == chunkSize) {
+                    // Wait for the previous chunk before handing over the next one (one chunk in flight)
+                    inserted += collect(pending, pendingLines, failures);
+                    pending = submit(writer, chunk);
+                    pendingLines = lines;
+                    chunk = new ArrayList<>(chunkSize);
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+
+            inserted += collect(pending, pendingLines, failures);
+            pending = null;
+            if (!chunk.isEmpty()) {
+                inserted += collect(submit(writer, chunk), lines, failures);
+            }
+        } finally {
+            if (pending != null) {
+                pending.cancel(true);
+            }
+            writer.shutdownNow();
+        }
+
+        failures.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+        return new BatchResult(inserted, failures);
+    }
+
+    private Future<BatchResult> submit(ExecutorService writer, List<Course> chunk) {
+        return writer.submit(() -> courseService.addCourses(chunk));
+    }
+
+    /** Waits for an in-flight chunk and translates its failures to line numbers. */
+    private int collect(Future<BatchResult> pending, List<Long> lines, List<RowFailure> failures) throws SQLException {
+        if (pending == null) {
+            return 0;
+        }
+        BatchResult result;
+        try {
+            result = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("CSV import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("CSV import failed", e.getCause());
+        }
+        for (RowFailure failure : result.getFailures()) {
+            failures.add(new RowFailure(lines.get((int) failure.getIndex()), failure.getCourse(), failure.getMessage()));
+        }
+        return result.getInsertedCount();
+    }
+
+    private boolean isHeader(String line) {
+        String lower = line.toLowerCase();
+        return lower.contains("code") && lower.contains("name");
+    }
+
+    private Course parseCourse(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != 4 && fields.size() != 5) {
+            throw new IllegalArgumentException("Expected 4 or 5 columns (code,name,credits,instructor[,schedule]) but found " + fields.size() + ".");
+        }
+        int credits;
+        try {
+            credits = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Credits must be a number: " + fields.get(2));
+        }
+        Course course = new Course(fields.get(0).trim(), fields.get(1).trim(), credits, fields.get(3).trim());
+        if (fields.size() == 5) {
+            course.setSchedule(MeetingSlot.parseSchedule(fields.get(4)));
+        }
+        return course;
+    }
+
+    /** Splits one CSV record, honouring double-quoted fields and "" escapes. */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
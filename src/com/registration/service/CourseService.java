@@ -1,25 +1,105 @@
 package com.registration.service;
 
+import com.registration.db.BatchResult;
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseColumn;
 import com.registration.db.CourseDAO;
+import com.registration.db.CourseDAOFactory;
 import com.registration.db.CourseDAOImpl;
+import com.registration.db.CourseWrite;
+import com.registration.db.DatabaseConfig;
+import com.registration.db.InstrumentedCourseDAO;
+import com.registration.db.RemoteCourseDAO;
+import com.registration.db.RoutingCourseDAO;
+import com.registration.db.RowFailure;
+import com.registration.db.UncheckedSQLException;
+import com.registration.metrics.Metrics;
 import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+import com.registration.schedule.ScheduleConflict;
+import com.registration.schedule.TimetableIndex;
+import com.registration.search.CourseSearchIndex;
+import com.registration.search.SearchResult;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 // Service layer for business logic and data validation
 public class CourseService {
+    // RegEx Requirement: 2-4 letters followed by 3 digits (e.g., CS101); compiled once, not per call
+    private static final Pattern COURSE_CODE_PATTERN = Pattern.compile("[A-Za-z]{4,6}[0-9]{3}");
+
     private final CourseDAO courseDAO;
+    // Built on the first search, then kept current by this service's writes
+    private volatile CourseSearchIndex searchIndex;
+    // Built on the first scheduled write or conflict query, kept current the same way
+    private volatile TimetableIndex timetable;
+    // Built on the first dashboard read, kept current the same way
+    private volatile CatalogAggregates aggregates;
+    // Clash check and write of a scheduled course happen together, so two clashing courses cannot both pass
+    private final ReentrantLock scheduleLock = new ReentrantLock();
 
     public CourseService() {
-        this.courseDAO = new CourseDAOImpl(); // Initializes the DAO
+        this(defaultDAO());
+    }
+
+    public CourseService(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
+        if (courseDAO instanceof WriteBehindCourseDAO) {
+            ((WriteBehindCourseDAO) courseDAO).addListener(this::reindexQueuedWrite);
+        }
+    }
+
+    /** The service used by the applications: instrumented unless metrics are disabled. */
+    public static CourseService create() {
+        return Metrics.ENABLED ? new InstrumentedCourseService() : new CourseService();
+    }
+
+    /**
+     * The backend selected in DatabaseConfig; the JDBC (also with replicas) and remote backends are wrapped in the course cache.
+     * With metrics enabled the backend itself is instrumented, so cache hits are not counted as DAO calls.
+     */
+    private static CourseDAO defaultDAO() {
+        CourseDAO backend = CourseDAOFactory.create();
+        CourseDAO dao = Metrics.ENABLED ? new InstrumentedCourseDAO(backend) : backend;
+        if (ServiceConfig.CACHE_ENABLED && (backend instanceof CourseDAOImpl || backend instanceof RoutingCourseDAO || backend instanceof RemoteCourseDAO)) {
+            dao = new CachingCourseDAO(dao);
+        }
+        if (ServiceConfig.WRITE_BEHIND_ENABLED) {
+            WriteBehindCourseDAO writeBehind = new WriteBehindCourseDAO(dao);
+            // Queued writes reach the database before the JVM exits
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    writeBehind.close();
+                } catch (SQLException e) {
+                    System.err.println("Database Error (Write Behind): " + e.getMessage());
+                }
+            }, "course-write-behind-shutdown"));
+            dao = writeBehind;
+        }
+        return dao;
+    }
+
+    /** Cache counters, or null when the service runs without a cache. */
+    public CacheStats getCacheStats() {
+        CourseDAO dao = courseDAO instanceof WriteBehindCourseDAO ? ((WriteBehindCourseDAO) courseDAO).getDelegate() : courseDAO;
+        return dao instanceof CachingCourseDAO ? ((CachingCourseDAO) dao).getStats() : null;
+    }
+
+    /** The write-behind queue, or null when writes go to the database immediately. */
+    public WriteBehindCourseDAO getWriteBehind() {
+        return courseDAO instanceof WriteBehindCourseDAO ? (WriteBehindCourseDAO) courseDAO : null;
     }
 
     // --- Validation (RegEx) ---
-    private void validateCourse(Course course) throws IllegalArgumentException {
-        // RegEx Requirement: 2-4 letters followed by 3 digits (e.g., CS101)
-        String codeRegex = "[A-Za-z]{4,6}[0-9]{3}"; 
-        if (!course.getCourseCode().matches(codeRegex)) {
+    public void validateCourse(Course course) throws IllegalArgumentException {
+        if (course.getCourseCode() == null || !COURSE_CODE_PATTERN.matcher(course.getCourseCode()).matches()) {
             throw new IllegalArgumentException("Invalid Course Code. Must be 2-4 letters + 3 digits (e.g., CS101).");
         }
         
@@ -36,31 +116,391 @@ public class CourseService {
         if (course.getInstructor() == null || course.getInstructor().trim().isEmpty()) {
             throw new IllegalArgumentException("Instructor name cannot be empty.");
         }
+
+        // A course cannot clash with itself
+        List<MeetingSlot> slots = course.getSchedule();
+        for (int i = 0; i < slots.size(); i++) {
+            for (int j = i + 1; j < slots.size(); j++) {
+                if (slots.get(i).overlaps(slots.get(j))) {
+                    throw new IllegalArgumentException("Meeting times overlap: " + slots.get(i) + " and " + slots.get(j) + ".");
+                }
+            }
+        }
     }
 
     // --- CRUD Service Methods ---
 
+    /** Adds the course; a schedule that clashes with another course's instructor or room is rejected. */
     public void addCourse(Course course) throws IllegalArgumentException, SQLException {
         validateCourse(course);
-        courseDAO.addCourse(course);
+        if (course.getSchedule().isEmpty()) {
+            courseDAO.addCourse(course);
+            indexCourse(course);
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            checkSchedule(getTimetable().findConflicts(course));
+            courseDAO.addCourse(course);
+            indexCourse(course);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Validates and inserts many courses with batched inserts.
+     * Invalid or rejected rows are reported in the result; failure indexes refer to positions in {@code courses}.
+     * Rows without a schedule are inserted first and without the schedule lock, so concurrent batches of
+     * them reach the database in parallel; only the scheduled rows are checked and inserted under it.
+     */
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        List<Course> unscheduled = new ArrayList<>();
+        List<Integer> unscheduledIndexes = new ArrayList<>();
+        List<Course> scheduled = new ArrayList<>();
+        List<Integer> scheduledIndexes = new ArrayList<>();
+        List<RowFailure> failures = new ArrayList<>();
+
+        int index = 0;
+        for (Course course : courses) {
+            try {
+                validateCourse(course);
+                if (course.getSchedule().isEmpty()) {
+                    unscheduled.add(course);
+                    unscheduledIndexes.add(index);
+                } else {
+                    scheduled.add(course);
+                    scheduledIndexes.add(index);
+                }
+            } catch (IllegalArgumentException e) {
+                failures.add(new RowFailure(index, course, e.getMessage()));
+            }
+            index++;
+        }
+
+        int inserted = insertValid(unscheduled, unscheduledIndexes, failures);
+        if (!scheduled.isEmpty()) {
+            scheduleLock.lock();
+            try {
+                // Scheduled rows are checked against the catalog and against the earlier rows of the batch
+                List<Course> valid = new ArrayList<>();
+                List<Integer> validIndexes = new ArrayList<>();
+                TimetableIndex batch = new TimetableIndex();
+                for (int i = 0; i < scheduled.size(); i++) {
+                    Course course = scheduled.get(i);
+                    Course probe = new Course(course);
+                    probe.setCourseId(-(scheduledIndexes.get(i) + 1)); // ids are assigned on insert
+                    try {
+                        List<ScheduleConflict> conflicts = new ArrayList<>(getTimetable().findConflicts(probe));
+                        conflicts.addAll(batch.findConflicts(probe));
+                        checkSchedule(conflicts);
+                        batch.index(probe);
+                        valid.add(course);
+                        validIndexes.add(scheduledIndexes.get(i));
+                    } catch (IllegalArgumentException e) {
+                        failures.add(new RowFailure(scheduledIndexes.get(i), course, e.getMessage()));
+                    }
+                }
+                inserted += insertValid(valid, validIndexes, failures);
+            } finally {
+                scheduleLock.unlock();
+            }
+        }
+        failures.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+        return new BatchResult(inserted, failures);
+    }
+
+    // Inserts validated rows and indexes the ones the database accepted; indexes map rows back to the caller's batch
+    private int insertValid(List<Course> rows, List<Integer> indexes, List<RowFailure> failures) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        BatchResult result = courseDAO.addCourses(rows);
+        boolean[] rejected = new boolean[rows.size()];
+        for (RowFailure failure : result.getFailures()) {
+            rejected[(int) failure.getIndex()] = true;
+            failures.add(new RowFailure(indexes.get((int) failure.getIndex()), failure.getCourse(), failure.getMessage()));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (!rejected[i]) {
+                indexCourse(rows.get(i));
+            }
+        }
+        return result.getInsertedCount();
     }
 
     public List<Course> getAllCourses() throws SQLException {
         return courseDAO.getAllCourses();
     }
 
-    public void updateCourse(Course course) throws IllegalArgumentException, SQLException {
+    public Course getCourseById(int courseId) throws SQLException {
+        return courseDAO.getCourseById(courseId);
+    }
+
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        if (courseCode == null || courseCode.trim().isEmpty()) {
+            throw new IllegalArgumentException("Course Code cannot be empty.");
+        }
+        return courseDAO.getCourseByCode(courseCode.trim());
+    }
+
+    /** One page of courses in id order, starting after {@code lastId} (use 0 for the first page). */
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return courseDAO.getCoursesAfter(lastId, limit);
+    }
+
+    /** Streams the whole catalog in constant memory. Close the stream (try-with-resources) when done. */
+    public Stream<Course> streamCourses(CourseColumn... columns) throws SQLException {
+        return streamCourses(DatabaseConfig.STREAM_FETCH_SIZE, columns);
+    }
+
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive.");
+        }
+        return courseDAO.streamCourses(fetchSize, columns);
+    }
+
+    /**
+     * Saves the course unless someone changed it after it was read (its version differs from the row's);
+     * a course with version 0 overwrites the row regardless. Never blocks edits of other courses.
+     */
+    public WriteResult updateCourse(Course course) throws IllegalArgumentException, SQLException {
         validateCourse(course);
         if (course.getCourseId() == 0) {
             throw new IllegalArgumentException("Cannot update a course without a valid ID.");
         }
-        courseDAO.updateCourse(course);
+        if (course.getSchedule().isEmpty()) {
+            return saveUpdate(course);
+        }
+        scheduleLock.lock();
+        try {
+            checkSchedule(getTimetable().findConflicts(course));
+            return saveUpdate(course);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private WriteResult saveUpdate(Course course) throws SQLException {
+        if (courseDAO.updateCourse(course)) {
+            indexCourse(course);
+            return WriteResult.applied(course);
+        }
+        return rejectedWrite(course.getCourseId());
+    }
+
+    public WriteResult deleteCourse(int courseId) throws SQLException {
+        return deleteCourse(courseId, 0);
     }
 
-    public void deleteCourse(int courseId) throws SQLException {
-        if (courseId <= 0) {
+    /** Deletes the course if it still has {@code expectedVersion} (0 = any version). */
+    public WriteResult deleteCourse(int courseId, long expectedVersion) throws SQLException {
+        // Negative ids are queued adds, which can be deleted before they are written
+        if (courseId == 0 || (courseId < 0 && getWriteBehind() == null)) {
              throw new IllegalArgumentException("Invalid Course ID for deletion.");
         }
-        courseDAO.deleteCourse(courseId);
+        if (courseDAO.deleteCourse(courseId, expectedVersion)) {
+            removeFromIndex(courseId);
+            return WriteResult.applied(null);
+        }
+        return rejectedWrite(courseId);
+    }
+
+    // Reads the current row to tell a conflict from a course deleted meanwhile
+    private WriteResult rejectedWrite(int courseId) throws SQLException {
+        Course current = courseDAO.getCourseById(courseId);
+        if (current == null) {
+            removeFromIndex(courseId);
+            return WriteResult.notFound();
+        }
+        indexCourse(current);
+        return WriteResult.conflict(current);
+    }
+
+    // --- Delta synchronisation ---
+
+    public long getLatestChangeToken() throws SQLException {
+        return courseDAO.getLatestChangeToken();
+    }
+
+    /** Changes after {@code token}; the cache, the search index and the timetable are brought up to date as well. */
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        ChangeSet changes = courseDAO.getChangesSince(token);
+        if (changes.isResyncRequired()) {
+            // Rebuilt on next use
+            searchIndex = null;
+            timetable = null;
+            aggregates = null;
+            return changes;
+        }
+        for (Course course : changes.getUpserted()) {
+            indexCourse(course);
+        }
+        for (int id : changes.getDeletedIds()) {
+            removeFromIndex(id);
+        }
+        return changes;
+    }
+
+    // --- Search ---
+
+    /**
+     * Ranked search over course codes (prefix), names and instructors (word prefixes).
+     * The first call loads the catalog into the in-memory index.
+     */
+    public SearchResult searchCourses(String query, int offset, int limit) throws SQLException {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Invalid search page.");
+        }
+        return getSearchIndex().search(query, offset, limit);
+    }
+
+    private CourseSearchIndex getSearchIndex() throws SQLException {
+        CourseSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new CourseSearchIndex();
+                    long token = courseDAO.getLatestChangeToken();
+                    try (Stream<Course> catalog = streamCourses()) {
+                        index.rebuild(catalog::iterator);
+                    } catch (UncheckedSQLException e) {
+                        throw e.getCause();
+                    }
+                    searchIndex = index;
+                    // Catch up with writes made by other clients while the catalog was streamed
+                    getChangesSince(token);
+                }
+            }
+        }
+        return index;
+    }
+
+    // --- Timetable ---
+
+    /** Instructor and room clashes the course would have with the catalog (its own id excluded). */
+    public List<ScheduleConflict> findScheduleConflicts(Course course) throws SQLException {
+        return getTimetable().findConflicts(course);
+    }
+
+    /** Every instructor and room clash in the catalog, computed in parallel over instructors and rooms. */
+    public List<ScheduleConflict> getConflictReport() throws SQLException {
+        return getTimetable().conflictReport();
+    }
+
+    /** Clashes in the students' timetables ({@code timetables} maps a student id to the course ids they take). */
+    public List<ScheduleConflict> getStudentConflicts(Map<String, ? extends Collection<Integer>> timetables) throws SQLException {
+        return getTimetable().studentConflictReport(timetables);
+    }
+
+    // --- Dashboard aggregates ---
+
+    /**
+     * Credits per instructor, course counts per code prefix and the credit histogram, kept current by this
+     * service's writes and the change feed. The first call loads the catalog.
+     */
+    public CatalogAggregates getAggregates() throws SQLException {
+        CatalogAggregates current = aggregates;
+        if (current == null) {
+            synchronized (this) {
+                current = aggregates;
+                if (current == null) {
+                    current = rebuildAggregates();
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Recomputes the aggregates from the database in parallel, e.g. when they are suspected to have drifted. */
+    public synchronized CatalogAggregates rebuildAggregates() throws SQLException {
+        CatalogAggregates current = aggregates != null ? aggregates : new CatalogAggregates();
+        long token = courseDAO.getLatestChangeToken();
+        List<Course> catalog;
+        try (Stream<Course> courses = streamCourses(CourseColumn.CODE, CourseColumn.CREDITS, CourseColumn.INSTRUCTOR)) {
+            catalog = courses.toList();
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        current.rebuild(catalog);
+        aggregates = current;
+        // Writes made while the catalog was read are applied again on top of it
+        getChangesSince(token);
+        return current;
+    }
+
+    private static void checkSchedule(List<ScheduleConflict> conflicts) {
+        if (!conflicts.isEmpty()) {
+            throw new IllegalArgumentException("Schedule clash: " + conflicts.get(0)
+                + (conflicts.size() > 1 ? " (and " + (conflicts.size() - 1) + " more)" : "") + ".");
+        }
+    }
+
+    private TimetableIndex getTimetable() throws SQLException {
+        TimetableIndex index = timetable;
+        if (index == null) {
+            synchronized (this) {
+                index = timetable;
+                if (index == null) {
+                    index = new TimetableIndex();
+                    long token = courseDAO.getLatestChangeToken();
+                    try (Stream<Course> catalog = streamCourses(CourseColumn.CODE, CourseColumn.INSTRUCTOR, CourseColumn.SCHEDULE)) {
+                        index.rebuild(catalog::iterator);
+                    } catch (UncheckedSQLException e) {
+                        throw e.getCause();
+                    }
+                    timetable = index;
+                    getChangesSince(token);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void indexCourse(Course course) {
+        CourseSearchIndex index = searchIndex;
+        if (index != null) {
+            index.index(course);
+        }
+        TimetableIndex schedule = timetable;
+        if (schedule != null) {
+            schedule.index(course);
+        }
+        CatalogAggregates totals = aggregates;
+        if (totals != null) {
+            totals.index(course);
+        }
+    }
+
+    // A queued add is indexed under its provisional id until it is written
+    private void reindexQueuedWrite(WriteBehindCourseDAO.Outcome outcome) {
+        if (outcome.getKind() == CourseWrite.Kind.INSERT) {
+            removeFromIndex(outcome.getSubmittedId());
+            if (outcome.isApplied() && outcome.getResult().getCourse() != null) {
+                indexCourse(outcome.getResult().getCourse());
+            }
+        } else if (!outcome.isApplied()) {
+            removeFromIndex(outcome.getSubmittedId()); // the next change set brings the current row back
+        }
+    }
+
+    private void removeFromIndex(int courseId) {
+        CourseSearchIndex index = searchIndex;
+        if (index != null) {
+            index.remove(courseId);
+        }
+        TimetableIndex schedule = timetable;
+        if (schedule != null) {
+            schedule.remove(courseId);
+        }
+        CatalogAggregates totals = aggregates;
+        if (totals != null) {
+            totals.remove(courseId);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,416 @@
+package com.registration.service;
+
+import com.registration.db.CourseDAOFactory;
+import com.registration.db.EnrollmentDAO;
+import com.registration.model.Enrollment;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Enrolls students into courses with a seat capacity each, built for registration day when everyone
+ * asks for the same few courses at once.
+ *
+ * A course's free seats are an AtomicInteger: while seats remain, an enrollment takes one with a single
+ * compare-and-set from n to n-1 (n > 0) and no lock, so a course is never oversold. Only when the course
+ * is full does a request take the course's fair lock and join the waitlist in arrival order. A drop hands
+ * its seat straight to the head of the waitlist under that lock, so nobody can overtake the queue.
+ *
+ * Every change gets a sequence number and is saved in the background, in one transaction per batch
+ * (EnrollmentDAO keeps the highest sequence per student, so a batch can be replayed after a failure).
+ * Changes are acknowledged before they are saved; {@link #flush()} saves everything acknowledged so far.
+ */
+public class EnrollmentService implements AutoCloseable {
+
+    // Marks a student whose enrollment is being decided; never saved or returned
+    private static final Enrollment PENDING = new Enrollment(0, "", null, 0);
+
+    private static final class CourseSeats {
+        final ReentrantLock lock = new ReentrantLock(true);
+        // Free seats; negative while more students are enrolled than a lowered capacity allows
+        final AtomicInteger available;
+        final AtomicInteger enrolled = new AtomicInteger();
+        // Current enrollment per enrolled or waitlisted student
+        final Map<String, Enrollment> students = new ConcurrentHashMap<>();
+        // Guarded by lock
+        final ArrayDeque<String> waitlist = new ArrayDeque<>();
+        int capacity;
+
+        CourseSeats(int capacity) {
+            this.capacity = capacity;
+            this.available = new AtomicInteger(capacity);
+        }
+
+        boolean tryTakeSeat() {
+            for (int free = available.get(); free > 0; free = available.get()) {
+                if (available.compareAndSet(free, free - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final CourseService courseService;
+    private final EnrollmentDAO dao;
+    private final Map<Integer, CourseSeats> courses = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> capacities;
+    private final AtomicLong sequence;
+
+    // Changes acknowledged but not saved yet
+    private final ConcurrentLinkedQueue<Enrollment> unsaved = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger unsavedCount = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService writer;
+    private final int batchSize;
+    // After a failed save the background writer waits a second before trying again
+    private volatile long retryAtNanos;
+
+    public EnrollmentService(CourseService courseService, EnrollmentDAO dao) throws SQLException {
+        this(courseService, dao, ServiceConfig.ENROLLMENT_BATCH_SIZE, ServiceConfig.ENROLLMENT_FLUSH_MS);
+    }
+
+    /** Loads the stored capacities and enrollments; changes are saved once {@code batchSize} wait, or after {@code flushMillis}. */
+    public EnrollmentService(CourseService courseService, EnrollmentDAO dao, int batchSize, long flushMillis) throws SQLException {
+        this.courseService = courseService;
+        this.dao = dao;
+        this.batchSize = Math.max(1, batchSize);
+        this.capacities = new ConcurrentHashMap<>(dao.getCapacities());
+        this.sequence = new AtomicLong(dao.getLastSequence());
+        // In sequence order, so waitlists come back in the order students joined them
+        for (Enrollment enrollment : dao.getEnrollments()) {
+            CourseSeats seats = courses.computeIfAbsent(enrollment.getCourseId(), id -> new CourseSeats(capacityOf(id)));
+            seats.students.put(enrollment.getStudentId(), enrollment);
+            if (enrollment.getStatus() == Enrollment.Status.ENROLLED) {
+                seats.enrolled.incrementAndGet();
+                seats.available.decrementAndGet();
+            } else {
+                seats.waitlist.addLast(enrollment.getStudentId());
+            }
+        }
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "enrollment-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flushInBackground, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Service on the configured backend's EnrollmentDAO; unsaved changes are saved when the JVM exits. */
+    public static EnrollmentService create(CourseService courseService) throws SQLException {
+        EnrollmentService service = new EnrollmentService(courseService, CourseDAOFactory.createEnrollmentDAO());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                service.close();
+            } catch (SQLException e) {
+                System.err.println("Database Error (Enrollment Shutdown): " + e.getMessage());
+            }
+        }, "enrollment-writer-shutdown"));
+        return service;
+    }
+
+    // --- Enrolling and dropping ---
+
+    /**
+     * Enrolls the student if the course has a free seat, otherwise puts them at the end of its waitlist.
+     * Enrolling again returns the student's current enrollment unchanged.
+     */
+    public Enrollment enroll(String studentId, int courseId) throws SQLException {
+        validateStudentId(studentId);
+        CourseSeats seats = seatsOf(courseId);
+        if (seats.students.putIfAbsent(studentId, PENDING) != null) {
+            Enrollment current = settled(seats, studentId);
+            if (current != null) {
+                return current;
+            }
+            return enroll(studentId, courseId); // dropped in the meantime: start over
+        }
+        if (seats.tryTakeSeat()) {
+            return admit(seats, courseId, studentId);
+        }
+        seats.lock.lock();
+        try {
+            // A drop may have given a seat back since the first try
+            if (seats.tryTakeSeat()) {
+                return admit(seats, courseId, studentId);
+            }
+            Enrollment waitlisted = record(courseId, studentId, Enrollment.Status.WAITLISTED);
+            seats.waitlist.addLast(studentId);
+            seats.students.put(studentId, waitlisted);
+            return waitlisted;
+        } finally {
+            seats.lock.unlock();
+        }
+    }
+
+    // The change is queued before the student shows as enrolled, so a later drop always has a higher sequence
+    private Enrollment admit(CourseSeats seats, int courseId, String studentId) {
+        Enrollment enrolled = record(courseId, studentId, Enrollment.Status.ENROLLED);
+        seats.enrolled.incrementAndGet();
+        seats.students.put(studentId, enrolled);
+        return enrolled;
+    }
+
+    /** Drops an enrolled or waitlisted student; a freed seat goes to the head of the waitlist. False if not in the course. */
+    public boolean drop(String studentId, int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        if (seats == null || studentId == null) {
+            return false;
+        }
+        while (true) {
+            Enrollment current = settled(seats, studentId);
+            if (current == null) {
+                return false;
+            }
+            seats.lock.lock();
+            try {
+                if (seats.students.get(studentId) != current) {
+                    continue; // dropped or promoted meanwhile: look again
+                }
+                seats.students.remove(studentId);
+                record(courseId, studentId, Enrollment.Status.DROPPED);
+                if (current.getStatus() == Enrollment.Status.WAITLISTED) {
+                    seats.waitlist.remove(studentId);
+                } else {
+                    seats.enrolled.decrementAndGet();
+                    releaseSeat(seats, courseId);
+                }
+                return true;
+            } finally {
+                seats.lock.unlock();
+            }
+        }
+    }
+
+    // Under the course lock, for one seat given back: the head of the waitlist gets it unless the course is overbooked
+    private void releaseSeat(CourseSeats seats, int courseId) {
+        if (seats.waitlist.isEmpty() || seats.available.get() < 0) {
+            seats.available.incrementAndGet();
+            return;
+        }
+        String next = seats.waitlist.pollFirst();
+        Enrollment promoted = record(courseId, next, Enrollment.Status.ENROLLED);
+        seats.enrolled.incrementAndGet();
+        seats.students.put(next, promoted);
+    }
+
+    // The student's enrollment once no other call is still deciding it; null if not in the course
+    private static Enrollment settled(CourseSeats seats, String studentId) {
+        Enrollment current = seats.students.get(studentId);
+        while (current == PENDING) {
+            Thread.yield(); // a compare-and-set or the course lock away; yielding also frees the carrier of a virtual thread
+            current = seats.students.get(studentId);
+        }
+        return current;
+    }
+
+    /** Changes the course's seat capacity; new seats go to the waitlist first. Lowering it never removes anyone. */
+    public void setCapacity(int courseId, int capacity) throws SQLException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        CourseSeats seats = seatsOf(courseId);
+        seats.lock.lock();
+        try {
+            dao.setCapacity(courseId, capacity);
+            capacities.put(courseId, capacity);
+            int added = capacity - seats.capacity;
+            seats.capacity = capacity;
+            while (added > 0 && !seats.waitlist.isEmpty()) {
+                releaseSeat(seats, courseId);
+                added--;
+            }
+            seats.available.addAndGet(added);
+        } finally {
+            seats.lock.unlock();
+        }
+    }
+
+    // --- Queries ---
+
+    /** The student's current enrollment (ENROLLED or WAITLISTED), or null. */
+    public Enrollment getEnrollment(String studentId, int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        return seats == null || studentId == null ? null : settled(seats, studentId);
+    }
+
+    /** 1-based place on the course's waitlist, or 0 when the student is not waiting. */
+    public int getWaitlistPosition(String studentId, int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        if (seats == null) {
+            return 0;
+        }
+        seats.lock.lock();
+        try {
+            int position = 1;
+            for (String waiting : seats.waitlist) {
+                if (waiting.equals(studentId)) {
+                    return position;
+                }
+                position++;
+            }
+            return 0;
+        } finally {
+            seats.lock.unlock();
+        }
+    }
+
+    public int getCapacity(int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        return seats != null ? seats.capacity : capacityOf(courseId);
+    }
+
+    public int getAvailableSeats(int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        return seats != null ? Math.max(0, seats.available.get()) : capacityOf(courseId);
+    }
+
+    public int getEnrolledCount(int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        return seats != null ? seats.enrolled.get() : 0;
+    }
+
+    /** Enrolled students, in no particular order. */
+    public List<String> getEnrolledStudents(int courseId) {
+        List<String> enrolled = new ArrayList<>();
+        CourseSeats seats = courses.get(courseId);
+        if (seats != null) {
+            seats.students.forEach((student, enrollment) -> {
+                if (enrollment.getStatus() == Enrollment.Status.ENROLLED) {
+                    enrolled.add(student);
+                }
+            });
+        }
+        return enrolled;
+    }
+
+    /** Waitlisted students, first in line first. */
+    public List<String> getWaitlist(int courseId) {
+        CourseSeats seats = courses.get(courseId);
+        if (seats == null) {
+            return new ArrayList<>();
+        }
+        seats.lock.lock();
+        try {
+            return new ArrayList<>(seats.waitlist);
+        } finally {
+            seats.lock.unlock();
+        }
+    }
+
+    /** Courses each student is enrolled in (waitlists excluded), for {@link CourseService#getStudentConflicts}. */
+    public Map<String, List<Integer>> getTimetables() {
+        Map<String, List<Integer>> timetables = new HashMap<>();
+        courses.forEach((courseId, seats) -> seats.students.forEach((student, enrollment) -> {
+            if (enrollment.getStatus() == Enrollment.Status.ENROLLED) {
+                timetables.computeIfAbsent(student, key -> new ArrayList<>()).add(courseId);
+            }
+        }));
+        return timetables;
+    }
+
+    /** Changes acknowledged but not saved yet. */
+    public int getUnsavedCount() {
+        return unsavedCount.get();
+    }
+
+    // --- Saving ---
+
+    private Enrollment record(int courseId, String studentId, Enrollment.Status status) {
+        Enrollment change = new Enrollment(courseId, studentId, status, sequence.incrementAndGet());
+        unsaved.add(change);
+        if (unsavedCount.incrementAndGet() >= batchSize && flushQueued.compareAndSet(false, true)) {
+            writer.execute(this::flushInBackground);
+        }
+        return change;
+    }
+
+    /**
+     * Saves every change acknowledged so far as one batch. Several changes of the same student in the
+     * same course collapse into the latest. If saving fails, the changes stay queued for the next flush.
+     */
+    public void flush() throws SQLException {
+        flushLock.lock();
+        try {
+            Map<String, Enrollment> batch = new LinkedHashMap<>();
+            for (Enrollment change = unsaved.poll(); change != null; change = unsaved.poll()) {
+                unsavedCount.decrementAndGet();
+                batch.merge(change.getCourseId() + "/" + change.getStudentId(), change,
+                    (earlier, later) -> later.getSequence() > earlier.getSequence() ? later : earlier);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                dao.saveEnrollments(new ArrayList<>(batch.values()));
+            } catch (SQLException | RuntimeException e) {
+                unsaved.addAll(batch.values());
+                unsavedCount.addAndGet(batch.size());
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushInBackground() {
+        flushQueued.set(false);
+        if (System.nanoTime() - retryAtNanos < 0) {
+            return;
+        }
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            // The DAO logged the cause; the changes stay queued
+            retryAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            if (e instanceof RuntimeException) {
+                System.err.println("Enrollment Save Error: " + e);
+            }
+        }
+    }
+
+    /** Stops the background writer and saves what is still unsaved. */
+    @Override
+    public void close() throws SQLException {
+        writer.shutdown();
+        flush();
+    }
+
+    // --- Helpers ---
+
+    private CourseSeats seatsOf(int courseId) throws SQLException {
+        CourseSeats seats = courses.get(courseId);
+        if (seats != null) {
+            return seats;
+        }
+        if (courseService.getCourseById(courseId) == null) {
+            throw new IllegalArgumentException("Course " + courseId + " does not exist.");
+        }
+        return courses.computeIfAbsent(courseId, id -> new CourseSeats(capacityOf(id)));
+    }
+
+    private int capacityOf(int courseId) {
+        return capacities.getOrDefault(courseId, ServiceConfig.ENROLLMENT_DEFAULT_CAPACITY);
+    }
+
+    private static void validateStudentId(String studentId) {
+        if (studentId == null || studentId.isBlank() || studentId.length() > 32) {
+            throw new IllegalArgumentException("Student id must be 1 to 32 characters.");
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.registration.service;
+
+import com.registration.db.BatchResult;
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseColumn;
+import com.registration.db.CourseDAO;
+import com.registration.metrics.Metrics;
+import com.registration.metrics.OperationMetrics;
+import com.registration.model.Course;
+import com.registration.schedule.ScheduleConflict;
+import com.registration.search.SearchResult;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * CourseService recording call counts, errors and latency of every public method as service.&lt;method&gt;
+ * operations in {@link Metrics}. Created by {@link CourseService#create()} while metrics are enabled.
+ */
+public class InstrumentedCourseService extends CourseService {
+
+    private final OperationMetrics validateCourseOp = Metrics.operation("service.validateCourse");
+    private final OperationMetrics addCourseOp = Metrics.operation("service.addCourse");
+    private final OperationMetrics addCoursesOp = Metrics.operation("service.addCourses");
+    private final OperationMetrics getAllCoursesOp = Metrics.operation("service.getAllCourses");
+    private final OperationMetrics getCourseByIdOp = Metrics.operation("service.getCourseById");
+    private final OperationMetrics getCourseByCodeOp = Metrics.operation("service.getCourseByCode");
+    private final OperationMetrics getCoursesAfterOp = Metrics.operation("service.getCoursesAfter");
+    private final OperationMetrics streamCoursesOp = Metrics.operation("service.streamCourses");
+    private final OperationMetrics updateCourseOp = Metrics.operation("service.updateCourse");
+    private final OperationMetrics deleteCourseOp = Metrics.operation("service.deleteCourse");
+    private final OperationMetrics getLatestChangeTokenOp = Metrics.operation("service.getLatestChangeToken");
+    private final OperationMetrics getChangesSinceOp = Metrics.operation("service.getChangesSince");
+    private final OperationMetrics searchCoursesOp = Metrics.operation("service.searchCourses");
+    private final OperationMetrics findScheduleConflictsOp = Metrics.operation("service.findScheduleConflicts");
+    private final OperationMetrics getConflictReportOp = Metrics.operation("service.getConflictReport");
+    private final OperationMetrics getStudentConflictsOp = Metrics.operation("service.getStudentConflicts");
+    private final OperationMetrics getAggregatesOp = Metrics.operation("service.getAggregates");
+    private final OperationMetrics rebuildAggregatesOp = Metrics.operation("service.rebuildAggregates");
+
+    public InstrumentedCourseService() {
+        super();
+    }
+
+    public InstrumentedCourseService(CourseDAO courseDAO) {
+        super(courseDAO);
+    }
+
+    @Override
+    public void validateCourse(Course course) throws IllegalArgumentException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            super.validateCourse(course);
+            failed = false;
+        } finally {
+            finish(validateCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public void addCourse(Course course) throws IllegalArgumentException, SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            super.addCourse(course);
+            failed = false;
+        } finally {
+            finish(addCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            BatchResult result = super.addCourses(courses);
+            failed = false;
+            return result;
+        } finally {
+            finish(addCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<Course> result = super.getAllCourses();
+            failed = false;
+            return result;
+        } finally {
+            finish(getAllCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public Course getCourseById(int courseId) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Course result = super.getCourseById(courseId);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCourseByIdOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Course result = super.getCourseByCode(courseCode);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCourseByCodeOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<Course> result = super.getCoursesAfter(lastId, limit);
+            failed = false;
+            return result;
+        } finally {
+            finish(getCoursesAfterOp, start, acquired, failed);
+        }
+    }
+
+    // Covers streamCourses(columns) too, which delegates here
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            Stream<Course> result = super.streamCourses(fetchSize, columns);
+            failed = false;
+            return result;
+        } finally {
+            finish(streamCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public WriteResult updateCourse(Course course) throws IllegalArgumentException, SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            WriteResult result = super.updateCourse(course);
+            failed = false;
+            return result;
+        } finally {
+            finish(updateCourseOp, start, acquired, failed);
+        }
+    }
+
+    // Covers deleteCourse(courseId) too, which delegates here
+    @Override
+    public WriteResult deleteCourse(int courseId, long expectedVersion) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            WriteResult result = super.deleteCourse(courseId, expectedVersion);
+            failed = false;
+            return result;
+        } finally {
+            finish(deleteCourseOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            long result = super.getLatestChangeToken();
+            failed = false;
+            return result;
+        } finally {
+            finish(getLatestChangeTokenOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            ChangeSet result = super.getChangesSince(token);
+            failed = false;
+            return result;
+        } finally {
+            finish(getChangesSinceOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public SearchResult searchCourses(String query, int offset, int limit) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            SearchResult result = super.searchCourses(query, offset, limit);
+            failed = false;
+            return result;
+        } finally {
+            finish(searchCoursesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<ScheduleConflict> findScheduleConflicts(Course course) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<ScheduleConflict> result = super.findScheduleConflicts(course);
+            failed = false;
+            return result;
+        } finally {
+            finish(findScheduleConflictsOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<ScheduleConflict> getConflictReport() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<ScheduleConflict> result = super.getConflictReport();
+            failed = false;
+            return result;
+        } finally {
+            finish(getConflictReportOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public List<ScheduleConflict> getStudentConflicts(Map<String, ? extends Collection<Integer>> timetables) throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            List<ScheduleConflict> result = super.getStudentConflicts(timetables);
+            failed = false;
+            return result;
+        } finally {
+            finish(getStudentConflictsOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public CatalogAggregates getAggregates() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            CatalogAggregates result = super.getAggregates();
+            failed = false;
+            return result;
+        } finally {
+            finish(getAggregatesOp, start, acquired, failed);
+        }
+    }
+
+    @Override
+    public CatalogAggregates rebuildAggregates() throws SQLException {
+        long start = System.nanoTime();
+        long acquired = Metrics.threadAcquireNanos();
+        boolean failed = true;
+        try {
+            CatalogAggregates result = super.rebuildAggregates();
+            failed = false;
+            return result;
+        } finally {
+            finish(rebuildAggregatesOp, start, acquired, failed);
+        }
+    }
+
+    private static void finish(OperationMetrics metrics, long start, long acquiredBefore, boolean failed) {
+        metrics.record(System.nanoTime() - start, Metrics.threadAcquireNanos() - acquiredBefore, failed);
+    }
+}
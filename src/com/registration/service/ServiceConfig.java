@@ -0,0 +1,29 @@
+package com.registration.service;
+
+//Configuration constants for the service layer (override with -Dregistration.<name>=<value>)
+public class ServiceConfig {
+ // Course cache: maximum number of cached courses and how long an entry stays fresh
+ public static final int CACHE_MAX_SIZE = Integer.getInteger("registration.cache.maxSize", 200_000);
+ public static final long CACHE_TTL_MS = Long.getLong("registration.cache.ttlMs", 60_000);
+ public static final boolean CACHE_ENABLED = !Boolean.getBoolean("registration.cache.disabled");
+ // How often the UI asks for changes made by other clients; 0 disables polling
+ public static final long SYNC_POLL_INTERVAL_MS = Long.getLong("registration.sync.pollMs", 2_000);
+ // AsyncCourseService: calls running at once (defaults to the connection pool size) and per-call timeout (0 = none)
+ public static final int ASYNC_MAX_CONCURRENCY = Integer.getInteger("registration.async.maxConcurrency",
+     com.registration.db.DatabaseConfig.POOL_MAX_SIZE);
+ public static final long ASYNC_TIMEOUT_MS = Long.getLong("registration.async.timeoutMs", 30_000);
+ // Write-behind: queue adds, updates and deletes and write them in group commits of up to MAX_BATCH
+ // courses, at the latest FLUSH_MS after the first queued write
+ public static final boolean WRITE_BEHIND_ENABLED = Boolean.getBoolean("registration.writeBehind");
+ public static final int WRITE_BEHIND_MAX_BATCH = Integer.getInteger("registration.writeBehind.maxBatch", 100);
+ public static final long WRITE_BEHIND_FLUSH_MS = Long.getLong("registration.writeBehind.flushMs", 200);
+ // Enrollment: seats of a course without a capacity of its own; seat changes are saved in batches
+ // of up to BATCH_SIZE, at the latest FLUSH_MS after the change
+ public static final int ENROLLMENT_DEFAULT_CAPACITY = Integer.getInteger("registration.enrollment.defaultCapacity", 30);
+ public static final int ENROLLMENT_BATCH_SIZE = Integer.getInteger("registration.enrollment.batchSize", 1_000);
+ public static final long ENROLLMENT_FLUSH_MS = Long.getLong("registration.enrollment.flushMs", 50);
+ // Local catalog snapshot the UI starts from while the database is still being asked for changes
+ public static final boolean SNAPSHOT_ENABLED = !Boolean.getBoolean("registration.snapshot.disabled");
+ public static final String SNAPSHOT_FILE = System.getProperty("registration.snapshot.file",
+     com.registration.db.DatabaseConfig.STORE_DIR + "/catalog-" + com.registration.db.DatabaseConfig.DAO_BACKEND + ".snapshot");
+}
@@ -0,0 +1,462 @@
+package com.registration.service;
+
+import com.registration.db.BatchResult;
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseColumn;
+import com.registration.db.CourseDAO;
+import com.registration.db.CourseWrite;
+import com.registration.model.Course;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind CourseDAO: adds, updates and deletes are queued and written by a background thread in
+ * group commits (CourseDAO.applyWrites) once maxBatch courses are pending or the oldest pending write
+ * is flushMillis old.
+ *
+ * Pending writes are coalesced per course: repeated updates become one update (conditional on the
+ * version the first one expected), an update of a pending insert changes the insert, and a course added
+ * and deleted before a flush is never written. Courses are written in the order they were first
+ * touched. Reads flush first, so callers always read their own writes.
+ *
+ * An added course gets a provisional negative id until its insert is written; the id can be used for
+ * updates and deletes meanwhile and until the flush after the one that wrote it. The outcome of every write is delivered to the futures returned by the
+ * submit methods and to the listeners; the CourseDAO write methods return as soon as the write is queued.
+ * close() flushes what is left; writes still queued when the process is killed are lost.
+ */
+public class WriteBehindCourseDAO implements CourseDAO, AutoCloseable {
+
+    /** Result of one queued write, as reported to listeners. */
+    public static final class Outcome {
+        private final CourseWrite.Kind kind;
+        private final int submittedId;
+        private final WriteResult result;
+        private final Exception error;
+
+        Outcome(CourseWrite.Kind kind, int submittedId, WriteResult result, Exception error) {
+            this.kind = kind;
+            this.submittedId = submittedId;
+            this.result = result;
+            this.error = error;
+        }
+
+        public CourseWrite.Kind getKind() { return kind; }
+        // The id the write was queued under (the provisional id for adds)
+        public int getSubmittedId() { return submittedId; }
+        // Null when the write failed with an error
+        public WriteResult getResult() { return result; }
+        public Exception getError() { return error; }
+        public boolean isApplied() { return result != null && result.isApplied(); }
+
+        @Override
+        public String toString() {
+            return kind + " #" + submittedId + ": " + (error != null ? "failed: " + error.getMessage() : result);
+        }
+    }
+
+    /** Coalesced writes of one course waiting for the next flush. */
+    private static final class Pending {
+        CourseWrite.Kind kind;
+        final int key;
+        Course course;
+        long expectedVersion;
+        final List<CompletableFuture<WriteResult>> futures = new ArrayList<>(1);
+
+        Pending(CourseWrite.Kind kind, int key, Course course, long expectedVersion) {
+            this.kind = kind;
+            this.key = key;
+            this.course = course;
+            this.expectedVersion = expectedVersion;
+        }
+    }
+
+    private final CourseDAO delegate;
+    private final int maxBatch;
+    private final long flushMillis;
+
+    // Insertion order = order in which courses were first touched
+    private final LinkedHashMap<Integer, Pending> pending = new LinkedHashMap<>();
+    // Provisional id -> database id of adds already written; kept until a later flush finds no write queued under it
+    private final Map<Integer, Integer> writtenIds = new HashMap<>();
+    private int nextProvisionalId = -1;
+    private boolean timerArmed;
+    private boolean immediateFlushQueued;
+    private boolean closed;
+
+    // Held for a whole flush so groups are written one after the other, in order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "course-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Consumer<Outcome>> listeners = new CopyOnWriteArrayList<>();
+
+    public WriteBehindCourseDAO(CourseDAO delegate) {
+        this(delegate, ServiceConfig.WRITE_BEHIND_MAX_BATCH, ServiceConfig.WRITE_BEHIND_FLUSH_MS);
+    }
+
+    public WriteBehindCourseDAO(CourseDAO delegate, int maxBatch, long flushMillis) {
+        this.delegate = delegate;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flushMillis = flushMillis;
+    }
+
+    public CourseDAO getDelegate() {
+        return delegate;
+    }
+
+    /** Listeners run on the flushing thread once a write has its outcome; they must not call back into this DAO. */
+    public void addListener(Consumer<Outcome> listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // --- Queueing ---
+
+    /** Queues an insert; the course is given a provisional id. The future receives the written course. */
+    public CompletableFuture<WriteResult> submitAdd(Course course) {
+        CompletableFuture<WriteResult> future = new CompletableFuture<>();
+        synchronized (this) {
+            checkOpen();
+            Pending write = new Pending(CourseWrite.Kind.INSERT, nextProvisionalId--, null, 0);
+            course.setCourseId(write.key);
+            course.setVersion(0);
+            write.course = new Course(course);
+            write.futures.add(future);
+            pending.put(write.key, write);
+            scheduleFlush();
+        }
+        applyBackpressure();
+        return future;
+    }
+
+    /** Queues an update, conditional on the course's version as for updateCourse. */
+    public CompletableFuture<WriteResult> submitUpdate(Course course) {
+        CompletableFuture<WriteResult> future = new CompletableFuture<>();
+        synchronized (this) {
+            checkOpen();
+            int key = resolve(course.getCourseId());
+            Pending write = pending.get(key);
+            if (write == null) {
+                write = new Pending(CourseWrite.Kind.UPDATE, key, null, course.getVersion());
+                pending.put(key, write);
+            } else if (write.kind == CourseWrite.Kind.DELETE) {
+                return CompletableFuture.completedFuture(WriteResult.notFound());
+            }
+            // A pending insert is written with the new values; a pending update keeps the version it
+            // expected, since this edit was made on top of it
+            write.course = new Course(course);
+            write.course.setCourseId(key);
+            write.futures.add(future);
+            scheduleFlush();
+        }
+        applyBackpressure();
+        return future;
+    }
+
+    /** Queues a delete of the course if it still has {@code expectedVersion} (0 = any version). */
+    public CompletableFuture<WriteResult> submitDelete(int courseId, long expectedVersion) {
+        CompletableFuture<WriteResult> future = new CompletableFuture<>();
+        List<CompletableFuture<WriteResult>> cancelled = null;
+        synchronized (this) {
+            checkOpen();
+            int key = resolve(courseId);
+            Pending write = pending.get(key);
+            if (write == null) {
+                write = new Pending(CourseWrite.Kind.DELETE, key, null, expectedVersion);
+                write.futures.add(future);
+                pending.put(key, write);
+                scheduleFlush();
+            } else if (write.kind == CourseWrite.Kind.INSERT) {
+                // Added and deleted before reaching the database: neither is written
+                pending.remove(key);
+                cancelled = write.futures;
+                future.complete(WriteResult.applied(null));
+            } else if (write.kind == CourseWrite.Kind.UPDATE) {
+                write.kind = CourseWrite.Kind.DELETE;
+                write.course = null;
+                if (expectedVersion == 0) {
+                    write.expectedVersion = 0;
+                }
+                write.futures.add(future);
+            } else {
+                future.complete(WriteResult.notFound());
+            }
+        }
+        if (cancelled != null) {
+            for (CompletableFuture<WriteResult> add : cancelled) {
+                add.complete(WriteResult.applied(null));
+            }
+        }
+        applyBackpressure();
+        return future;
+    }
+
+    // Provisional ids of adds already written are replaced by their database id
+    private int resolve(int courseId) {
+        Integer written = courseId < 0 ? writtenIds.get(courseId) : null;
+        return written != null ? written : courseId;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The write-behind queue is closed");
+        }
+    }
+
+    // Called with the monitor held
+    private void scheduleFlush() {
+        if (pending.size() >= maxBatch) {
+            if (!immediateFlushQueued) {
+                immediateFlushQueued = true;
+                flusher.execute(this::flushQuietly);
+            }
+        } else if (!timerArmed) {
+            timerArmed = true;
+            flusher.schedule(this::flushQuietly, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // A writer that outpaces the database flushes itself instead of growing the queue without bound
+    private void applyBackpressure() {
+        if (getPendingCount() >= maxBatch * 4) {
+            flushQuietly();
+        }
+    }
+
+    // --- Flushing ---
+
+    /** Writes everything queued so far and waits for it; errors are also reported to futures and listeners. */
+    public void flush() throws SQLException {
+        flushLock.lock();
+        try {
+            List<Pending> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                timerArmed = false;
+                immediateFlushQueued = false;
+                // Adds written by earlier flushes: listeners have moved to the database id by now
+                Set<Integer> queuedKeys = new HashSet<>();
+                for (Pending write : batch) {
+                    queuedKeys.add(write.key);
+                }
+                writtenIds.keySet().retainAll(queuedKeys);
+            }
+            for (int start = 0; start < batch.size(); start += maxBatch) {
+                try {
+                    write(batch.subList(start, Math.min(start + maxBatch, batch.size())));
+                } catch (SQLException | RuntimeException e) {
+                    // The later groups are not attempted: their writes fail too, keeping the order
+                    for (Pending write : batch.subList(Math.min(start + maxBatch, batch.size()), batch.size())) {
+                        finish(write, null, e);
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Database Error (Write Behind): " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Write Behind Error: " + e);
+        }
+    }
+
+    private void write(List<Pending> group) throws SQLException {
+        List<Pending> queued = new ArrayList<>(group.size());
+        List<CourseWrite> writes = new ArrayList<>(group.size());
+        for (Pending write : group) {
+            int courseId;
+            synchronized (this) {
+                courseId = resolve(write.key);
+            }
+            if (write.kind != CourseWrite.Kind.INSERT && courseId < 0) {
+                finish(write, WriteResult.notFound(), null); // its insert failed
+                continue;
+            }
+            queued.add(write);
+            switch (write.kind) {
+                case INSERT -> writes.add(CourseWrite.insert(write.course));
+                case UPDATE -> {
+                    Course course = new Course(write.course);
+                    course.setCourseId(courseId);
+                    course.setVersion(write.expectedVersion);
+                    writes.add(CourseWrite.update(course));
+                }
+                case DELETE -> writes.add(CourseWrite.delete(courseId, write.expectedVersion));
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            delegate.applyWrites(writes);
+        } catch (SQLException | RuntimeException e) {
+            for (Pending write : queued) {
+                finish(write, null, e);
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            Pending write = queued.get(i);
+            CourseWrite done = writes.get(i);
+            if (done.getError() != null) {
+                finish(write, null, done.getError());
+            } else if (done.isApplied()) {
+                if (write.kind == CourseWrite.Kind.INSERT) {
+                    synchronized (this) {
+                        writtenIds.put(write.key, done.getCourseId());
+                    }
+                }
+                finish(write, WriteResult.applied(done.getCourse() == null ? null : new Course(done.getCourse())), null);
+            } else {
+                // Rejected by the version check: tell a conflict from a course deleted meanwhile
+                try {
+                    Course current = delegate.getCourseById(done.getCourseId());
+                    finish(write, current == null ? WriteResult.notFound() : WriteResult.conflict(current), null);
+                } catch (SQLException e) {
+                    finish(write, null, e);
+                }
+            }
+        }
+    }
+
+    private void finish(Pending write, WriteResult result, Exception error) {
+        for (CompletableFuture<WriteResult> future : write.futures) {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+        Outcome outcome = new Outcome(write.kind, write.key, result, error);
+        for (Consumer<Outcome> listener : listeners) {
+            try {
+                listener.accept(outcome);
+            } catch (RuntimeException e) {
+                System.err.println("Write Behind Error (Listener): " + e);
+            }
+        }
+    }
+
+    /** Stops the background flushes and writes what is still queued. */
+    @Override
+    public void close() throws SQLException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.shutdown();
+        flush();
+    }
+
+    // --- CourseDAO: writes are queued, everything else flushes first ---
+
+    @Override
+    public void addCourse(Course course) {
+        submitAdd(course);
+    }
+
+    // Bulk loads are already batched: the queue is flushed and the batch goes straight through
+    @Override
+    public BatchResult addCourses(Iterable<Course> courses) throws SQLException {
+        flush();
+        return delegate.addCourses(courses);
+    }
+
+    // True once queued; false only if the queue already knows the course is gone
+    @Override
+    public boolean updateCourse(Course course) {
+        return !isRejected(submitUpdate(course));
+    }
+
+    @Override
+    public boolean deleteCourse(int id, long expectedVersion) {
+        return !isRejected(submitDelete(id, expectedVersion));
+    }
+
+    private static boolean isRejected(CompletableFuture<WriteResult> future) {
+        return future.isDone() && !future.isCompletedExceptionally() && !future.join().isApplied();
+    }
+
+    @Override
+    public void applyWrites(List<CourseWrite> writes) throws SQLException {
+        flush();
+        delegate.applyWrites(writes);
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        flush();
+        return delegate.getAllCourses();
+    }
+
+    @Override
+    public List<Course> getCoursesAfter(int lastId, int limit) throws SQLException {
+        flush();
+        return delegate.getCoursesAfter(lastId, limit);
+    }
+
+    @Override
+    public Stream<Course> streamCourses(int fetchSize, CourseColumn... columns) throws SQLException {
+        flush();
+        return delegate.streamCourses(fetchSize, columns);
+    }
+
+    @Override
+    public Course getCourseById(int id) throws SQLException {
+        flush();
+        synchronized (this) {
+            id = resolve(id);
+        }
+        return delegate.getCourseById(id);
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        flush();
+        return delegate.getCourseByCode(courseCode);
+    }
+
+    @Override
+    public long getLatestChangeToken() throws SQLException {
+        flush();
+        return delegate.getLatestChangeToken();
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long token) throws SQLException {
+        flush();
+        return delegate.getChangesSince(token);
+    }
+}
@@ -0,0 +1,45 @@
+package com.registration.service;
+
+import com.registration.model.Course;
+
+// Outcome of a versioned update or delete
+public class WriteResult {
+
+    public enum Status {
+        APPLIED,
+        // The course was changed by someone else after it was read; getCourse() is the current row
+        CONFLICT,
+        // The course no longer exists
+        NOT_FOUND
+    }
+
+    private final Status status;
+    private final Course course;
+
+    private WriteResult(Status status, Course course) {
+        this.status = status;
+        this.course = course;
+    }
+
+    public static WriteResult applied(Course written) {
+        return new WriteResult(Status.APPLIED, written);
+    }
+
+    public static WriteResult conflict(Course current) {
+        return new WriteResult(Status.CONFLICT, current);
+    }
+
+    public static WriteResult notFound() {
+        return new WriteResult(Status.NOT_FOUND, null);
+    }
+
+    public Status getStatus() { return status; }
+    // APPLIED: the course as written (null for deletes); CONFLICT: the current row; NOT_FOUND: null
+    public Course getCourse() { return course; }
+    public boolean isApplied() { return status == Status.APPLIED; }
+
+    @Override
+    public String toString() {
+        return status + (course != null ? " (" + course.getCourseCode() + " v" + course.getVersion() + ")" : "");
+    }
+}
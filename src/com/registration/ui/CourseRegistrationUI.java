@@ -1,15 +1,37 @@
 package com.registration.ui;
 
 
+import com.registration.db.ChangeSet;
+import com.registration.db.CourseWrite;
 import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+import com.registration.search.SearchResult;
+import com.registration.service.CatalogSnapshot;
+import com.registration.service.CourseChangePoller;
 import com.registration.service.CourseService;
+import com.registration.service.WriteBehindCourseDAO;
+import com.registration.service.WriteResult;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Main Java Swing Application for Course Registration CRUD.
@@ -21,18 +43,60 @@ public class CourseRegistrationUI extends JFrame {
     private final JTextField txtName = new JTextField(20);
     private final JComboBox<Integer> cmbCredits = new JComboBox<>(new Integer[]{1, 2, 3, 4, 5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31});
     private final JTextField txtInstructor = new JTextField(20);
+    private final JTextField txtSchedule = new JTextField(30);
     private final JButton btnAdd = new JButton("Add Course");
     private final JButton btnUpdate = new JButton("Update Course");
     private final JButton btnDelete = new JButton("Delete Course");
     private final JButton btnClear = new JButton("Clear Fields");
+    private final JTextField txtSearch = new JTextField(25);
+    private final JLabel lblSearchStatus = new JLabel(" ");
     private final JTable courseTable = new JTable();
-    private final DefaultTableModel tableModel;
+    private final JScrollPane scrollPane = new JScrollPane(courseTable);
+    private final CourseTableModel tableModel = new CourseTableModel();
 
     // Hidden field to store the currently selected Course ID for update/delete
     private int selectedCourseId = 0; 
+    // Row version the fields were loaded from; updates and deletes are rejected if the course changed since
+    private long selectedCourseVersion = 0;
     
+    // The catalog saved at the last run, read while the rest of the window is built
+    private final Path snapshotFile = CatalogSnapshot.defaultFile();
+    private final CompletableFuture<CatalogSnapshot> startupSnapshot = CompletableFuture.supplyAsync(this::readSnapshot);
+    // Change sets applied since the snapshot file was last written, merged into it by the next save (null while
+    // the file is not a base they apply to). Only the deltas are kept: no second catalog lives next to the table
+    private List<ChangeSet> unsavedChanges;
+    private int unsavedRows;
+    // Unsaved changed rows after which the snapshot is saved without waiting for exit
+    private static final int SNAPSHOT_SAVE_AFTER_ROWS = 10_000;
+    // Longest the window waits on exit for the snapshot to be written
+    private static final long SNAPSHOT_SAVE_TIMEOUT_MS = 5_000;
+    // Merges and writes snapshots one at a time, in order, off the EDT
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    // Change sets received while a capture is on its way, merged into it once it arrives
+    private List<ChangeSet> changesDuringCapture;
+    // Set when a resync arrives during a capture: the changes in between are unknown, so it is repeated
+    private boolean recaptureNeeded;
+
     // Service Layer Dependency
-    private final CourseService courseService = new CourseService(); 
+    private final CourseService courseService = CourseService.create(); 
+    // Merges changes made at other desks into the table instead of reloading it
+    private final CourseChangePoller changePoller = new CourseChangePoller(courseService);
+
+    // Lazy loading: rows are fetched page by page as the table is scrolled
+    private static final int PAGE_SIZE = 500;
+    private boolean pageLoading = false;
+    // Incremented on every full reload so pages from an earlier load are discarded
+    private int loadGeneration = 0;
+
+    // Search-as-you-type: the filter runs once typing pauses for SEARCH_DELAY_MS
+    private static final int SEARCH_DELAY_MS = 150;
+    private final Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> applyFilter());
+    // Current filter text, or null when the whole catalog is shown
+    private String activeQuery = null;
 
     // Constants for Styling
     private static final Color INPUT_BG_COLOR = new Color(220, 220, 220); // Gray background
@@ -42,14 +106,6 @@ public class CourseRegistrationUI extends JFrame {
         super("📚 Course Registration System (JDBC & Swing CRUD)");
         
         // 1. Initialize Table Model
-        String[] columnNames = {"ID", "Code", "Name", "Credits", "Instructor"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            // Override isCellEditable to prevent direct table editing
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
         courseTable.setModel(tableModel);
         
         // 2. Set up the Layout and Components
@@ -58,14 +114,51 @@ public class CourseRegistrationUI extends JFrame {
         // 3. Set up Action Listeners
         setupListeners();
         
-        // 4. Initial Load
-        loadCourses();
-
-        // 5. Frame Configuration
+        // 4. Frame Configuration
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // The save runs on the writer thread; a slow disk delays the exit by at most the timeout
+                try {
+                    saveSnapshot(null).get(SNAPSHOT_SAVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    System.err.println("Snapshot Error: not saved within " + SNAPSHOT_SAVE_TIMEOUT_MS + " ms, exiting without it");
+                } catch (ExecutionException ex) {
+                    System.err.println("Snapshot Error: " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
         pack();
         setLocationRelativeTo(null); // Center the window
         setVisible(true);
+
+        // 5. Show the catalog saved at the last run once it is read (off the EDT), then reconcile with
+        // (or load from) the database in the background and keep in sync
+        changePoller.addListener(changes -> SwingUtilities.invokeLater(() -> applyRemoteChanges(changes)));
+        if (courseService.getWriteBehind() != null) {
+            courseService.getWriteBehind().addListener(outcome -> SwingUtilities.invokeLater(() -> applyQueuedWrite(outcome)));
+        }
+        startupSnapshot.whenComplete((saved, error) -> SwingUtilities.invokeLater(() -> showSavedCatalog(saved)));
+    }
+
+    /** Shows the snapshot read at startup, if any (on the EDT), then starts syncing from it. */
+    private void showSavedCatalog(CatalogSnapshot saved) {
+        // A search typed meanwhile keeps its results; the catalog is loaded when the filter is cleared
+        if (saved != null && activeQuery == null) {
+            tableModel.appendCatalog(saved.getCatalog());
+            tableModel.setFullyLoaded(true);
+            StartupTimer.catalogShown("snapshot", saved.getCatalog().size());
+        }
+        startSync(saved);
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        StartupTimer.firstPaint();
     }
 
     private void setupUI() {
@@ -83,6 +176,7 @@ public class CourseRegistrationUI extends JFrame {
         applyInputStyle(txtCode);
         applyInputStyle(txtName);
         applyInputStyle(txtInstructor);
+        applyInputStyle(txtSchedule);
         ((JComponent) cmbCredits.getEditor().getEditorComponent()).setBackground(INPUT_BG_COLOR);
         cmbCredits.setForeground(FONT_COLOR);
         
@@ -92,6 +186,7 @@ public class CourseRegistrationUI extends JFrame {
         addLabelAndField(inputPanel, gbc, "Course Name:", txtName, row++);
         addLabelAndField(inputPanel, gbc, "Credits (1-5):", cmbCredits, row++);
         addLabelAndField(inputPanel, gbc, "Instructor:", txtInstructor, row++);
+        addLabelAndField(inputPanel, gbc, "Schedule (e.g., MON 09:00-10:30 B-204; WED ...):", txtSchedule, row++);
         
         add(inputPanel, BorderLayout.NORTH);
         
@@ -105,12 +200,22 @@ public class CourseRegistrationUI extends JFrame {
         btnDelete.setEnabled(false); // Disable until a row is selected
         buttonPanel.add(btnClear);
         
+        // --- Search Panel (filters the table by code, name or instructor) ---
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        applyInputStyle(txtSearch);
+        searchPanel.add(new JLabel("Search (code, name or instructor):"));
+        searchPanel.add(txtSearch);
+        searchPanel.add(lblSearchStatus);
+
+        JPanel controlsPanel = new JPanel(new BorderLayout());
+        controlsPanel.add(buttonPanel, BorderLayout.NORTH);
+        controlsPanel.add(searchPanel, BorderLayout.SOUTH);
+
         // Combine buttons and table into a center panel
         JPanel centerPanel = new JPanel(new BorderLayout());
-        centerPanel.add(buttonPanel, BorderLayout.NORTH);
+        centerPanel.add(controlsPanel, BorderLayout.NORTH);
         
         // JTable (Read/View)
-        JScrollPane scrollPane = new JScrollPane(courseTable);
         centerPanel.add(scrollPane, BorderLayout.CENTER);
         
         add(centerPanel, BorderLayout.CENTER);
@@ -151,24 +256,47 @@ public class CourseRegistrationUI extends JFrame {
                 updateButtonStates(true);
             }
         });
+
+        // --- Search box: restart the delay on every keystroke ---
+        searchTimer.setRepeats(false);
+        txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        });
+
+        // --- Fetch the next page when the table is scrolled near its end ---
+        scrollPane.getVerticalScrollBar().getModel().addChangeListener(e -> {
+            if (isNearEndOfTable()) {
+                loadNextPage();
+            }
+        });
     }
     
     /** Populates input fields when a row in the JTable is selected. */
     private void populateFieldsFromTable() {
         int selectedRow = courseTable.getSelectedRow();
         if (selectedRow >= 0) {
-            // Get the data from the JTable model (data is stored as objects)
-            selectedCourseId = (int) tableModel.getValueAt(selectedRow, 0);
-            String code = (String) tableModel.getValueAt(selectedRow, 1);
-            String name = (String) tableModel.getValueAt(selectedRow, 2);
-            int credits = (int) tableModel.getValueAt(selectedRow, 3);
-            String instructor = (String) tableModel.getValueAt(selectedRow, 4);
+            // Get the data from the table model
+            Course course = tableModel.getCourseAt(selectedRow);
+            selectedCourseId = course.getCourseId();
+            selectedCourseVersion = course.getVersion();
+            String code = course.getCourseCode();
+            String name = course.getCourseName();
+            int credits = course.getCredits();
+            String instructor = course.getInstructor();
 
             // Populate the fields
             txtCode.setText(code);
             txtName.setText(name);
             cmbCredits.setSelectedItem(credits);
             txtInstructor.setText(instructor);
+            txtSchedule.setText(MeetingSlot.formatSchedule(course.getSchedule()));
         }
     }
     
@@ -180,115 +308,549 @@ public class CourseRegistrationUI extends JFrame {
         txtCode.setEditable(!rowSelected); // Prevent changing code for a new course when editing
     }
 
+    // --- Background Execution ---
+
+    /**
+     * Runs a service call on a worker thread and hands the result (or failure) back on the EDT.
+     * CRUD buttons are disabled while the call is in flight to prevent double submits.
+     */
+    private <T> void runInBackground(Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        setCrudEnabled(false);
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                setCrudEnabled(true);
+                try {
+                    onSuccess.accept(get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    onError.accept(cause instanceof Exception ? (Exception) cause : e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    private void setCrudEnabled(boolean enabled) {
+        setCursor(enabled ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        if (enabled) {
+            updateButtonStates(selectedCourseId != 0);
+        } else {
+            btnAdd.setEnabled(false);
+            btnUpdate.setEnabled(false);
+            btnDelete.setEnabled(false);
+        }
+    }
+
     // --- CRUD Handlers ---
 
     private void handleAdd() {
-        try {
-            // Get data from form fields
-            String code = txtCode.getText().trim();
-            String name = txtName.getText().trim();
-            int credits = (Integer) cmbCredits.getSelectedItem();
-            String instructor = txtInstructor.getText().trim();
-
-            Course newCourse = new Course(code, name, credits, instructor);
-            
+        // Get data from form fields
+        String code = txtCode.getText().trim();
+        String name = txtName.getText().trim();
+        int credits = (Integer) cmbCredits.getSelectedItem();
+        String instructor = txtInstructor.getText().trim();
+
+        Course newCourse = new Course(code, name, credits, instructor);
+        if (!readSchedule(newCourse)) {
+            return;
+        }
+
+        runInBackground(() -> {
             courseService.addCourse(newCourse); // Validation and DB insert
-            
+            return newCourse;
+        }, added -> {
             JOptionPane.showMessageDialog(this, "Course Added Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             clearFields();
-            loadCourses(); // Refresh table
-            
-        } catch (IllegalArgumentException e) {
-            // RegEx or field validation error
-            JOptionPane.showMessageDialog(this, "Validation Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            // Database error (e.g., duplicate unique code, connection issue)
-            JOptionPane.showMessageDialog(this, "Database Error: Could not add course. Check if code is unique.", "DB Error", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-             JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            if (activeQuery != null) {
+                applyFilter(); // the new course may change the ranking
+            } else {
+                tableModel.insertCourse(added); // Show the new row only
+            }
+        }, e -> {
+            if (e instanceof IllegalArgumentException) {
+                // RegEx or field validation error
+                JOptionPane.showMessageDialog(this, "Validation Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            } else if (e instanceof SQLException) {
+                // Database error (e.g., duplicate unique code, connection issue)
+                JOptionPane.showMessageDialog(this, "Database Error: Could not add course. Check if code is unique.", "DB Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void handleUpdate() {
         if (selectedCourseId == 0) return; // Should not happen if buttons are managed correctly
         
+        // Get updated data from form fields
+        String code = txtCode.getText().trim();
+        String name = txtName.getText().trim();
+        int credits = (Integer) cmbCredits.getSelectedItem();
+        String instructor = txtInstructor.getText().trim();
+
+        // Create the updated course object using the stored ID and the version it was read at
+        Course updatedCourse = new Course(selectedCourseId, code, name, credits, instructor, selectedCourseVersion);
+        if (readSchedule(updatedCourse)) {
+            submitUpdate(updatedCourse);
+        }
+    }
+
+    // Parses the schedule field into the course; reports a malformed slot and returns false
+    private boolean readSchedule(Course course) {
         try {
-            // Get updated data from form fields
-            String code = txtCode.getText().trim();
-            String name = txtName.getText().trim();
-            int credits = (Integer) cmbCredits.getSelectedItem();
-            String instructor = txtInstructor.getText().trim();
-
-            // Create the updated course object using the stored ID
-            Course updatedCourse = new Course(selectedCourseId, code, name, credits, instructor);
-            
-            courseService.updateCourse(updatedCourse); // Validation and DB update
-            
-            JOptionPane.showMessageDialog(this, "Course Updated Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            clearFields();
-            loadCourses(); // Refresh table
-            
+            course.setSchedule(MeetingSlot.parseSchedule(txtSchedule.getText()));
+            return true;
         } catch (IllegalArgumentException e) {
             JOptionPane.showMessageDialog(this, "Validation Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database Error: Could not update course. Check if code is unique.", "DB Error", JOptionPane.ERROR_MESSAGE);
+            return false;
         }
     }
 
+    private void submitUpdate(Course updatedCourse) {
+        runInBackground(() -> courseService.updateCourse(updatedCourse), result -> { // Validation and DB update
+            switch (result.getStatus()) {
+                case APPLIED -> {
+                    JOptionPane.showMessageDialog(this, "Course Updated Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    clearFields();
+                    tableModel.updateCourse(result.getCourse()); // Repaint the edited row only
+                }
+                case CONFLICT -> resolveUpdateConflict(updatedCourse, result.getCourse());
+                case NOT_FOUND -> handleDeletedElsewhere(updatedCourse.getCourseId());
+            }
+        }, e -> {
+            if (e instanceof IllegalArgumentException) {
+                JOptionPane.showMessageDialog(this, "Validation Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            } else if (e instanceof SQLException) {
+                JOptionPane.showMessageDialog(this, "Database Error: Could not update course. Check if code is unique.", "DB Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
     private void handleDelete() {
         if (selectedCourseId == 0) return;
 
+        int courseId = selectedCourseId;
         int confirm = JOptionPane.showConfirmDialog(this, 
-            "Are you sure you want to delete Course ID " + selectedCourseId + "?", 
+            "Are you sure you want to delete Course ID " + courseId + "?", 
             "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                courseService.deleteCourse(selectedCourseId);
-                
-                JOptionPane.showMessageDialog(this, "Course Deleted Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                clearFields();
-                loadCourses(); // Refresh table
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Database Error: Could not delete course.", "DB Error", JOptionPane.ERROR_MESSAGE);
+            submitDelete(courseId, selectedCourseVersion);
+        }
+    }
+
+    private void submitDelete(int courseId, long expectedVersion) {
+        runInBackground(() -> courseService.deleteCourse(courseId, expectedVersion), result -> {
+            switch (result.getStatus()) {
+                case APPLIED -> {
+                    JOptionPane.showMessageDialog(this, "Course Deleted Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    clearFields();
+                    tableModel.removeCourse(courseId); // Remove the deleted row only
+                }
+                case CONFLICT -> resolveDeleteConflict(result.getCourse());
+                case NOT_FOUND -> handleDeletedElsewhere(courseId);
             }
+        }, e -> {
+            JOptionPane.showMessageDialog(this, "Database Error: Could not delete course.", "DB Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    // --- Edit Conflicts (the course was changed at another desk after it was selected) ---
+
+    private void resolveUpdateConflict(Course mine, Course theirs) {
+        tableModel.updateCourse(theirs);
+        Object[] options = {"Overwrite with Mine", "Load Theirs", "Keep Editing"};
+        int choice = JOptionPane.showOptionDialog(this,
+            "Course " + theirs.getCourseCode() + " was changed at another desk while you were editing it.\n\n"
+                + "Theirs: " + describe(theirs) + "\n"
+                + "Yours:  " + describe(mine),
+            "Edit Conflict", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[1]);
+        if (choice == 0) {
+            // Retry against the version just seen; conflicts again if it changes once more
+            mine.setVersion(theirs.getVersion());
+            submitUpdate(mine);
+        } else if (choice == 1) {
+            showCourse(theirs);
         }
     }
 
+    private void resolveDeleteConflict(Course theirs) {
+        tableModel.updateCourse(theirs);
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "Course " + theirs.getCourseCode() + " was changed at another desk since you selected it:\n"
+                + describe(theirs) + "\n\nDelete it anyway?",
+            "Edit Conflict", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirm == JOptionPane.YES_OPTION) {
+            submitDelete(theirs.getCourseId(), theirs.getVersion());
+        } else {
+            showCourse(theirs);
+        }
+    }
+
+    private void handleDeletedElsewhere(int courseId) {
+        JOptionPane.showMessageDialog(this, "This course was deleted at another desk.", "Course Not Found", JOptionPane.WARNING_MESSAGE);
+        tableModel.removeCourse(courseId);
+        clearFields();
+    }
+
+    /** Loads a course into the fields as the new editing base. */
+    private void showCourse(Course course) {
+        selectedCourseVersion = course.getVersion();
+        txtName.setText(course.getCourseName());
+        cmbCredits.setSelectedItem(course.getCredits());
+        txtInstructor.setText(course.getInstructor());
+        txtSchedule.setText(MeetingSlot.formatSchedule(course.getSchedule()));
+    }
+
+    private static String describe(Course course) {
+        String schedule = MeetingSlot.formatSchedule(course.getSchedule());
+        return course.getCourseName() + ", " + course.getCredits() + " credits, " + course.getInstructor()
+            + (schedule == null ? "" : ", " + schedule);
+    }
+
     private void clearFields() {
         txtCode.setText("");
         txtName.setText("");
         cmbCredits.setSelectedIndex(2); // Default to 3 credits
         txtInstructor.setText("");
+        txtSchedule.setText("");
         selectedCourseId = 0;
+        selectedCourseVersion = 0;
         courseTable.clearSelection();
         updateButtonStates(false);
         txtCode.requestFocusInWindow();
     }
 
+    /**
+     * Brings the table up to date: a snapshot shown at startup only needs the changes made since it was
+     * saved; without one (or when it is too old) the table is loaded page by page and a snapshot captured.
+     * Polling for changes made at other desks starts from the token the table is now at.
+     */
+    private void startSync(CatalogSnapshot saved) {
+        new SwingWorker<ChangeSet, Void>() {
+            private long latestToken;
+
+            @Override
+            protected ChangeSet doInBackground() throws SQLException {
+                latestToken = courseService.getLatestChangeToken();
+                if (saved == null || saved.getToken() > latestToken) {
+                    return null; // no snapshot, or one from before the database was recreated
+                }
+                return courseService.getChangesSince(saved.getToken());
+            }
+
+            @Override
+            protected void done() {
+                ChangeSet changes;
+                try {
+                    changes = get();
+                } catch (ExecutionException e) {
+                    System.err.println("Sync Error: " + e.getCause().getMessage());
+                    if (saved == null) {
+                        loadCourses(); // reports the connection problem
+                    } else {
+                        // Keep showing the snapshot; the poller catches up once the database answers
+                        lblSearchStatus.setText("Database unreachable: showing the catalog saved at the last run");
+                        unsavedChanges = new ArrayList<>();
+                        unsavedRows = 0;
+                        changePoller.start(saved.getToken());
+                        finishStartup();
+                    }
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (changes == null || changes.isResyncRequired()) {
+                    changePoller.start(changes == null ? latestToken : changes.getToken());
+                    loadCourses();
+                    captureSnapshot();
+                } else {
+                    changePoller.start(changes.getToken());
+                    unsavedChanges = new ArrayList<>();
+                    unsavedRows = 0;
+                    applyRemoteChanges(changes);
+                    saveSnapshot(saved).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> finishStartup()));
+                }
+            }
+        }.execute();
+    }
+
+    private CatalogSnapshot readSnapshot() {
+        if (snapshotFile == null) {
+            return null;
+        }
+        try {
+            return CatalogSnapshot.read(snapshotFile, CatalogSnapshot.defaultSource());
+        } catch (IOException e) {
+            System.err.println("Snapshot Error: " + e.getMessage() + " (loading from the database instead)");
+            return null;
+        }
+    }
+
+    /** Reads the whole catalog in the background and saves it as the snapshot for the next start. */
+    private void captureSnapshot() {
+        unsavedChanges = null;
+        if (snapshotFile == null) {
+            return;
+        }
+        if (changesDuringCapture != null) {
+            recaptureNeeded = true;
+            return;
+        }
+        changesDuringCapture = new ArrayList<>();
+        new SwingWorker<CatalogSnapshot, Void>() {
+            @Override
+            protected CatalogSnapshot doInBackground() throws SQLException {
+                return CatalogSnapshot.capture(courseService, CatalogSnapshot.defaultSource());
+            }
+
+            @Override
+            protected void done() {
+                List<ChangeSet> missed = changesDuringCapture;
+                changesDuringCapture = null;
+                if (recaptureNeeded) {
+                    recaptureNeeded = false;
+                    captureSnapshot();
+                    return;
+                }
+                try {
+                    CatalogSnapshot captured = get();
+                    // Merged into the capture as it is saved, off the EDT
+                    unsavedChanges = missed;
+                    unsavedRows = 0;
+                    saveSnapshot(captured).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> finishStartup()));
+                } catch (ExecutionException e) {
+                    System.err.println("Snapshot Error: " + e.getCause().getMessage());
+                    finishStartup();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Saves the snapshot on the writer thread: {@code base} (or, when null, the file saved last) with the
+     * change sets applied since the last save merged in, copying the catalog once. Called on the EDT;
+     * the future completes once the file is written (or there was nothing to save).
+     */
+    private CompletableFuture<Void> saveSnapshot(CatalogSnapshot base) {
+        List<ChangeSet> changes = unsavedChanges;
+        if (snapshotFile == null || changes == null || (base == null && changes.isEmpty())) {
+            return CompletableFuture.runAsync(() -> { }, snapshotWriter); // done once earlier saves are
+        }
+        unsavedChanges = new ArrayList<>();
+        unsavedRows = 0;
+        return CompletableFuture.runAsync(() -> {
+            try {
+                CatalogSnapshot saved = base != null ? base : CatalogSnapshot.read(snapshotFile, CatalogSnapshot.defaultSource());
+                if (saved != null) {
+                    saved.withChanges(changes).write(snapshotFile);
+                }
+            } catch (IOException e) {
+                System.err.println("Snapshot Error: could not save " + snapshotFile + ": " + e.getMessage());
+                // The file now misses changes later saves would not repeat: start from the database next time
+                try {
+                    Files.deleteIfExists(snapshotFile);
+                } catch (IOException ignored) {
+                    // An unreadable file is ignored on the next start as well
+                }
+            }
+        }, snapshotWriter);
+    }
+
+    // Startup is over once the table is in sync and the snapshot saved; measuring and training runs end here
+    private void finishStartup() {
+        if (StartupTimer.EXIT_WHEN_SHOWN) {
+            dispose();
+            System.exit(0);
+        }
+    }
+
+    /** Applies a change set from the poller (on the EDT); only the changed rows are touched. */
+    private void applyRemoteChanges(ChangeSet changes) {
+        if (changes.isResyncRequired()) {
+            captureSnapshot();
+            if (activeQuery != null) {
+                applyFilter();
+            } else {
+                loadCourses();
+            }
+            return;
+        }
+        if (changesDuringCapture != null) {
+            changesDuringCapture.add(changes);
+        } else if (unsavedChanges != null) {
+            // Merged by the next save: merging here would copy the whole catalog on the EDT per change set
+            unsavedChanges.add(changes);
+            unsavedRows += changes.getUpserted().size() + changes.getDeletedIds().size();
+            if (unsavedRows >= SNAPSHOT_SAVE_AFTER_ROWS) {
+                saveSnapshot(null);
+            }
+        }
+        tableModel.applyChanges(changes);
+        if (selectedCourseId != 0 && changes.getDeletedIds().contains(selectedCourseId)) {
+            clearFields(); // deleted at another desk
+        }
+    }
+
+    /** Settles a row shown before its queued write reached the database (on the EDT). */
+    private void applyQueuedWrite(WriteBehindCourseDAO.Outcome outcome) {
+        int submittedId = outcome.getSubmittedId();
+        if (outcome.isApplied()) {
+            Course written = outcome.getResult().getCourse();
+            if (outcome.getKind() == CourseWrite.Kind.INSERT && written != null) {
+                // The provisional row becomes the real one
+                tableModel.applyChanges(new ChangeSet(0, List.of(written), List.of(submittedId)));
+                if (selectedCourseId == submittedId) {
+                    selectedCourseId = written.getCourseId();
+                    selectedCourseVersion = written.getVersion();
+                }
+            }
+            return;
+        }
+        String reason = outcome.getError() != null ? outcome.getError().getMessage()
+            : outcome.getResult().getStatus() == WriteResult.Status.CONFLICT ? "it was changed at another desk" : "it was deleted at another desk";
+        JOptionPane.showMessageDialog(this, "A queued change could not be saved: " + reason, "Save Failed", JOptionPane.WARNING_MESSAGE);
+        Course current = outcome.getResult() != null ? outcome.getResult().getCourse() : null;
+        if (current != null) {
+            tableModel.applyChanges(new ChangeSet(0, List.of(current), List.of()));
+        } else if (outcome.getKind() == CourseWrite.Kind.INSERT || outcome.getResult() != null) {
+            tableModel.removeCourse(submittedId);
+        }
+        if (selectedCourseId == submittedId) {
+            clearFields();
+        }
+    }
+
+    /** Discards the loaded rows and starts paging the table in again from the first course. */
     private void loadCourses() {
         // Clear existing rows
-        tableModel.setRowCount(0); 
+        activeQuery = null;
+        tableModel.clear();
+        loadGeneration++;
+        pageLoading = false;
+        lblSearchStatus.setText(" ");
+        loadNextPage();
+    }
 
-        try {
-            List<Course> courses = courseService.getAllCourses();
-            
-            for (Course course : courses) {
-                // Add course data as a new row in the JTable
-                tableModel.addRow(new Object[]{
-                    course.getCourseId(),
-                    course.getCourseCode(),
-                    course.getCourseName(),
-                    course.getCredits(),
-                    course.getInstructor()
-                });
+    /** Shows the ranked matches of the search box, or the whole catalog when it is empty. */
+    private void applyFilter() {
+        String query = txtSearch.getText().trim();
+        if (query.isEmpty()) {
+            if (activeQuery != null) {
+                loadCourses();
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Could not load data from database. Check connection settings in DatabaseConfig.java.", "Connection Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        activeQuery = query;
+        tableModel.clear(false);
+        loadGeneration++;
+        pageLoading = false;
+        loadNextPage();
+    }
+
+    /** Fetches the page after the last loaded row in the background, unless one is already on its way. */
+    private void loadNextPage() {
+        if (pageLoading || tableModel.isFullyLoaded()) {
+            return;
         }
+        if (activeQuery != null) {
+            loadNextSearchPage();
+            return;
+        }
+        pageLoading = true;
+        int generation = loadGeneration;
+        int lastId = tableModel.getLastId();
+
+        new SwingWorker<List<Course>, Void>() {
+            @Override
+            protected List<Course> doInBackground() throws SQLException {
+                return courseService.getCoursesAfter(lastId, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return; // a newer reload has started
+                }
+                pageLoading = false;
+                try {
+                    List<Course> page = get();
+                    tableModel.setFullyLoaded(page.size() < PAGE_SIZE);
+                    tableModel.appendPage(page);
+                    if (StartupTimer.catalogShown("database", tableModel.getRowCount()) && snapshotFile == null) {
+                        finishStartup();
+                    }
+                    // Keep going until the visible area is filled
+                    if (isNearEndOfTable()) {
+                        loadNextPage();
+                    }
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(CourseRegistrationUI.this, "Could not load data from database. Check connection settings in DatabaseConfig.java.", "Connection Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /** Fetches the next page of ranked search results for the active filter. */
+    private void loadNextSearchPage() {
+        pageLoading = true;
+        int generation = loadGeneration;
+        String query = activeQuery;
+        int offset = tableModel.getRowCount();
+
+        new SwingWorker<SearchResult, Void>() {
+            @Override
+            protected SearchResult doInBackground() throws SQLException {
+                return courseService.searchCourses(query, offset, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return; // the filter changed meanwhile
+                }
+                pageLoading = false;
+                try {
+                    SearchResult result = get();
+                    tableModel.setFullyLoaded(!result.hasMore());
+                    tableModel.appendPage(result.getCourses());
+                    lblSearchStatus.setText(String.format("%d match(es) in %.2f ms",
+                        result.getTotalMatches(), result.getTookNanos() / 1_000_000.0));
+                    if (isNearEndOfTable()) {
+                        loadNextPage();
+                    }
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(CourseRegistrationUI.this, "Could not load data from database. Check connection settings in DatabaseConfig.java.", "Connection Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /** True when less than one page of rows remains below the visible area. */
+    private boolean isNearEndOfTable() {
+        BoundedRangeModel scroll = scrollPane.getVerticalScrollBar().getModel();
+        int remainingPixels = scroll.getMaximum() - (scroll.getValue() + scroll.getExtent());
+        return remainingPixels < courseTable.getRowHeight() * PAGE_SIZE / 2;
     }
 
     public static void main(String[] args) {
+        StartupTimer.mainEntered();
         // Use the Swing default look and feel
         SwingUtilities.invokeLater(() -> new CourseRegistrationUI());
     }
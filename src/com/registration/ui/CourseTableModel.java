@@ -0,0 +1,188 @@
+package com.registration.ui;
+
+import com.registration.db.ChangeSet;
+import com.registration.model.Course;
+import com.registration.model.MeetingSlot;
+import com.registration.service.ColumnarCatalog;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+/**
+ * Table model holding courses sorted by id (or in search-rank order while a filter is active).
+ * Rows are appended page by page and single-row changes fire single-row events,
+ * so an edit never repaints or rebuilds the whole table. Rows live in a {@link ColumnarCatalog}:
+ * cells are read straight from its columns and no Course object is kept per row.
+ */
+public class CourseTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"ID", "Code", "Name", "Credits", "Instructor", "Schedule"};
+    private static final Class<?>[] COLUMN_TYPES = {Integer.class, String.class, String.class, Integer.class, String.class, String.class};
+
+    private final ColumnarCatalog rows = new ColumnarCatalog();
+    // False while more pages remain in the database
+    private boolean fullyLoaded;
+    // Rows are ordered by id unless they hold ranked search results
+    private boolean idOrdered = true;
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_TYPES[column];
+    }
+
+    // Prevent direct table editing
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return rows.getCourseId(row);
+            case 1: return rows.getCourseCode(row);
+            case 2: return rows.getCourseName(row);
+            case 3: return rows.getCredits(row);
+            case 4: return rows.getInstructor(row);
+            case 5: return MeetingSlot.formatSchedule(rows.getSchedule(row));
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    /** A copy of the row's course, free to edit. */
+    public Course getCourseAt(int row) {
+        return rows.getCourse(row);
+    }
+
+    /** Id of the last loaded row, used as the keyset cursor for the next page. */
+    public int getLastId() {
+        return rows.size() == 0 ? 0 : rows.getCourseId(rows.size() - 1);
+    }
+
+    public boolean isFullyLoaded() {
+        return fullyLoaded;
+    }
+
+    public void setFullyLoaded(boolean fullyLoaded) {
+        this.fullyLoaded = fullyLoaded;
+    }
+
+    public void clear() {
+        clear(true);
+    }
+
+    /** Removes all rows; {@code idOrdered} is false when the next pages are ranked search results. */
+    public void clear(boolean idOrdered) {
+        int size = rows.size();
+        rows.clear();
+        fullyLoaded = false;
+        this.idOrdered = idOrdered;
+        if (size > 0) {
+            fireTableRowsDeleted(0, size - 1);
+        }
+    }
+
+    /** Appends a page fetched after {@link #getLastId()}. */
+    public void appendPage(List<Course> page) {
+        if (page.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        rows.addAll(page);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    /** Appends a whole id-ordered catalog (e.g. a snapshot) column by column. */
+    public void appendCatalog(ColumnarCatalog catalog) {
+        if (catalog.size() == 0) {
+            return;
+        }
+        int first = rows.size();
+        rows.addAll(catalog);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    /** Inserts a new course at its id position; returns its row or -1 if it belongs to a page not loaded yet. */
+    public int insertCourse(Course course) {
+        int index = indexOf(course.getCourseId());
+        if (index >= 0) {
+            return updateCourse(course);
+        }
+        if (!idOrdered) {
+            return -1; // ranked results are re-queried by the caller
+        }
+        int row = -(index + 1);
+        if (row == rows.size() && !fullyLoaded) {
+            return -1; // will arrive with a later page
+        }
+        rows.add(row, course);
+        fireTableRowsInserted(row, row);
+        return row;
+    }
+
+    /** Replaces the row with the same id; returns its row or -1 if it is not loaded. */
+    public int updateCourse(Course course) {
+        int row = indexOf(course.getCourseId());
+        if (row < 0) {
+            return -1;
+        }
+        rows.set(row, course);
+        fireTableRowsUpdated(row, row);
+        return row;
+    }
+
+    /**
+     * Merges changes made by other clients: loaded rows are updated or removed and new courses are
+     * inserted where they belong. Rows already showing a newer version are left alone.
+     */
+    public void applyChanges(ChangeSet changes) {
+        for (Course course : changes.getUpserted()) {
+            int row = indexOf(course.getCourseId());
+            if (row < 0) {
+                insertCourse(course);
+            } else if (rows.getVersion(row) <= course.getVersion()) {
+                rows.set(row, course);
+                fireTableRowsUpdated(row, row);
+            }
+        }
+        for (int courseId : changes.getDeletedIds()) {
+            removeCourse(courseId);
+        }
+    }
+
+    public void removeCourse(int courseId) {
+        int row = indexOf(courseId);
+        if (row >= 0) {
+            rows.remove(row);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    /** Binary search over the id-ordered rows; negative result encodes the insertion point. */
+    private int indexOf(int courseId) {
+        if (!idOrdered) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.getCourseId(i) == courseId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return rows.binarySearch(courseId);
+    }
+}
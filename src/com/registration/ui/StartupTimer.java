@@ -0,0 +1,79 @@
+package com.registration.ui;
+
+import com.registration.metrics.Metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Times the UI's startup from JVM launch: main entered, first paint of the window and first rows in the
+ * table. One summary line is printed once the rows are shown, with a warning when that took longer than
+ * -Dregistration.startup.targetMs (default 1000). With metrics on, the phases are also recorded as the
+ * ui.firstPaint and ui.catalogShown operations.
+ */
+final class StartupTimer {
+
+    static final long TARGET_MS = Long.getLong("registration.startup.targetMs", 1_000);
+    // Exit as soon as the catalog is shown: for measuring startup and for AppCDS training runs
+    static final boolean EXIT_WHEN_SHOWN = Boolean.getBoolean("registration.startup.exitWhenShown");
+
+    // Launch time of this JVM in nanoTime terms; falls back to class initialisation if the OS won't say
+    private static final long LAUNCH_NANOS = launchNanos();
+
+    private static long mainNanos;
+    private static long firstPaintNanos;
+    private static long catalogShownNanos;
+
+    private StartupTimer() {
+    }
+
+    private static long launchNanos() {
+        long now = System.nanoTime();
+        Instant started = ProcessHandle.current().info().startInstant().orElse(null);
+        if (started == null) {
+            return now;
+        }
+        long sinceLaunch = Duration.between(started, Instant.now()).toNanos();
+        return sinceLaunch >= 0 ? now - sinceLaunch : now;
+    }
+
+    // All marks are made on the EDT (main's before the EDT does anything)
+
+    static void mainEntered() {
+        mainNanos = System.nanoTime();
+    }
+
+    static void firstPaint() {
+        if (firstPaintNanos == 0) {
+            firstPaintNanos = System.nanoTime();
+            record("ui.firstPaint", firstPaintNanos);
+        }
+    }
+
+    /** Marks the first rows shown; {@code from} says where they came from (snapshot or database). */
+    static boolean catalogShown(String from, int rows) {
+        if (catalogShownNanos != 0) {
+            return false;
+        }
+        catalogShownNanos = System.nanoTime();
+        record("ui.catalogShown", catalogShownNanos);
+        long shownMs = millis(catalogShownNanos);
+        System.out.printf(Locale.ROOT, "Startup: main %d ms, first paint %d ms, %d courses shown from %s at %d ms%n",
+            millis(mainNanos), millis(firstPaintNanos), rows, from, shownMs);
+        if (shownMs > TARGET_MS) {
+            System.err.printf(Locale.ROOT, "Startup Warning: the catalog took %d ms to show, target is %d ms%n", shownMs, TARGET_MS);
+        }
+        return true;
+    }
+
+    private static long millis(long nanos) {
+        return nanos == 0 ? -1 : (nanos - LAUNCH_NANOS) / 1_000_000;
+    }
+
+    private static void record(String operation, long nanos) {
+        if (Metrics.ENABLED) {
+            Metrics.operation(operation).record(nanos - LAUNCH_NANOS, false);
+        }
+    }
+}
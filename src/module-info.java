@@ -7,6 +7,11 @@
 module CourseRegistration {
 	requires java.sql;
 	requires java.desktop;
+	requires java.sql.rowset; // in-memory ResultSets for benchmarks
+	requires java.management; // metrics MBeans
+	requires jdk.httpserver; // headless course server
+	requires java.net.http; // RemoteCourseDAO
+	requires jdk.management; // open file descriptor counts in the load generator
 	
 	
 }
\ No newline at end of file